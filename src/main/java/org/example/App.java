@@ -1,50 +1,171 @@
 package org.example;
 
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.Scanner;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import org.example.model.AnalysisReport;
 import org.example.model.Student;
+import org.example.server.GradeHttpServer;
 import org.example.service.GradeAnalyzerService;
+import org.example.service.GradeCube;
+import org.example.service.GradeDirectoryWatcher;
+import org.example.service.GradeManifest;
+import org.example.service.IncrementalReadResult;
+import org.example.service.ReportWriter;
+import org.example.service.ValidationReport;
 
 public class App {
   private static final Logger logger = LogManager.getLogger(App.class);
-  private static final String REPORT_FILE_NAME = "отчет.тхт";
+  private static final String WATCH_OPTION = "--watch";
+  private static final String SNAPSHOT_OPTION = "--snapshot";
+  private static final String SAVE_SNAPSHOT_OPTION = "--save-snapshot";
+  private static final String PIPELINE_OPTION = "--pipeline";
+  private static final String TREE_OPTION = "--tree";
+  private static final String SERVER_OPTION = "--server";
+  private static final String THREADS_OPTION = "--threads";
+  private static final int PIPELINE_QUEUE_CAPACITY = 1024;
+  private static final int LEADERBOARD_SIZE = 10;
+  private static final int SUBJECT_LEADERBOARD_SIZE = 3;
+  private static final Duration WATCH_DEBOUNCE = Duration.ofMillis(500);
   private final GradeAnalyzerService analyzerService = new GradeAnalyzerService();
+  private final ReportWriter reportWriter = new ReportWriter();
+  private final int readerThreads;
+
+  public App() {
+    this(GradeAnalyzerService.DEFAULT_READER_THREADS);
+  }
+
+  /**
+   * @param readerThreads число файлов, разбираемых одновременно в режимах {@code --pipeline},
+   *                      {@code --tree} и {@code --server}
+   */
+  public App(int readerThreads) {
+    this.readerThreads = readerThreads;
+  }
 
   public static void main(String[] args) {
-    new App().run();
+    int readerThreads = GradeAnalyzerService.DEFAULT_READER_THREADS;
+    if (args.length > 0 && THREADS_OPTION.equals(args[0])) {
+      String value = requireArgument(args);
+      try {
+        readerThreads = Integer.parseInt(value);
+      } catch (NumberFormatException e) {
+        readerThreads = 0;
+      }
+      if (readerThreads < 1) {
+        System.err.println("Некорректное число потоков чтения: " + value);
+        return;
+      }
+      args = Arrays.copyOfRange(args, 2, args.length);
+    }
+
+    App app = new App(readerThreads);
+    if (args.length == 0) {
+      app.run();
+      return;
+    }
+
+    switch (args[0]) {
+      case WATCH_OPTION -> app.runWatch(args.length > 1 ? args[1] : null);
+      case SNAPSHOT_OPTION -> app.runFromSnapshot(requireArgument(args));
+      case SAVE_SNAPSHOT_OPTION -> app.run(requireArgument(args));
+      case PIPELINE_OPTION -> app.runPipeline(args.length > 1 ? args[1] : null);
+      case TREE_OPTION -> app.runTree(args.length > 1 ? args[1] : null);
+      case SERVER_OPTION -> app.runServer(requireArgument(args), args.length > 2 ? args[2] : null);
+      default -> printUsage();
+    }
   }
 
   public void run() {
+    run(null);
+  }
+
+  /**
+   * Интерактивный анализ директории. Если указан {@code snapshotPath}, разобранные студенты
+   * дополнительно сохраняются в бинарный снимок.
+   */
+  public void run(String snapshotPath) {
     logger.info("Запуск приложения анализатора оценок.");
-    Scanner scanner = new Scanner(System.in);
-    System.out.print("Введите путь к папке с файлами оценок: ");
-    String path = scanner.nextLine();
+    String path = promptForPath();
 
     try {
-      List<Student> students = analyzerService.readStudentsFromDirectory(path);
+      if (Files.isRegularFile(Paths.get(path))) {
+        analyzeFile(path, snapshotPath);
+        return;
+      }
+
+      IncrementalReadResult readResult = analyzerService.readStudentsIncrementally(path);
+      reportValidationErrors(readResult.getValidationReport(), Paths.get(path));
+      List<Student> students = readResult.getStudents();
       if (students.isEmpty()) {
         System.out.println("В указанной директории не найдено корректных файлов с оценками.");
         logger.warn("Студенты не найдены в директории: {}", path);
         return;
       }
 
-      Map<String, Double> avgGrades = analyzerService.calculateAverageGradesBySubject(students);
-      List<Student> bestStudents = analyzerService.findBestStudents(students);
-      List<Student> worstStudents = analyzerService.findWorstStudents(students);
+      AnalysisReport report = analyzerService.analyzeIncremental(readResult, LEADERBOARD_SIZE,
+          SUBJECT_LEADERBOARD_SIZE);
+      write(report, Paths.get(path));
+
+      if (snapshotPath != null) {
+        analyzerService.saveSnapshot(students, snapshotPath);
+        System.out.println("Снимок успешно сохранен в файл: " + snapshotPath);
+      }
+    } catch (IOException e) {
+      System.err.println("Произошла ошибка ввода-вывода: " + e.getMessage());
+      logger.fatal("Критическая ошибка I/O", e);
+    }
+    logger.info("Приложение завершило работу.");
+  }
+
+  /**
+   * Анализ ZIP-архива без распаковки или общего файла со строками ФИО;Предмет;Оценка;
+   * отчет сохраняется рядом с файлом.
+   */
+  private void analyzeFile(String filePath, String snapshotPath) throws IOException {
+    Path reportDirectory = Paths.get(filePath).toAbsolutePath().getParent();
+    ValidationReport validationReport = new ValidationReport();
+    List<Student> students = analyzerService.isArchive(filePath)
+        ? analyzerService.readStudentsFromDirectory(filePath, 1, validationReport)
+        : analyzerService.readStudentsFromBulkFile(filePath, validationReport);
+    reportValidationErrors(validationReport, reportDirectory);
+    if (students.isEmpty()) {
+      System.out.println("В указанном файле не найдено корректных оценок.");
+      logger.warn("Студенты не найдены в файле: {}", filePath);
+      return;
+    }
+
+    report(students, reportDirectory);
+
+    if (snapshotPath != null) {
+      analyzerService.saveSnapshot(students, snapshotPath);
+      System.out.println("Снимок успешно сохранен в файл: " + snapshotPath);
+    }
+  }
+
+  /**
+   * Анализ по бинарному снимку; отчет сохраняется в папку снимка.
+   */
+  public void runFromSnapshot(String snapshotPath) {
+    logger.info("Запуск анализа по снимку {}.", snapshotPath);
 
-      printReportToConsole(avgGrades, bestStudents, worstStudents, students.size());
-      writeReportToFile(avgGrades, bestStudents, worstStudents, students.size(), path);
+    try {
+      List<Student> students = analyzerService.readStudentsFromSnapshot(snapshotPath);
+      if (students.isEmpty()) {
+        System.out.println("Снимок не содержит студентов.");
+        return;
+      }
 
+      Path reportDirectory = Paths.get(snapshotPath).toAbsolutePath().getParent();
+      report(students, reportDirectory);
     } catch (IOException e) {
       System.err.println("Произошла ошибка ввода-вывода: " + e.getMessage());
       logger.fatal("Критическая ошибка I/O", e);
@@ -52,64 +173,178 @@ public class App {
     logger.info("Приложение завершило работу.");
   }
 
-  private void printReportToConsole(Map<String, Double> avgGrades, List<Student> best,
-                                    List<Student> worst, int total) {
-    System.out.println("\n--- Отчет об успеваемости ---");
-    System.out.println("\nСредний балл по предметам:");
-    avgGrades.forEach((subject, avg) -> System.out.printf("%s - %.2f%n", subject, avg));
+  /**
+   * Потоковый анализ большой директории конвейером с ограниченными очередями.
+   */
+  public void runPipeline(String path) {
+    logger.info("Запуск потокового анализа.");
+    if (path == null) {
+      path = promptForPath();
+    }
+
+    try {
+      ValidationReport validationReport = new ValidationReport();
+      AnalysisReport report = analyzerService.analyzeWithPipeline(path, readerThreads,
+          Runtime.getRuntime().availableProcessors(), 1, PIPELINE_QUEUE_CAPACITY,
+          validationReport);
+      reportValidationErrors(validationReport, Paths.get(path));
+      if (report.getStudentCount() == 0) {
+        System.out.println("В указанной директории не найдено корректных файлов с оценками.");
+        logger.warn("Студенты не найдены в директории: {}", path);
+        return;
+      }
 
-    if (best.size() == 1) {
-      System.out.println("\nЛучший ученик:");
-    } else {
-      System.out.println("\nЛучшие ученики:");
+      write(report, Paths.get(path));
+    } catch (IOException e) {
+      System.err.println("Произошла ошибка ввода-вывода: " + e.getMessage());
+      logger.fatal("Критическая ошибка I/O", e);
     }
-    best.forEach(
-        s -> System.out.printf("%s (средний балл - %.2f)%n", s.getFullName(), s.getAverageGrade()));
+    logger.info("Приложение завершило работу.");
+  }
 
-    if (worst.size() == 1) {
-      System.out.println("\nХудший ученик:");
-    } else {
-      System.out.println("\nХудшие ученики:");
+  /**
+   * Анализ дерева школа/класс/ученик.txt с детализацией отчета по школам и классам.
+   */
+  public void runTree(String path) {
+    logger.info("Запуск анализа по школам и классам.");
+    if (path == null) {
+      path = promptForPath();
     }
-    worst.forEach(
-        s -> System.out.printf("%s (средний балл - %.2f)%n", s.getFullName(), s.getAverageGrade()));
 
-    System.out.printf("%nКоличество учеников: %d%n", total);
-    System.out.println("--- Конец отчета ---\n");
+    try {
+      ValidationReport validationReport = new ValidationReport();
+      GradeCube cube = analyzerService.readGradeCubeFromTree(path, readerThreads,
+          validationReport);
+      Path reportDirectory = analyzerService.isArchive(path)
+          ? Paths.get(path).toAbsolutePath().getParent() : Paths.get(path);
+      reportValidationErrors(validationReport, reportDirectory);
+      AnalysisReport report = cube.toReport();
+      if (report.getStudentCount() == 0) {
+        System.out.println("В указанном дереве не найдено корректных файлов с оценками.");
+        logger.warn("Студенты не найдены в дереве: {}", path);
+        return;
+      }
+
+      write(report, reportDirectory);
+    } catch (IOException e) {
+      System.err.println("Произошла ошибка ввода-вывода: " + e.getMessage());
+      logger.fatal("Критическая ошибка I/O", e);
+    }
+    logger.info("Приложение завершило работу.");
   }
 
-  private void writeReportToFile(Map<String, Double> avgGrades, List<Student> best,
-                                 List<Student> worst, int total, String dirPath) throws
-      IOException {
-    Path reportPath = Paths.get(dirPath, REPORT_FILE_NAME);
+  /**
+   * Режим сервера: результаты анализа директории доступны по HTTP в формате JSON до
+   * остановки процесса.
+   */
+  public void runServer(String address, String path) {
+    logger.info("Запуск сервера анализа оценок.");
+    if (path == null) {
+      path = promptForPath();
+    }
 
-    Files.deleteIfExists(reportPath);
+    // Адрес задается как "порт" (только петлевой интерфейс) или "хост:порт"
+    int separator = address.lastIndexOf(':');
+    String host = separator < 0 ? GradeHttpServer.DEFAULT_HOST : address.substring(0, separator);
+    String port = address.substring(separator + 1);
+    int portNumber;
+    try {
+      portNumber = Integer.parseInt(port);
+    } catch (NumberFormatException e) {
+      System.err.println("Некорректный номер порта: " + port);
+      return;
+    }
 
-    try (PrintWriter writer = new PrintWriter(
-        Files.newBufferedWriter(reportPath, StandardCharsets.UTF_8))) {
-      avgGrades.forEach((subject, avg) -> writer.printf("%s - %.2f%n", subject, avg));
-      writer.println();
+    try {
+      GradeHttpServer server = new GradeHttpServer(analyzerService, path, host, portNumber,
+          readerThreads);
+      Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+      server.start();
+      System.out.println("Сервер запущен: http://" + server.getAddress().getHostString() + ":"
+          + server.getPort() + "/api/summary. Для выхода нажмите Ctrl+C.");
+    } catch (IOException e) {
+      System.err.println("Произошла ошибка ввода-вывода: " + e.getMessage());
+      logger.fatal("Критическая ошибка I/O", e);
+    }
+  }
 
-      if (best.size() == 1) {
-        writer.println("Лучший ученик:");
-      } else {
-        writer.println("Лучшие ученики:");
-      }
-      best.forEach(
-          s -> writer.printf("%s (средний балл - %.2f)%n", s.getFullName(), s.getAverageGrade()));
-      writer.println();
-
-      if (worst.size() == 1) {
-        writer.println("Худший ученик:");
-      } else {
-        writer.println("Худшие ученики:");
-      }
-      worst.forEach(
-          s -> writer.printf("%s (средний балл - %.2f)%n", s.getFullName(), s.getAverageGrade()));
-      writer.println();
+  /**
+   * Режим наблюдения: отчет в директории обновляется после каждого изменения файлов.
+   */
+  public void runWatch(String path) {
+    logger.info("Запуск анализатора в режиме наблюдения.");
+    if (path == null) {
+      path = promptForPath();
+    }
 
-      writer.printf("Количество учеников: %d%n", total);
+    try (GradeDirectoryWatcher watcher = analyzerService.watchDirectory(path, WATCH_DEBOUNCE)) {
+      Runtime.getRuntime().addShutdownHook(new Thread(watcher::close));
+      System.out.println("Наблюдение за директорией " + path + ". Для выхода нажмите Ctrl+C.");
+      watcher.run();
+    } catch (IOException e) {
+      System.err.println("Произошла ошибка ввода-вывода: " + e.getMessage());
+      logger.fatal("Критическая ошибка I/O", e);
     }
+    logger.info("Режим наблюдения завершен.");
+  }
+
+  private void report(List<Student> students, Path reportDirectory) throws IOException {
+    write(analyzerService.analyzeAll(students, LEADERBOARD_SIZE, SUBJECT_LEADERBOARD_SIZE),
+        reportDirectory);
+  }
+
+  private void write(AnalysisReport report, Path reportDirectory) throws IOException {
+    reportWriter.printToConsole(report);
+    Path reportPath = reportWriter.writeToFile(report, reportDirectory);
     System.out.println("Отчет успешно сохранен в файл: " + reportPath);
   }
+
+  /**
+   * Сохраняет сводку ошибок рядом с отчетом, если какие-то файлы были пропущены; иначе
+   * удаляет сводку прошлого запуска, чтобы она не выдавалась за текущую.
+   */
+  private void reportValidationErrors(ValidationReport validationReport, Path reportDirectory)
+      throws IOException {
+    if (validationReport.isEmpty()) {
+      reportWriter.deleteValidationReport(reportDirectory);
+      return;
+    }
+    Path reportPath = reportWriter.writeValidationReport(validationReport, reportDirectory);
+    System.out.println("Пропущено файлов с ошибками: " + validationReport.getTotalCount()
+        + ", подробности в файле: " + reportPath);
+  }
+
+  private String promptForPath() {
+    Scanner scanner = new Scanner(System.in);
+    System.out.print("Введите путь к папке, ZIP-архиву или файлу с оценками: ");
+    return scanner.nextLine();
+  }
+
+  private static String requireArgument(String[] args) {
+    if (args.length < 2) {
+      printUsage();
+      System.exit(1);
+    }
+    return args[1];
+  }
+
+  private static void printUsage() {
+    System.err.println("Использование:");
+    System.err.println("  java -jar grade-analyzer.jar                      интерактивный анализ");
+    System.err.println("      (в папке с оценками сохраняется " + GradeManifest.FILE_NAME
+        + " для быстрого повторного анализа; его можно удалить)");
+    System.err.println("  java -jar grade-analyzer.jar --watch [папка]      режим наблюдения");
+    System.err.println("  java -jar grade-analyzer.jar --snapshot файл      анализ по снимку");
+    System.err.println("  java -jar grade-analyzer.jar --save-snapshot файл анализ и сохранение"
+        + " снимка");
+    System.err.println("  java -jar grade-analyzer.jar --pipeline [папка]   потоковый анализ");
+    System.err.println("  java -jar grade-analyzer.jar --tree [папка]       анализ по школам и"
+        + " классам");
+    System.err.println("  java -jar grade-analyzer.jar --server порт [папка] HTTP-сервер с"
+        + " результатами в JSON");
+    System.err.println("      (слушает только " + GradeHttpServer.DEFAULT_HOST
+        + "; для доступа из сети укажите хост:порт, например 0.0.0.0:8080)");
+    System.err.println("  перед режимом можно указать --threads N - число файлов, разбираемых"
+        + " одновременно (по умолчанию " + GradeAnalyzerService.DEFAULT_READER_THREADS + ")");
+  }
 }
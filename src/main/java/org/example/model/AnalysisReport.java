@@ -0,0 +1,143 @@
+package org.example.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Итоги анализа успеваемости, из которых строится отчет.
+ *
+ * <p>Создается через {@link Builder}: незаданные части отчета остаются пустыми. Списки и
+ * словари копируются при создании и отдаются только для чтения, поэтому один отчет можно
+ * безопасно передавать нескольким читателям, например из кэша. Порядок словарей
+ * сохраняется.
+ */
+public class AnalysisReport {
+  private final Map<String, Double> averageGrades;
+  private final List<Student> bestStudents;
+  private final List<Student> worstStudents;
+  private final int studentCount;
+  private final Map<String, GradeDistribution> gradeDistributions;
+  private final List<CohortSummary> cohortSummaries;
+  private final Leaderboard leaderboard;
+  private final Map<String, SubjectLeaderboard> subjectLeaderboards;
+
+  private AnalysisReport(Builder builder) {
+    this.averageGrades = copyOf(builder.averageGrades);
+    this.bestStudents = List.copyOf(builder.bestStudents);
+    this.worstStudents = List.copyOf(builder.worstStudents);
+    this.studentCount = builder.studentCount;
+    this.gradeDistributions = copyOf(builder.gradeDistributions);
+    this.cohortSummaries = List.copyOf(builder.cohortSummaries);
+    this.leaderboard = builder.leaderboard;
+    this.subjectLeaderboards = copyOf(builder.subjectLeaderboards);
+  }
+
+  public Map<String, Double> getAverageGrades() {
+    return averageGrades;
+  }
+
+  public List<Student> getBestStudents() {
+    return bestStudents;
+  }
+
+  public List<Student> getWorstStudents() {
+    return worstStudents;
+  }
+
+  public int getStudentCount() {
+    return studentCount;
+  }
+
+  /**
+   * Распределение оценок по предметам; пустое, если не рассчитывалось.
+   */
+  public Map<String, GradeDistribution> getGradeDistributions() {
+    return gradeDistributions;
+  }
+
+  /**
+   * Итоги по школам и их классам в порядке вывода; пустые, если набор не делился по папкам.
+   */
+  public List<CohortSummary> getCohortSummaries() {
+    return cohortSummaries;
+  }
+
+  /**
+   * Рейтинг первых и последних учеников; пустой ({@link Leaderboard#empty()}), если не
+   * строился.
+   */
+  public Leaderboard getLeaderboard() {
+    return leaderboard;
+  }
+
+  /**
+   * Лучшие и худшие ученики по каждому предмету; пустые, если не рассчитывались.
+   */
+  public Map<String, SubjectLeaderboard> getSubjectLeaderboards() {
+    return subjectLeaderboards;
+  }
+
+  private static <V> Map<String, V> copyOf(Map<String, V> map) {
+    return Collections.unmodifiableMap(new LinkedHashMap<>(map));
+  }
+
+  /**
+   * Собирает отчет по частям; каждая часть по умолчанию пуста.
+   */
+  public static final class Builder {
+    private Map<String, Double> averageGrades = Map.of();
+    private List<Student> bestStudents = List.of();
+    private List<Student> worstStudents = List.of();
+    private int studentCount;
+    private Map<String, GradeDistribution> gradeDistributions = Map.of();
+    private List<CohortSummary> cohortSummaries = List.of();
+    private Leaderboard leaderboard = Leaderboard.empty();
+    private Map<String, SubjectLeaderboard> subjectLeaderboards = Map.of();
+
+    public Builder averageGrades(Map<String, Double> averageGrades) {
+      this.averageGrades = averageGrades;
+      return this;
+    }
+
+    public Builder bestStudents(List<Student> bestStudents) {
+      this.bestStudents = bestStudents;
+      return this;
+    }
+
+    public Builder worstStudents(List<Student> worstStudents) {
+      this.worstStudents = worstStudents;
+      return this;
+    }
+
+    public Builder studentCount(int studentCount) {
+      this.studentCount = studentCount;
+      return this;
+    }
+
+    public Builder gradeDistributions(Map<String, GradeDistribution> gradeDistributions) {
+      this.gradeDistributions = gradeDistributions;
+      return this;
+    }
+
+    public Builder cohortSummaries(List<CohortSummary> cohortSummaries) {
+      this.cohortSummaries = cohortSummaries;
+      return this;
+    }
+
+    public Builder leaderboard(Leaderboard leaderboard) {
+      this.leaderboard = leaderboard;
+      return this;
+    }
+
+    public Builder subjectLeaderboards(Map<String, SubjectLeaderboard> subjectLeaderboards) {
+      this.subjectLeaderboards = subjectLeaderboards;
+      return this;
+    }
+
+    public AnalysisReport build() {
+      return new AnalysisReport(this);
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package org.example.model;
+
+/**
+ * Итоги анализа одной школы или одного класса школы для детализации отчета.
+ */
+public class CohortSummary {
+  private final String school;
+  private final String schoolClass;
+  private final AnalysisReport report;
+
+  public CohortSummary(String school, String schoolClass, AnalysisReport report) {
+    this.school = school;
+    this.schoolClass = schoolClass;
+    this.report = report;
+  }
+
+  public String getSchool() {
+    return school;
+  }
+
+  /**
+   * Класс или {@code null} для итогов по всей школе.
+   */
+  public String getSchoolClass() {
+    return schoolClass;
+  }
+
+  public boolean isSchoolTotal() {
+    return schoolClass == null;
+  }
+
+  /**
+   * Средние по предметам, лучшие и худшие ученики и их количество в школе или классе.
+   */
+  public AnalysisReport getReport() {
+    return report;
+  }
+}
@@ -0,0 +1,101 @@
+package org.example.model;
+
+/**
+ * Распределение оценок по одному предмету: количество каждой оценки от 1 до 5 и
+ * производные статистики.
+ */
+public class GradeDistribution {
+  public static final int MIN_GRADE = 1;
+  public static final int MAX_GRADE = 5;
+
+  private final long[] counts;
+  private final long total;
+
+  /**
+   * @param counts количество оценок 1..5, {@code counts[0]} - количество единиц
+   */
+  public GradeDistribution(long[] counts) {
+    if (counts.length != MAX_GRADE - MIN_GRADE + 1) {
+      throw new IllegalArgumentException("Ожидается 5 значений, получено: " + counts.length);
+    }
+    this.counts = counts.clone();
+    long sum = 0;
+    for (long count : counts) {
+      sum += count;
+    }
+    this.total = sum;
+  }
+
+  /**
+   * Количество оценок {@code grade}.
+   */
+  public long getCount(int grade) {
+    return grade < MIN_GRADE || grade > MAX_GRADE ? 0 : counts[grade - MIN_GRADE];
+  }
+
+  public long getTotal() {
+    return total;
+  }
+
+  public double getMean() {
+    if (total == 0) {
+      return 0.0;
+    }
+    long sum = 0;
+    for (int grade = MIN_GRADE; grade <= MAX_GRADE; grade++) {
+      sum += grade * getCount(grade);
+    }
+    return (double) sum / total;
+  }
+
+  /**
+   * Стандартное отклонение по всем оценкам предмета (как для генеральной совокупности).
+   */
+  public double getStandardDeviation() {
+    if (total == 0) {
+      return 0.0;
+    }
+    double mean = getMean();
+    double squares = 0;
+    for (int grade = MIN_GRADE; grade <= MAX_GRADE; grade++) {
+      squares += getCount(grade) * (grade - mean) * (grade - mean);
+    }
+    return Math.sqrt(squares / total);
+  }
+
+  public double getMedian() {
+    return getPercentile(50);
+  }
+
+  /**
+   * Процентиль с линейной интерполяцией между соседними по порядку оценками: позиция
+   * {@code p / 100 * (n - 1)} в упорядоченном ряду оценок.
+   */
+  public double getPercentile(double percent) {
+    if (percent < 0 || percent > 100) {
+      throw new IllegalArgumentException("Процентиль должен быть от 0 до 100: " + percent);
+    }
+    if (total == 0) {
+      return 0.0;
+    }
+    double position = percent / 100 * (total - 1);
+    long lower = (long) Math.floor(position);
+    int lowerGrade = gradeAt(lower);
+    int upperGrade = gradeAt(Math.min(lower + 1, total - 1));
+    return lowerGrade + (position - lower) * (upperGrade - lowerGrade);
+  }
+
+  /**
+   * Оценка на позиции {@code index} (с нуля) в упорядоченном ряду оценок.
+   */
+  private int gradeAt(long index) {
+    long seen = 0;
+    for (int grade = MIN_GRADE; grade <= MAX_GRADE; grade++) {
+      seen += getCount(grade);
+      if (index < seen) {
+        return grade;
+      }
+    }
+    return MAX_GRADE;
+  }
+}
@@ -0,0 +1,83 @@
+package org.example.model;
+
+import java.util.List;
+
+/**
+ * Рейтинг: первые и последние ученики по среднему баллу, не больше заданного числа в каждом
+ * списке.
+ *
+ * <p>Оба списка упорядочены от крайнего места: {@link #getTop()} - от лучшего, а
+ * {@link #getBottom()} - от худшего. Ученики с равным баллом упорядочены по ФИО и затем
+ * по папке, поэтому состав рейтинга на границе отсечения не зависит от порядка чтения.
+ */
+public class Leaderboard {
+  private static final Leaderboard EMPTY = new Leaderboard(null, 0, List.of(), List.of());
+
+  private final String cohort;
+  private final int limit;
+  private final List<Student> top;
+  private final List<Student> bottom;
+
+  public Leaderboard(String cohort, int limit, List<Student> top, List<Student> bottom) {
+    this.cohort = cohort;
+    this.limit = limit;
+    this.top = List.copyOf(top);
+    this.bottom = List.copyOf(bottom);
+  }
+
+  /**
+   * Рейтинг без учеников для отчета, в котором рейтинг не строился.
+   */
+  public static Leaderboard empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Папка (школа/класс), по которой построен рейтинг, или {@code null} для всего набора.
+   */
+  public String getCohort() {
+    return cohort;
+  }
+
+  /**
+   * Наибольшее число учеников в каждом списке.
+   */
+  public int getLimit() {
+    return limit;
+  }
+
+  public List<Student> getTop() {
+    return top;
+  }
+
+  public List<Student> getBottom() {
+    return bottom;
+  }
+
+  /**
+   * Страница {@code page} (с нуля) лучших учеников по {@code pageSize} на странице; пустая
+   * за пределами рейтинга.
+   */
+  public List<Student> getTopPage(int page, int pageSize) {
+    return page(top, page, pageSize);
+  }
+
+  /**
+   * Страница {@code page} (с нуля) худших учеников по {@code pageSize} на странице.
+   */
+  public List<Student> getBottomPage(int page, int pageSize) {
+    return page(bottom, page, pageSize);
+  }
+
+  private static List<Student> page(List<Student> students, int page, int pageSize) {
+    if (page < 0 || pageSize < 1) {
+      throw new IllegalArgumentException(
+          "Некорректная страница рейтинга: " + page + ", размер " + pageSize);
+    }
+    long from = (long) page * pageSize;
+    if (from >= students.size()) {
+      return List.of();
+    }
+    return students.subList((int) from, (int) Math.min(from + pageSize, students.size()));
+  }
+}
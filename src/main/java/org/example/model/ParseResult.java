@@ -0,0 +1,70 @@
+package org.example.model;
+
+/**
+ * Результат разбора файла студента: либо студент, либо вид ошибки с местом, где она найдена.
+ * Используется вместо исключений, чтобы массовые ошибки во входных данных не замедляли
+ * разбор.
+ */
+public final class ParseResult {
+  private final Student student;
+  private final ValidationErrorKind errorKind;
+  private final String file;
+  private final int line;
+
+  private ParseResult(Student student, ValidationErrorKind errorKind, String file, int line) {
+    this.student = student;
+    this.errorKind = errorKind;
+    this.file = file;
+    this.line = line;
+  }
+
+  public static ParseResult success(Student student) {
+    return new ParseResult(student, null, null, 0);
+  }
+
+  /**
+   * Ошибка в строке {@code line} (нумерация с 1) либо во всем файле, если {@code line} равен 0.
+   */
+  public static ParseResult failure(ValidationErrorKind errorKind, int line) {
+    return new ParseResult(null, errorKind, null, line);
+  }
+
+  /**
+   * Тот же результат с указанием файла, в котором найдена ошибка.
+   */
+  public ParseResult inFile(String file) {
+    return new ParseResult(student, errorKind, file, line);
+  }
+
+  public boolean isSuccess() {
+    return student != null;
+  }
+
+  public Student getStudent() {
+    return student;
+  }
+
+  public ValidationErrorKind getErrorKind() {
+    return errorKind;
+  }
+
+  public String getFile() {
+    return file;
+  }
+
+  public int getLine() {
+    return line;
+  }
+
+  /**
+   * Текст ошибки для журнала, с номером строки, если он известен.
+   */
+  public String getMessage() {
+    if (errorKind == null) {
+      return "";
+    }
+    return line > 0
+        ? errorKind.getDescription() + " Строка " + line + "."
+        : errorKind.getDescription();
+  }
+}
@@ -1,40 +1,129 @@
 package org.example.model;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * Модель данных студента.
+ *
+ * <p>Оценки хранятся в массиве байт, индексом служит идентификатор предмета из
+ * {@link SubjectDictionary}; ноль означает, что оценки по предмету нет. Объект неизменяем:
+ * сумма и количество оценок вычисляются один раз при создании.
  */
-public class Student {
+public final class Student {
+  private static final byte[] NO_GRADES = new byte[0];
+
   private final String fullName;
-  private final Map<String, Integer> grades;
+  private final byte[] grades;
+  private final int subjectCount;
+  private final int gradeSum;
+  private final double averageGrade;
+  private final String cohort;
 
   public Student(String fullName, Map<String, Integer> grades) {
+    this(fullName, grades, "");
+  }
+
+  public Student(String fullName, Map<String, Integer> grades, String cohort) {
+    this(fullName, toGradeArray(grades), cohort);
+  }
+
+  /**
+   * Создает студента по массиву оценок, индексированному идентификаторами предметов
+   * {@link SubjectDictionary}. Массив копируется.
+   */
+  public Student(String fullName, byte[] gradesBySubjectId, String cohort) {
+    int length = gradesBySubjectId.length;
+    while (length > 0 && gradesBySubjectId[length - 1] == 0) {
+      length--;
+    }
+    int count = 0;
+    int sum = 0;
+    for (int id = 0; id < length; id++) {
+      if (gradesBySubjectId[id] < 0) {
+        throw new IllegalArgumentException("Отрицательная оценка по предмету "
+            + SubjectDictionary.getInstance().nameOf(id));
+      }
+      if (gradesBySubjectId[id] != 0) {
+        count++;
+        sum += gradesBySubjectId[id];
+      }
+    }
+
     this.fullName = fullName;
-    this.grades = grades;
+    this.grades = length == 0 ? NO_GRADES : Arrays.copyOf(gradesBySubjectId, length);
+    this.subjectCount = count;
+    this.gradeSum = sum;
+    this.averageGrade = count == 0 ? 0.0 : (double) sum / count;
+    this.cohort = cohort;
   }
 
   public String getFullName() {
     return fullName;
   }
 
+  /**
+   * Относительный путь папки файла студента (например, "Школа 1/5А"), пустой для корня.
+   */
+  public String getCohort() {
+    return cohort;
+  }
+
+  /**
+   * Оценки по названиям предметов. Возвращается неизменяемое представление поверх
+   * массива оценок, без копирования.
+   */
   public Map<String, Integer> getGrades() {
-    return grades;
+    return new GradesView();
+  }
+
+  /**
+   * Оценка по предмету с указанным идентификатором или 0, если ее нет.
+   */
+  public int getGrade(int subjectId) {
+    return subjectId >= 0 && subjectId < grades.length ? grades[subjectId] : 0;
+  }
+
+  /**
+   * Граница идентификаторов предметов, по которым у студента могут быть оценки: все
+   * идентификаторы с оценками меньше этого числа.
+   */
+  public int getSubjectIdBound() {
+    return grades.length;
+  }
+
+  public int getSubjectCount() {
+    return subjectCount;
+  }
+
+  /**
+   * Сумма всех оценок студента.
+   */
+  public int getGradeSum() {
+    return gradeSum;
   }
 
   /**
-   * Расчет среднего балла
+   * Средний балл, вычисленный при создании.
    */
   public double getAverageGrade() {
-    if (grades.isEmpty()) {
-      return 0.0;
-    }
-    double sum = 0;
-    for (Integer grade : grades.values()) {
-      sum += grade;
-    }
-    return sum / grades.size();
+    return averageGrade;
+  }
+
+  /**
+   * Точно сравнивает средние баллы как дроби сумма/количество перекрестным умножением, без
+   * погрешности округления. Студент без оценок считается имеющим средний балл 0.
+   */
+  public int compareAverageTo(Student other) {
+    long left = (long) gradeSum * Math.max(other.subjectCount, 1);
+    long right = (long) other.gradeSum * Math.max(subjectCount, 1);
+    return Long.compare(left, right);
   }
 
   @Override
@@ -46,11 +135,95 @@ public class Student {
       return false;
     }
     Student student = (Student) o;
-    return Objects.equals(fullName, student.fullName);
+    return Objects.equals(fullName, student.fullName)
+        && Objects.equals(cohort, student.cohort);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(fullName);
+    return Objects.hash(fullName, cohort);
+  }
+
+  private static byte[] toGradeArray(Map<String, Integer> grades) {
+    if (grades.isEmpty()) {
+      return NO_GRADES;
+    }
+    SubjectDictionary dictionary = SubjectDictionary.getInstance();
+    byte[] array = new byte[dictionary.size() + grades.size()];
+    for (Map.Entry<String, Integer> entry : grades.entrySet()) {
+      int grade = entry.getValue();
+      if (grade < 1 || grade > Byte.MAX_VALUE) {
+        throw new IllegalArgumentException(
+            "Недопустимая оценка по предмету " + entry.getKey() + ": " + grade);
+      }
+      int id = dictionary.idOf(entry.getKey());
+      if (id >= array.length) {
+        array = Arrays.copyOf(array, Math.max(id + 1, array.length * 2));
+      }
+      array[id] = (byte) grade;
+    }
+    return array;
+  }
+
+  private final class GradesView extends AbstractMap<String, Integer> {
+    @Override
+    public Integer get(Object key) {
+      if (!(key instanceof String name)) {
+        return null;
+      }
+      int grade = getGrade(SubjectDictionary.getInstance().findId(name));
+      return grade == 0 ? null : grade;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+      return subjectCount;
+    }
+
+    @Override
+    public Set<Entry<String, Integer>> entrySet() {
+      return new AbstractSet<>() {
+        @Override
+        public Iterator<Entry<String, Integer>> iterator() {
+          return new GradeIterator();
+        }
+
+        @Override
+        public int size() {
+          return subjectCount;
+        }
+      };
+    }
+  }
+
+  private final class GradeIterator implements Iterator<Map.Entry<String, Integer>> {
+    private int next = advance(0);
+
+    private int advance(int from) {
+      while (from < grades.length && grades[from] == 0) {
+        from++;
+      }
+      return from;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next < grades.length;
+    }
+
+    @Override
+    public Map.Entry<String, Integer> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      int id = next;
+      next = advance(id + 1);
+      return Map.entry(SubjectDictionary.getInstance().nameOf(id), (int) grades[id]);
+    }
   }
 }
@@ -0,0 +1,80 @@
+package org.example.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Общий для всех студентов словарь предметов: каждому названию присваивается небольшой
+ * целочисленный идентификатор, по которому оценки хранятся в {@link Student}.
+ *
+ * <p>Идентификаторы выдаются подряд с нуля и не меняются до завершения программы, поэтому
+ * их можно использовать как индексы массивов. Поиск идет без блокировок, регистрация нового
+ * предмета выполняется под монитором.
+ *
+ * <p>Словарь только растет: предметы не удаляются, даже если больше не встречаются ни в одном
+ * файле. Его размер ограничен числом различных названий предметов за все время работы, а
+ * не числом загрузок, поэтому повторные чтения той же директории в режимах {@code --server}
+ * и {@code --watch} его не увеличивают. Каждое новое название удлиняет массив оценок
+ * студентов, прочитанных после него, на байт, так что долго работающий процесс, которому
+ * подают файлы с произвольными названиями предметов, следует периодически перезапускать.
+ */
+public final class SubjectDictionary {
+  private static final SubjectDictionary INSTANCE = new SubjectDictionary();
+
+  private final Map<String, Integer> idsByName = new ConcurrentHashMap<>();
+  private volatile String[] names = new String[16];
+  private volatile int size;
+
+  private SubjectDictionary() {
+  }
+
+  public static SubjectDictionary getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Возвращает идентификатор предмета, регистрируя предмет при первом обращении.
+   */
+  public int idOf(String name) {
+    Integer id = idsByName.get(name);
+    return id != null ? id : register(name);
+  }
+
+  /**
+   * Возвращает идентификатор предмета или -1, если такой предмет еще не встречался.
+   */
+  public int findId(String name) {
+    Integer id = idsByName.get(name);
+    return id != null ? id : -1;
+  }
+
+  public String nameOf(int id) {
+    if (id < 0 || id >= size) {
+      throw new IllegalArgumentException("Неизвестный идентификатор предмета: " + id);
+    }
+    return names[id];
+  }
+
+  /**
+   * Количество зарегистрированных предметов; все идентификаторы меньше этого числа.
+   */
+  public int size() {
+    return size;
+  }
+
+  private synchronized int register(String name) {
+    Integer existing = idsByName.get(name);
+    if (existing != null) {
+      return existing;
+    }
+    int id = size;
+    if (id == names.length) {
+      names = Arrays.copyOf(names, id * 2);
+    }
+    names[id] = name;
+    size = id + 1;
+    idsByName.put(name, id);
+    return id;
+  }
+}
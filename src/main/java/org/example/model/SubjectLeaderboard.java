@@ -0,0 +1,66 @@
+package org.example.model;
+
+import java.util.List;
+
+/**
+ * Лучшие и худшие ученики по одному предмету.
+ *
+ * <p>Списки {@link #getTop()} и {@link #getBottom()} упорядочены по оценке за предмет, при
+ * равной оценке - по общему среднему баллу, затем по ФИО и папке. Сколько учеников
+ * получили высшую и низшую оценку, показывают {@link #getMaxGradeCount()} и
+ * {@link #getMinGradeCount()}.
+ */
+public class SubjectLeaderboard {
+  private final String subject;
+  private final int maxGrade;
+  private final long maxGradeCount;
+  private final int minGrade;
+  private final long minGradeCount;
+  private final List<Student> top;
+  private final List<Student> bottom;
+
+  public SubjectLeaderboard(String subject, int maxGrade, long maxGradeCount, int minGrade,
+                            long minGradeCount, List<Student> top, List<Student> bottom) {
+    this.subject = subject;
+    this.maxGrade = maxGrade;
+    this.maxGradeCount = maxGradeCount;
+    this.minGrade = minGrade;
+    this.minGradeCount = minGradeCount;
+    this.top = List.copyOf(top);
+    this.bottom = List.copyOf(bottom);
+  }
+
+  public String getSubject() {
+    return subject;
+  }
+
+  public int getMaxGrade() {
+    return maxGrade;
+  }
+
+  public long getMaxGradeCount() {
+    return maxGradeCount;
+  }
+
+  public int getMinGrade() {
+    return minGrade;
+  }
+
+  public long getMinGradeCount() {
+    return minGradeCount;
+  }
+
+  /**
+   * Лучшие по предмету, от лучшего.
+   */
+  public List<Student> getTop() {
+    return top;
+  }
+
+  /**
+   * Худшие по предмету, от худшего.
+   */
+  public List<Student> getBottom() {
+    return bottom;
+  }
+}
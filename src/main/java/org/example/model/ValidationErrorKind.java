@@ -0,0 +1,24 @@
+package org.example.model;
+
+/**
+ * Виды ошибок, из-за которых файл студента, студент общего файла или строка без студента
+ * не попадает в анализ.
+ */
+public enum ValidationErrorKind {
+  INVALID_FILE_NAME("Некорректное имя файла (ФИО)."),
+  READ_ERROR("Ошибка чтения файла."),
+  TOO_FEW_LINES("Файл должен содержать не менее 5 предметов."),
+  INVALID_GRADE_FORMAT("Неверный формат оценки в файле."),
+  GRADE_OUT_OF_RANGE("Оценка должна быть в диапазоне от 1 до 5."),
+  INVALID_ROW_FORMAT("Строка должна иметь вид ФИО;Предмет;Оценка.");
+
+  private final String description;
+
+  ValidationErrorKind(String description) {
+    this.description = description;
+  }
+
+  public String getDescription() {
+    return description;
+  }
+}
@@ -0,0 +1,93 @@
+package org.example.server;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.example.model.AnalysisReport;
+import org.example.model.Student;
+import org.example.service.StudentRankIndex;
+
+/**
+ * Неизменяемый результат анализа директории, который {@link GradeHttpServer} отдает всем
+ * запросам до следующей перезагрузки.
+ *
+ * <p>Ответы, не зависящие от параметров запроса, сериализуются один раз при создании
+ * снимка. Индекс мест и поиск по ФИО после публикации снимка только читаются, поэтому
+ * безопасны при одновременных запросах.
+ */
+final class AnalysisSnapshot {
+  private final String directory;
+  private final Instant loadedAt;
+  private final AnalysisReport report;
+  private final StudentRankIndex rankIndex;
+  private final Map<String, List<Student>> studentsByName;
+  private final String averagesJson;
+  private final String bestStudentsJson;
+  private final String worstStudentsJson;
+  private final String subjectLeaderboardsJson;
+
+  AnalysisSnapshot(String directory, List<Student> students, AnalysisReport report) {
+    this.directory = directory;
+    this.loadedAt = Instant.now();
+    this.report = report;
+    this.rankIndex = new StudentRankIndex(students);
+    Map<String, List<Student>> byName = new HashMap<>();
+    for (Student student : students) {
+      byName.computeIfAbsent(normalize(student.getFullName()), name -> new ArrayList<>())
+          .add(student);
+    }
+    byName.replaceAll((name, namesakes) -> List.copyOf(namesakes));
+    this.studentsByName = Map.copyOf(byName);
+    this.averagesJson = JsonWriter.averages(report.getAverageGrades());
+    this.bestStudentsJson = JsonWriter.students(report.getBestStudents());
+    this.worstStudentsJson = JsonWriter.students(report.getWorstStudents());
+    this.subjectLeaderboardsJson =
+        JsonWriter.subjectLeaderboards(report.getSubjectLeaderboards());
+  }
+
+  String getDirectory() {
+    return directory;
+  }
+
+  Instant getLoadedAt() {
+    return loadedAt;
+  }
+
+  AnalysisReport getReport() {
+    return report;
+  }
+
+  StudentRankIndex getRankIndex() {
+    return rankIndex;
+  }
+
+  /**
+   * Ученики с таким ФИО без учета регистра и лишних пробелов; тезки из разных папок
+   * возвращаются все.
+   */
+  List<Student> findByName(String fullName) {
+    return studentsByName.getOrDefault(normalize(fullName), List.of());
+  }
+
+  String getAveragesJson() {
+    return averagesJson;
+  }
+
+  String getBestStudentsJson() {
+    return bestStudentsJson;
+  }
+
+  String getWorstStudentsJson() {
+    return worstStudentsJson;
+  }
+
+  String getSubjectLeaderboardsJson() {
+    return subjectLeaderboardsJson;
+  }
+
+  private static String normalize(String fullName) {
+    return String.join(" ", fullName.trim().toLowerCase().split("\\s+"));
+  }
+}
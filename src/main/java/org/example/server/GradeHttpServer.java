@@ -0,0 +1,261 @@
+package org.example.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.model.Leaderboard;
+import org.example.model.Student;
+import org.example.service.GradeAnalyzerService;
+
+/**
+ * HTTP-сервер с результатами анализа директории оценок в формате JSON.
+ *
+ * <p>По умолчанию сервер слушает только петлевой интерфейс ({@value #DEFAULT_HOST}), чтобы
+ * результаты не были видны из сети; другой адрес задается явно. Каждый запрос
+ * обрабатывается в своем виртуальном потоке. Все запросы читают один
+ * неизменяемый {@link AnalysisSnapshot}; перезагрузка строит новый снимок целиком и
+ * подменяет ссылку атомарно, поэтому запрос видит либо старые, либо новые данные, но не
+ * их смесь. Одновременные перезагрузки выполняются по очереди.
+ *
+ * <p>Адреса (все, кроме перезагрузки, - GET):
+ * <ul>
+ *   <li>{@code /api/summary} - директория, число учеников, время загрузки;</li>
+ *   <li>{@code /api/averages} - средние по предметам;</li>
+ *   <li>{@code /api/best}, {@code /api/worst} - лучшие и худшие ученики;</li>
+ *   <li>{@code /api/leaderboard?page=0&size=10} - страница общего рейтинга;</li>
+ *   <li>{@code /api/subjects} - лучшие и худшие по каждому предмету;</li>
+ *   <li>{@code /api/students?name=ФИО} - ученик с местом и процентилем;</li>
+ *   <li>POST {@code /api/reload} - повторное чтение директории.</li>
+ * </ul>
+ */
+public final class GradeHttpServer implements AutoCloseable {
+  private static final Logger logger = LogManager.getLogger(GradeHttpServer.class);
+  public static final String DEFAULT_HOST = "127.0.0.1";
+  static final int LEADERBOARD_SIZE = 100;
+  static final int SUBJECT_LEADERBOARD_SIZE = 10;
+  static final int DEFAULT_PAGE_SIZE = 10;
+
+  private final GradeAnalyzerService analyzerService;
+  private final String directoryPath;
+  private final int readerThreads;
+  private final AtomicReference<AnalysisSnapshot> snapshot = new AtomicReference<>();
+  private final Object reloadLock = new Object();
+  private final ExecutorService executor;
+  private final HttpServer server;
+
+  /**
+   * Читает директорию и открывает сервер на петлевом интерфейсе и порту {@code port};
+   * 0 - любой свободный порт. Запросы начинают обрабатываться после {@link #start()}.
+   */
+  public GradeHttpServer(GradeAnalyzerService analyzerService, String directoryPath, int port)
+      throws IOException {
+    this(analyzerService, directoryPath, DEFAULT_HOST, port);
+  }
+
+  /**
+   * То же, но сервер слушает адрес {@code host}; {@code 0.0.0.0} - все интерфейсы.
+   */
+  public GradeHttpServer(GradeAnalyzerService analyzerService, String directoryPath,
+                         String host, int port) throws IOException {
+    this(analyzerService, directoryPath, host, port,
+        GradeAnalyzerService.DEFAULT_READER_THREADS);
+  }
+
+  /**
+   * То же, но директория читается с разбором до {@code readerThreads} файлов одновременно.
+   */
+  public GradeHttpServer(GradeAnalyzerService analyzerService, String directoryPath,
+                         String host, int port, int readerThreads) throws IOException {
+    if (readerThreads < 1) {
+      throw new IllegalArgumentException(
+          "Число потоков чтения должно быть положительным: " + readerThreads);
+    }
+    InetSocketAddress address = new InetSocketAddress(host, port);
+    if (address.isUnresolved()) {
+      throw new IOException("Неизвестный адрес сервера: " + host);
+    }
+    this.analyzerService = analyzerService;
+    this.directoryPath = directoryPath;
+    this.readerThreads = readerThreads;
+    reload();
+    this.server = HttpServer.create(address, 0);
+    this.executor = Executors.newVirtualThreadPerTaskExecutor();
+    server.setExecutor(executor);
+    server.createContext("/api/summary", get(JsonWriter::summary));
+    server.createContext("/api/averages", get(AnalysisSnapshot::getAveragesJson));
+    server.createContext("/api/best", get(AnalysisSnapshot::getBestStudentsJson));
+    server.createContext("/api/worst", get(AnalysisSnapshot::getWorstStudentsJson));
+    server.createContext("/api/subjects", get(AnalysisSnapshot::getSubjectLeaderboardsJson));
+    server.createContext("/api/leaderboard", this::handleLeaderboard);
+    server.createContext("/api/students", this::handleStudentLookup);
+    server.createContext("/api/reload", this::handleReload);
+  }
+
+  public void start() {
+    server.start();
+    logger.info("Сервер анализа оценок запущен на {}.", getAddress());
+  }
+
+  public InetSocketAddress getAddress() {
+    return server.getAddress();
+  }
+
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  /**
+   * Заново читает директорию и публикует новый снимок. При ошибке чтения остается
+   * прежний снимок.
+   */
+  public int reload() throws IOException {
+    synchronized (reloadLock) {
+      List<Student> students =
+          analyzerService.readStudentsFromDirectory(directoryPath, readerThreads);
+      AnalysisSnapshot loaded = new AnalysisSnapshot(directoryPath, students,
+          analyzerService.analyzeAll(students, LEADERBOARD_SIZE, SUBJECT_LEADERBOARD_SIZE));
+      snapshot.set(loaded);
+      logger.info("Загружено учеников: {} из {}.", students.size(), directoryPath);
+      return students.size();
+    }
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdown();
+    logger.info("Сервер анализа оценок остановлен.");
+  }
+
+  private HttpHandler get(Function<AnalysisSnapshot, String> body) {
+    return exchange -> {
+      if (requireMethod(exchange, "GET")) {
+        send(exchange, 200, body.apply(snapshot.get()));
+      }
+    };
+  }
+
+  private void handleLeaderboard(HttpExchange exchange) throws IOException {
+    if (!requireMethod(exchange, "GET")) {
+      return;
+    }
+    Map<String, String> query = parseQueryOrReject(exchange);
+    if (query == null) {
+      return;
+    }
+    int page;
+    int pageSize;
+    try {
+      page = Integer.parseInt(query.getOrDefault("page", "0"));
+      pageSize = Integer.parseInt(query.getOrDefault("size", "" + DEFAULT_PAGE_SIZE));
+    } catch (NumberFormatException e) {
+      send(exchange, 400, JsonWriter.error("Номер и размер страницы должны быть числами."));
+      return;
+    }
+    if (page < 0 || pageSize < 1) {
+      send(exchange, 400, JsonWriter.error("Некорректная страница: " + page + ", " + pageSize));
+      return;
+    }
+    Leaderboard leaderboard = snapshot.get().getReport().getLeaderboard();
+    send(exchange, 200, JsonWriter.leaderboardPage(leaderboard, page, pageSize));
+  }
+
+  private void handleStudentLookup(HttpExchange exchange) throws IOException {
+    if (!requireMethod(exchange, "GET")) {
+      return;
+    }
+    Map<String, String> query = parseQueryOrReject(exchange);
+    if (query == null) {
+      return;
+    }
+    String name = query.get("name");
+    if (name == null || name.isBlank()) {
+      send(exchange, 400, JsonWriter.error("Не указан параметр name."));
+      return;
+    }
+    AnalysisSnapshot current = snapshot.get();
+    List<Student> found = current.findByName(name);
+    if (found.isEmpty()) {
+      send(exchange, 404, JsonWriter.error("Ученик не найден: " + name));
+      return;
+    }
+    send(exchange, 200, JsonWriter.lookup(found, current));
+  }
+
+  private void handleReload(HttpExchange exchange) throws IOException {
+    if (!requireMethod(exchange, "POST")) {
+      return;
+    }
+    try {
+      reload();
+    } catch (IOException e) {
+      logger.error("Не удалось перезагрузить директорию {}", directoryPath, e);
+      send(exchange, 500, JsonWriter.error("Ошибка чтения директории: " + e.getMessage()));
+      return;
+    }
+    send(exchange, 200, JsonWriter.summary(snapshot.get()));
+  }
+
+  private boolean requireMethod(HttpExchange exchange, String method) throws IOException {
+    if (method.equals(exchange.getRequestMethod())) {
+      return true;
+    }
+    exchange.getResponseHeaders().set("Allow", method);
+    send(exchange, 405, JsonWriter.error("Метод не поддерживается: "
+        + exchange.getRequestMethod()));
+    return false;
+  }
+
+  /**
+   * Разбирает параметры запроса; на некорректное кодирование (например, {@code %zz})
+   * отвечает 400 и возвращает {@code null}.
+   */
+  private static Map<String, String> parseQueryOrReject(HttpExchange exchange)
+      throws IOException {
+    try {
+      return parseQuery(exchange);
+    } catch (IllegalArgumentException e) {
+      send(exchange, 400, JsonWriter.error("Некорректные параметры запроса: " + e.getMessage()));
+      return null;
+    }
+  }
+
+  private static Map<String, String> parseQuery(HttpExchange exchange) {
+    Map<String, String> parameters = new HashMap<>();
+    String query = exchange.getRequestURI().getRawQuery();
+    if (query == null) {
+      return parameters;
+    }
+    for (String pair : query.split("&")) {
+      int separator = pair.indexOf('=');
+      String key = separator < 0 ? pair : pair.substring(0, separator);
+      String value = separator < 0 ? "" : pair.substring(separator + 1);
+      parameters.put(URLDecoder.decode(key, StandardCharsets.UTF_8),
+          URLDecoder.decode(value, StandardCharsets.UTF_8));
+    }
+    return parameters;
+  }
+
+  private static void send(HttpExchange exchange, int status, String json) throws IOException {
+    byte[] body = json.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+    exchange.sendResponseHeaders(status, body.length);
+    try (OutputStream output = exchange.getResponseBody()) {
+      output.write(body);
+    }
+  }
+}
@@ -0,0 +1,178 @@
+package org.example.server;
+
+import java.util.Collection;
+import java.util.Map;
+import org.example.model.Leaderboard;
+import org.example.model.Student;
+import org.example.model.SubjectLeaderboard;
+
+/**
+ * Сериализация результатов анализа в JSON для {@link GradeHttpServer}, без внешних
+ * библиотек.
+ */
+final class JsonWriter {
+  private final StringBuilder json = new StringBuilder();
+
+  static String error(String message) {
+    JsonWriter writer = new JsonWriter();
+    writer.json.append("{\"error\":");
+    writer.string(message);
+    writer.json.append('}');
+    return writer.toString();
+  }
+
+  static String averages(Map<String, Double> averages) {
+    JsonWriter writer = new JsonWriter();
+    writer.json.append('{');
+    String separator = "";
+    for (Map.Entry<String, Double> entry : averages.entrySet()) {
+      writer.json.append(separator);
+      writer.string(entry.getKey());
+      writer.json.append(':');
+      writer.number(entry.getValue());
+      separator = ",";
+    }
+    writer.json.append('}');
+    return writer.toString();
+  }
+
+  static String students(Collection<Student> students) {
+    JsonWriter writer = new JsonWriter();
+    writer.studentArray(students);
+    return writer.toString();
+  }
+
+  /**
+   * Страница рейтинга: лучшие и худшие на странице {@code page} по {@code pageSize}.
+   */
+  static String leaderboardPage(Leaderboard leaderboard, int page, int pageSize) {
+    JsonWriter writer = new JsonWriter();
+    writer.json.append("{\"page\":").append(page)
+        .append(",\"pageSize\":").append(pageSize)
+        .append(",\"limit\":").append(leaderboard.getLimit())
+        .append(",\"top\":");
+    writer.studentArray(leaderboard.getTopPage(page, pageSize));
+    writer.json.append(",\"bottom\":");
+    writer.studentArray(leaderboard.getBottomPage(page, pageSize));
+    writer.json.append('}');
+    return writer.toString();
+  }
+
+  static String subjectLeaderboards(Map<String, SubjectLeaderboard> leaderboards) {
+    JsonWriter writer = new JsonWriter();
+    writer.json.append('{');
+    String separator = "";
+    for (SubjectLeaderboard leaderboard : leaderboards.values()) {
+      writer.json.append(separator);
+      writer.string(leaderboard.getSubject());
+      writer.json.append(":{\"maxGrade\":").append(leaderboard.getMaxGrade())
+          .append(",\"maxGradeCount\":").append(leaderboard.getMaxGradeCount())
+          .append(",\"minGrade\":").append(leaderboard.getMinGrade())
+          .append(",\"minGradeCount\":").append(leaderboard.getMinGradeCount())
+          .append(",\"top\":");
+      writer.studentArray(leaderboard.getTop());
+      writer.json.append(",\"bottom\":");
+      writer.studentArray(leaderboard.getBottom());
+      writer.json.append('}');
+      separator = ",";
+    }
+    writer.json.append('}');
+    return writer.toString();
+  }
+
+  /**
+   * Найденные ученики с местом (1 - лучший) и процентилем среднего балла.
+   */
+  static String lookup(Collection<Student> students, AnalysisSnapshot snapshot) {
+    JsonWriter writer = new JsonWriter();
+    writer.json.append('[');
+    String separator = "";
+    for (Student student : students) {
+      writer.json.append(separator);
+      writer.student(student, snapshot.getRankIndex().rankOf(student),
+          snapshot.getRankIndex().percentileOf(student));
+      separator = ",";
+    }
+    writer.json.append(']');
+    return writer.toString();
+  }
+
+  static String summary(AnalysisSnapshot snapshot) {
+    JsonWriter writer = new JsonWriter();
+    writer.json.append("{\"directory\":");
+    writer.string(snapshot.getDirectory());
+    writer.json.append(",\"studentCount\":").append(snapshot.getReport().getStudentCount())
+        .append(",\"loadedAt\":");
+    writer.string(snapshot.getLoadedAt().toString());
+    writer.json.append('}');
+    return writer.toString();
+  }
+
+  private void studentArray(Collection<Student> students) {
+    json.append('[');
+    String separator = "";
+    for (Student student : students) {
+      json.append(separator);
+      student(student, 0, -1);
+      separator = ",";
+    }
+    json.append(']');
+  }
+
+  private void student(Student student, int rank, double percentile) {
+    json.append("{\"fullName\":");
+    string(student.getFullName());
+    json.append(",\"cohort\":");
+    string(student.getCohort());
+    json.append(",\"averageGrade\":");
+    number(student.getAverageGrade());
+    if (rank > 0) {
+      json.append(",\"rank\":").append(rank).append(",\"percentile\":");
+      number(percentile);
+    }
+    json.append(",\"grades\":{");
+    String separator = "";
+    for (Map.Entry<String, Integer> grade : student.getGrades().entrySet()) {
+      json.append(separator);
+      string(grade.getKey());
+      json.append(':').append(grade.getValue());
+      separator = ",";
+    }
+    json.append("}}");
+  }
+
+  private void number(double value) {
+    if (Double.isFinite(value)) {
+      json.append(value);
+    } else {
+      json.append("null");
+    }
+  }
+
+  private void string(String value) {
+    json.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"' -> json.append("\\\"");
+        case '\\' -> json.append("\\\\");
+        case '\n' -> json.append("\\n");
+        case '\r' -> json.append("\\r");
+        case '\t' -> json.append("\\t");
+        default -> {
+          if (c < 0x20) {
+            json.append(String.format("\\u%04x", (int) c));
+          } else {
+            json.append(c);
+          }
+        }
+      }
+    }
+    json.append('"');
+  }
+
+  @Override
+  public String toString() {
+    return json.toString();
+  }
+}
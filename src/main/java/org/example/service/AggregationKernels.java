@@ -0,0 +1,60 @@
+package org.example.service;
+
+/**
+ * Циклы агрегации по примитивным столбцам {@link ColumnarStudentStore}: суммы, количества и
+ * распределения оценок предмета, поиск строк с крайним и заданным средним баллом.
+ *
+ * <p>Столбец оценок - массив байт, 0 означает отсутствие оценки. Столбцы сумм и количеств
+ * оценок студентов - массивы {@code int}; средние сравниваются точно, перекрестным
+ * умножением, количество 0 считается как 1, как в {@link org.example.model.Student}.
+ *
+ * <p>{@link #preferred()} возвращает реализацию на {@code jdk.incubator.vector}, если модуль
+ * подключен ({@code --add-modules jdk.incubator.vector}), иначе скалярную.
+ */
+public interface AggregationKernels {
+
+  /**
+   * Реализация, выбранная при запуске: векторная, если доступен модуль Vector API.
+   */
+  static AggregationKernels preferred() {
+    return AggregationKernelsLoader.PREFERRED;
+  }
+
+  /**
+   * Обычные циклы без Vector API.
+   */
+  static AggregationKernels scalar() {
+    return ScalarAggregationKernels.INSTANCE;
+  }
+
+  String getName();
+
+  /**
+   * Сумма первых {@code length} оценок.
+   */
+  long sum(byte[] grades, int length);
+
+  /**
+   * Количество ненулевых оценок среди первых {@code length}.
+   */
+  int countNonZero(byte[] grades, int length);
+
+  /**
+   * Добавляет к {@code counts[g - 1]} количество оценок {@code g} для g от 1 до
+   * {@code counts.length}; остальные значения пропускаются.
+   */
+  void histogram(byte[] grades, int length, long[] counts);
+
+  /**
+   * Индекс первой строки с наибольшим ({@code maximum}) или наименьшим средним
+   * {@code sums[i] / counts[i]}; -1 для пустого диапазона.
+   */
+  int findExtremeAverage(int[] sums, int[] counts, int length, boolean maximum);
+
+  /**
+   * Записывает в {@code rows} индексы строк, средний балл которых равен
+   * {@code targetSum / targetCount}, и возвращает их количество.
+   */
+  int findEqualAverages(int[] sums, int[] counts, int length, long targetSum, long targetCount,
+                        int[] rows);
+}
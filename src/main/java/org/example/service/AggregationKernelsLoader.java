@@ -0,0 +1,39 @@
+package org.example.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Выбирает реализацию {@link AggregationKernels}. Векторный класс загружается по имени
+ * только при подключенном модуле, поэтому без {@code --add-modules jdk.incubator.vector}
+ * приложение работает на скалярных циклах.
+ */
+final class AggregationKernelsLoader {
+  private static final Logger logger = LogManager.getLogger(AggregationKernelsLoader.class);
+  private static final String VECTOR_MODULE = "jdk.incubator.vector";
+  private static final String VECTOR_KERNELS_CLASS =
+      "org.example.service.VectorAggregationKernels";
+
+  static final AggregationKernels PREFERRED = load();
+
+  private AggregationKernelsLoader() {
+  }
+
+  private static AggregationKernels load() {
+    if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+      logger.info("Модуль {} не подключен, используются скалярные циклы агрегации.",
+          VECTOR_MODULE);
+      return AggregationKernels.scalar();
+    }
+    try {
+      AggregationKernels kernels = (AggregationKernels) Class.forName(VECTOR_KERNELS_CLASS)
+          .getDeclaredConstructor().newInstance();
+      logger.info("Используются циклы агрегации {}.", kernels.getName());
+      return kernels;
+    } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+      logger.warn("Не удалось загрузить векторные циклы агрегации: {}. Используются скалярные.",
+          e.toString());
+      return AggregationKernels.scalar();
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package org.example.service;
+
+import org.example.model.AnalysisReport;
+import org.example.model.Student;
+
+/**
+ * Накопитель всех итогов анализа за один проход: суммы по предметам
+ * ({@link SubjectAccumulator}), лучшие и худшие ученики ({@link RankingAccumulator}),
+ * распределения оценок ({@link GradeHistogram}) и, если заданы размеры, общий рейтинг
+ * ({@link LeaderboardAccumulator}) и рейтинги по предметам
+ * ({@link SubjectLeaderboardAccumulator}).
+ *
+ * <p>Каждый ученик просматривается один раз, а средний балл берется из кэша
+ * {@link Student}. Накопители частей набора объединяются через {@link #merge} в порядке
+ * частей; экземпляр не потокобезопасен.
+ */
+public class AnalysisAccumulator {
+  private final SubjectAccumulator subjects;
+  private final boolean subjectTotalsGiven;
+  private final RankingAccumulator ranking = new RankingAccumulator();
+  private final GradeHistogram histogram = new GradeHistogram();
+  private final LeaderboardAccumulator leaderboard;
+  private final SubjectLeaderboardAccumulator subjectLeaderboards;
+  private int studentCount;
+
+  public AnalysisAccumulator() {
+    this(0);
+  }
+
+  /**
+   * @param leaderboardSize число учеников в каждом списке рейтинга; 0 - рейтинг не строится
+   */
+  public AnalysisAccumulator(int leaderboardSize) {
+    this(leaderboardSize, 0);
+  }
+
+  /**
+   * @param leaderboardSize число учеников в каждом списке общего рейтинга; 0 - без него
+   * @param subjectLeaderboardSize число учеников в списках по каждому предмету; 0 - без них
+   */
+  public AnalysisAccumulator(int leaderboardSize, int subjectLeaderboardSize) {
+    this(leaderboardSize, subjectLeaderboardSize, null);
+  }
+
+  /**
+   * То же, но средние по предметам берутся из готовых сумм {@code subjectTotals}, например
+   * обновленных инкрементально, и оценки добавляемых учеников в них не суммируются;
+   * {@code null} - суммы накапливаются как обычно.
+   */
+  AnalysisAccumulator(int leaderboardSize, int subjectLeaderboardSize,
+                      SubjectAccumulator subjectTotals) {
+    this.subjects = subjectTotals != null ? subjectTotals : new SubjectAccumulator();
+    this.subjectTotalsGiven = subjectTotals != null;
+    this.leaderboard = leaderboardSize > 0 ? new LeaderboardAccumulator(leaderboardSize) : null;
+    this.subjectLeaderboards = subjectLeaderboardSize > 0
+        ? new SubjectLeaderboardAccumulator(subjectLeaderboardSize) : null;
+  }
+
+  /**
+   * Учитывает очередного ученика.
+   */
+  public void add(Student student) {
+    if (!subjectTotalsGiven) {
+      subjects.add(student);
+    }
+    ranking.add(student);
+    histogram.add(student);
+    if (leaderboard != null) {
+      leaderboard.add(student);
+    }
+    if (subjectLeaderboards != null) {
+      subjectLeaderboards.add(student);
+    }
+    studentCount++;
+  }
+
+  /**
+   * Добавляет итоги накопителя, чьи ученики идут после учеников текущего. Размеры
+   * рейтингов обоих накопителей должны совпадать.
+   */
+  public void merge(AnalysisAccumulator other) {
+    subjects.merge(other.subjects);
+    ranking.merge(other.ranking);
+    histogram.merge(other.histogram);
+    if (leaderboard != null && other.leaderboard != null) {
+      leaderboard.merge(other.leaderboard);
+    }
+    if (subjectLeaderboards != null && other.subjectLeaderboards != null) {
+      subjectLeaderboards.merge(other.subjectLeaderboards);
+    }
+    studentCount += other.studentCount;
+  }
+
+  public int getStudentCount() {
+    return studentCount;
+  }
+
+  public AnalysisReport toReport() {
+    AnalysisReport.Builder report = new AnalysisReport.Builder()
+        .averageGrades(subjects.getAverages())
+        .bestStudents(ranking.getBestStudents())
+        .worstStudents(ranking.getWorstStudents())
+        .studentCount(studentCount)
+        .gradeDistributions(histogram.getDistributions());
+    if (leaderboard != null) {
+      report.leaderboard(leaderboard.toLeaderboard(null));
+    }
+    if (subjectLeaderboards != null) {
+      report.subjectLeaderboards(subjectLeaderboards.getLeaderboards());
+    }
+    return report.build();
+  }
+}
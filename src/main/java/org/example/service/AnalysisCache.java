@@ -0,0 +1,162 @@
+package org.example.service;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import org.example.model.AnalysisReport;
+
+/**
+ * Кэш отчетов анализа директорий, ключ которого - путь директории и размеры рейтингов, а
+ * актуальность проверяется по {@link DirectoryFingerprint}.
+ *
+ * <p>Запись отдается, только если отпечаток файлов совпадает с сохраненным и запись не
+ * старше срока жизни; иначе она удаляется и засчитывается промах. Число записей
+ * ограничено: при переполнении вытесняется дольше всех не запрашивавшаяся
+ * ({@link LinkedHashMap} в порядке доступа). Методы потокобезопасны; отчет вычисляется
+ * вне блокировки, поэтому одновременные промахи по одной директории могут посчитать его
+ * несколько раз, и в кэше останется последний.
+ */
+public class AnalysisCache {
+  public static final int DEFAULT_MAX_ENTRIES = 32;
+  public static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+
+  private final int maxEntries;
+  private final long ttlNanos;
+  private final LongSupplier clock;
+  private final Map<Key, Entry> entries;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  public AnalysisCache() {
+    this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL);
+  }
+
+  public AnalysisCache(int maxEntries, Duration ttl) {
+    this(maxEntries, ttl, System::nanoTime);
+  }
+
+  AnalysisCache(int maxEntries, Duration ttl, LongSupplier clock) {
+    if (maxEntries < 1) {
+      throw new IllegalArgumentException("Размер кэша должен быть положительным: " + maxEntries);
+    }
+    if (ttl.isNegative() || ttl.isZero()) {
+      throw new IllegalArgumentException("Срок жизни записи должен быть положительным: " + ttl);
+    }
+    this.maxEntries = maxEntries;
+    this.ttlNanos = ttl.toNanos();
+    this.clock = clock;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+        if (size() > AnalysisCache.this.maxEntries) {
+          evictions.incrementAndGet();
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Отчет по директории, если файлы не менялись и срок жизни не истек; иначе {@code null}.
+   */
+  public synchronized AnalysisReport get(String directoryPath, int leaderboardSize,
+                                         int subjectLeaderboardSize,
+                                         DirectoryFingerprint fingerprint) {
+    Key key = new Key(directoryPath, leaderboardSize, subjectLeaderboardSize);
+    Entry entry = entries.get(key);
+    if (entry != null && entry.fingerprint.equals(fingerprint)
+        && clock.getAsLong() - entry.createdNanos < ttlNanos) {
+      hits.incrementAndGet();
+      return entry.report;
+    }
+    if (entry != null) {
+      entries.remove(key);
+    }
+    misses.incrementAndGet();
+    return null;
+  }
+
+  public synchronized void put(String directoryPath, int leaderboardSize,
+                               int subjectLeaderboardSize, DirectoryFingerprint fingerprint,
+                               AnalysisReport report) {
+    entries.put(new Key(directoryPath, leaderboardSize, subjectLeaderboardSize),
+        new Entry(fingerprint, report, clock.getAsLong()));
+  }
+
+  /**
+   * Удаляет все записи директории, например после ее изменения известным способом.
+   */
+  public synchronized void invalidate(String directoryPath) {
+    String path = normalize(directoryPath);
+    entries.keySet().removeIf(key -> key.path.equals(path));
+  }
+
+  public synchronized void clear() {
+    entries.clear();
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  public long getEvictionCount() {
+    return evictions.get();
+  }
+
+  private static String normalize(String directoryPath) {
+    return Paths.get(directoryPath).toAbsolutePath().normalize().toString();
+  }
+
+  private static final class Key {
+    private final String path;
+    private final int leaderboardSize;
+    private final int subjectLeaderboardSize;
+
+    Key(String directoryPath, int leaderboardSize, int subjectLeaderboardSize) {
+      this.path = normalize(directoryPath);
+      this.leaderboardSize = leaderboardSize;
+      this.subjectLeaderboardSize = subjectLeaderboardSize;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return path.equals(other.path) && leaderboardSize == other.leaderboardSize
+          && subjectLeaderboardSize == other.subjectLeaderboardSize;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(path, leaderboardSize, subjectLeaderboardSize);
+    }
+  }
+
+  private static final class Entry {
+    private final DirectoryFingerprint fingerprint;
+    private final AnalysisReport report;
+    private final long createdNanos;
+
+    Entry(DirectoryFingerprint fingerprint, AnalysisReport report, long createdNanos) {
+      this.fingerprint = fingerprint;
+      this.report = report;
+      this.createdNanos = createdNanos;
+    }
+  }
+}
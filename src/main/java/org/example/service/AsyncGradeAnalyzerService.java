@@ -0,0 +1,166 @@
+package org.example.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.example.model.AnalysisReport;
+import org.example.model.GradeDistribution;
+import org.example.model.Student;
+
+/**
+ * Асинхронный фасад {@link GradeAnalyzerService}: чтение, каждый расчет и полный отчет
+ * возвращают {@link CompletableFuture}, не занимая поток вызывающего.
+ *
+ * <p>Задачи выполняются на переданном {@link ExecutorService}; по умолчанию каждая задача
+ * получает свой виртуальный поток, поэтому одновременно можно вести много анализов.
+ * Отмена future ({@link CompletableFuture#cancel}) и истечение срока
+ * ({@link CompletableFuture#orTimeout} или перегрузки с {@link Duration}) прерывают
+ * выполняющуюся задачу, а еще не начатая задача не запускается; ошибки чтения передаются
+ * в future как {@link IOException}.
+ *
+ * <p>Закрытие останавливает исполнитель, только если он создан самим фасадом; задачи,
+ * отклоненные исполнителем, завершают future с {@link RejectedExecutionException}.
+ */
+public class AsyncGradeAnalyzerService implements AutoCloseable {
+  private final GradeAnalyzerService analyzerService;
+  private final ExecutorService executor;
+  private final boolean ownsExecutor;
+
+  public AsyncGradeAnalyzerService() {
+    this(new GradeAnalyzerService());
+  }
+
+  /**
+   * Фасад над {@code analyzerService} с виртуальным потоком на каждую задачу.
+   */
+  public AsyncGradeAnalyzerService(GradeAnalyzerService analyzerService) {
+    this(analyzerService, Executors.newVirtualThreadPerTaskExecutor(), true);
+  }
+
+  /**
+   * Фасад над {@code analyzerService} с задачами на {@code executor}; исполнитель
+   * остается открытым после {@link #close()}.
+   */
+  public AsyncGradeAnalyzerService(GradeAnalyzerService analyzerService,
+                                   ExecutorService executor) {
+    this(analyzerService, executor, false);
+  }
+
+  private AsyncGradeAnalyzerService(GradeAnalyzerService analyzerService,
+                                    ExecutorService executor, boolean ownsExecutor) {
+    this.analyzerService = analyzerService;
+    this.executor = executor;
+    this.ownsExecutor = ownsExecutor;
+  }
+
+  /**
+   * Читает студентов из директории.
+   */
+  public CompletableFuture<List<Student>> readStudentsFromDirectory(String directoryPath) {
+    return submit(() -> analyzerService.readStudentsFromDirectory(directoryPath));
+  }
+
+  /**
+   * Читает студентов из директории, обрабатывая до {@code parallelism} файлов одновременно.
+   */
+  public CompletableFuture<List<Student>> readStudentsFromDirectory(String directoryPath,
+                                                                    int parallelism) {
+    return submit(() -> analyzerService.readStudentsFromDirectory(directoryPath, parallelism));
+  }
+
+  public CompletableFuture<Map<String, Double>> calculateAverageGradesBySubject(
+      List<Student> students) {
+    return submit(() -> analyzerService.calculateAverageGradesBySubject(students));
+  }
+
+  public CompletableFuture<Map<String, GradeDistribution>> calculateGradeDistributions(
+      List<Student> students) {
+    return submit(() -> analyzerService.calculateGradeDistributions(students));
+  }
+
+  public CompletableFuture<List<Student>> findBestStudents(List<Student> students) {
+    return submit(() -> analyzerService.findBestStudents(students));
+  }
+
+  public CompletableFuture<List<Student>> findWorstStudents(List<Student> students) {
+    return submit(() -> analyzerService.findWorstStudents(students));
+  }
+
+  /**
+   * Рассчитывает все итоги за один проход, как
+   * {@link GradeAnalyzerService#analyzeAll(List, int, int)}.
+   */
+  public CompletableFuture<AnalysisReport> analyzeAll(List<Student> students,
+                                                      int leaderboardSize,
+                                                      int subjectLeaderboardSize) {
+    return submit(() ->
+        analyzerService.analyzeAll(students, leaderboardSize, subjectLeaderboardSize));
+  }
+
+  /**
+   * Читает директорию и строит по ней полный отчет в одной задаче, как
+   * {@link GradeAnalyzerService#analyzeDirectory}: неизменившаяся директория не
+   * перечитывается.
+   */
+  public CompletableFuture<AnalysisReport> analyzeDirectory(String directoryPath,
+                                                            int leaderboardSize,
+                                                            int subjectLeaderboardSize) {
+    return submit(() -> analyzerService.analyzeDirectory(directoryPath, leaderboardSize,
+        subjectLeaderboardSize));
+  }
+
+  /**
+   * То же, что {@link #analyzeDirectory(String, int, int)}, но если отчет не готов за
+   * {@code deadline}, задача прерывается, а future завершается
+   * {@link java.util.concurrent.TimeoutException}.
+   */
+  public CompletableFuture<AnalysisReport> analyzeDirectory(String directoryPath,
+                                                            int leaderboardSize,
+                                                            int subjectLeaderboardSize,
+                                                            Duration deadline) {
+    return analyzeDirectory(directoryPath, leaderboardSize, subjectLeaderboardSize)
+        .orTimeout(deadline.toNanos(), TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public void close() {
+    if (ownsExecutor) {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Запускает задачу на исполнителе. Если future завершится раньше задачи - отменой или
+   * по сроку, - поток задачи прерывается.
+   */
+  private <T> CompletableFuture<T> submit(Callable<T> task) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    Future<?> running;
+    try {
+      running = executor.submit(() -> {
+        try {
+          result.complete(task.call());
+        } catch (Throwable e) {
+          result.completeExceptionally(e);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      result.completeExceptionally(e);
+      return result;
+    }
+    result.whenComplete((value, error) -> {
+      if (error != null) {
+        running.cancel(true);
+      }
+    });
+    return result;
+  }
+}
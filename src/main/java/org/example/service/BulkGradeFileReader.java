@@ -0,0 +1,420 @@
+package org.example.service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.model.ParseResult;
+import org.example.model.Student;
+import org.example.model.ValidationErrorKind;
+
+/**
+ * Читает оценки всех студентов из одного большого файла со строками
+ * {@code Фамилия Имя Отчество;Предмет;Оценка}.
+ *
+ * <p>Файл делится на диапазоны байт, выровненные по границам строк, и диапазоны разбираются
+ * параллельно. Частичные результаты объединяются в порядке диапазонов, поэтому итоговый
+ * список студентов и их оценки не зависят от числа потоков. Строки могут оканчиваться на
+ * {@code \n}, {@code \r\n} или {@code \r}; одна строка не может быть длиннее 2 ГБ.
+ *
+ * <p>Строки одного студента проверяются как его отдельный файл в
+ * {@link GradeFileParser#tryParse}: при первой ошибочной строке студент пропускается целиком
+ * и учитывается в отчете об ошибках один раз, с номером этой строки в общем файле. Строка
+ * без разделителя {@code ;}, у которой нельзя определить студента, учитывается отдельно.
+ */
+public class BulkGradeFileReader {
+  private static final Logger logger = LogManager.getLogger(BulkGradeFileReader.class);
+  private static final int DEFAULT_CHUNK_SIZE = 16 * 1024 * 1024;
+  private static final int MAX_LOGGED_ERRORS = 100;
+  private static final int PROBE_SIZE = 4096;
+  // Наибольший размер массива, который гарантированно можно выделить
+  private static final long MAX_CHUNK_BYTES = Integer.MAX_VALUE - 8;
+
+  private final FileValidator fileValidator = new FileValidator();
+  private final GradeFileParser.SubjectNameCache subjectNames =
+      new GradeFileParser.SubjectNameCache();
+  private final int chunkSize;
+
+  public BulkGradeFileReader() {
+    this(DEFAULT_CHUNK_SIZE);
+  }
+
+  public BulkGradeFileReader(int chunkSize) {
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("Размер блока должен быть положительным: " + chunkSize);
+    }
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Читает файл, разбирая блоки на всех доступных ядрах.
+   */
+  public List<Student> read(Path file) throws IOException {
+    return read(file, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Читает файл, разбирая не более {@code parallelism} блоков одновременно.
+   */
+  public List<Student> read(Path file, int parallelism) throws IOException {
+    return read(file, parallelism, new ValidationReport());
+  }
+
+  /**
+   * То же, что {@link #read(Path, int)}, но пропущенные студенты и строки без студента
+   * дополнительно учитываются в {@code validationReport}.
+   */
+  public List<Student> read(Path file, int parallelism, ValidationReport validationReport)
+      throws IOException {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException(
+          "Уровень параллелизма должен быть положительным: " + parallelism);
+    }
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long[] boundaries = findChunkBoundaries(channel);
+      List<Chunk> chunks = parseChunks(channel, boundaries, parallelism);
+      return mergeChunks(chunks, file.getFileName().toString(), validationReport);
+    }
+  }
+
+  /**
+   * Делит файл на блоки примерно по {@code chunkSize} байт; каждая граница сдвигается на
+   * начало следующей строки. Пара {@code \r\n} не разрывается между блоками.
+   */
+  private long[] findChunkBoundaries(FileChannel channel) throws IOException {
+    long size = channel.size();
+    List<Long> boundaries = new ArrayList<>();
+    boundaries.add(0L);
+
+    ByteBuffer probe = ByteBuffer.allocate(PROBE_SIZE);
+    long chunkStart = 0;
+    long position = Math.min(chunkSize, MAX_CHUNK_BYTES);
+    while (position < size) {
+      long lineStart = -1;
+      while (lineStart < 0 && position < size) {
+        probe.clear();
+        int read = channel.read(probe, position);
+        for (int i = 0; i < read; i++) {
+          byte b = probe.get(i);
+          if (b == '\n') {
+            lineStart = position + i + 1;
+            break;
+          }
+          if (b == '\r') {
+            lineStart = position + i + 1;
+            if (lineStart < size && readByte(channel, lineStart) == '\n') {
+              lineStart++;
+            }
+            break;
+          }
+        }
+        if (lineStart < 0) {
+          position += Math.max(read, 1);
+        }
+      }
+      if (lineStart < 0 || lineStart >= size) {
+        break;
+      }
+      requireChunkFits(chunkStart, lineStart);
+      boundaries.add(lineStart);
+      chunkStart = lineStart;
+      position = lineStart + Math.min(chunkSize, MAX_CHUNK_BYTES);
+    }
+
+    requireChunkFits(chunkStart, size);
+    boundaries.add(size);
+    return boundaries.stream().mapToLong(Long::longValue).toArray();
+  }
+
+  private static byte readByte(FileChannel channel, long position) throws IOException {
+    ByteBuffer single = ByteBuffer.allocate(1);
+    return channel.read(single, position) == 1 ? single.get(0) : -1;
+  }
+
+  private static void requireChunkFits(long start, long end) throws IOException {
+    if (end - start > MAX_CHUNK_BYTES) {
+      throw new IOException("Строка начиная с байта " + start + " длиннее 2 ГБ.");
+    }
+  }
+
+  private List<Chunk> parseChunks(FileChannel channel, long[] boundaries, int parallelism)
+      throws IOException {
+    int chunkCount = boundaries.length - 1;
+    if (parallelism == 1 || chunkCount == 1) {
+      List<Chunk> chunks = new ArrayList<>(chunkCount);
+      for (int i = 0; i < chunkCount; i++) {
+        chunks.add(parseChunk(channel, boundaries[i], boundaries[i + 1]));
+      }
+      return chunks;
+    }
+
+    List<Future<Chunk>> futures = new ArrayList<>(chunkCount);
+    try (ExecutorService executor = Executors.newFixedThreadPool(parallelism)) {
+      for (int i = 0; i < chunkCount; i++) {
+        long start = boundaries[i];
+        long end = boundaries[i + 1];
+        futures.add(executor.submit(() -> parseChunk(channel, start, end)));
+      }
+
+      List<Chunk> chunks = new ArrayList<>(chunkCount);
+      for (Future<Chunk> future : futures) {
+        chunks.add(future.get());
+      }
+      return chunks;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Чтение файла прервано.");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException ioException) {
+        throw ioException;
+      }
+      throw new IOException("Непредвиденная ошибка при разборе файла.", e.getCause());
+    }
+  }
+
+  private Chunk parseChunk(FileChannel channel, long start, long end) throws IOException {
+    byte[] content = new byte[(int) (end - start)];
+    ByteBuffer buffer = ByteBuffer.wrap(content);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, start + buffer.position()) < 0) {
+        break;
+      }
+    }
+
+    Chunk chunk = new Chunk();
+    int lineStart = start == 0 ? skipByteOrderMark(content) : 0;
+    for (int pos = lineStart; pos < content.length; pos++) {
+      byte b = content[pos];
+      if (b == '\n' || b == '\r') {
+        parseRow(content, lineStart, pos, chunk);
+        if (b == '\r' && pos + 1 < content.length && content[pos + 1] == '\n') {
+          pos++;
+        }
+        chunk.lineCount++;
+        lineStart = pos + 1;
+      }
+    }
+    if (lineStart < content.length) {
+      parseRow(content, lineStart, content.length, chunk);
+      chunk.lineCount++;
+    }
+    return chunk;
+  }
+
+  private void parseRow(byte[] content, int from, int to, Chunk chunk) {
+    int start = GradeFileParser.skipLeadingWhitespace(content, from, to);
+    int end = GradeFileParser.skipTrailingWhitespace(content, start, to);
+    if (start == end) {
+      return;
+    }
+
+    int firstSeparator = indexOf(content, start, end, (byte) ';');
+    if (firstSeparator < 0) {
+      chunk.addError(chunk.lineCount, ValidationErrorKind.INVALID_ROW_FORMAT);
+      return;
+    }
+    int nameEnd = GradeFileParser.skipTrailingWhitespace(content, start, firstSeparator);
+    StudentRows rows = chunk.rowsOf(chunk.fullName(content, start, nameEnd));
+    rows.rowCount++;
+    if (rows.error != null) {
+      return;
+    }
+
+    int lastSeparator = lastIndexOf(content, start, end, (byte) ';');
+    if (firstSeparator == lastSeparator) {
+      rows.reject(ValidationErrorKind.INVALID_ROW_FORMAT, chunk.lineCount);
+      return;
+    }
+    int subjectStart = GradeFileParser.skipLeadingWhitespace(content, firstSeparator + 1,
+        lastSeparator);
+    int subjectEnd = GradeFileParser.skipTrailingWhitespace(content, subjectStart, lastSeparator);
+    int gradeStart = GradeFileParser.skipLeadingWhitespace(content, lastSeparator + 1, end);
+
+    int grade = GradeFileParser.parseGrade(content, gradeStart, end);
+    if (grade == Integer.MIN_VALUE) {
+      rows.reject(ValidationErrorKind.INVALID_GRADE_FORMAT, chunk.lineCount);
+      return;
+    }
+    if (!fileValidator.isValidGrade(grade)) {
+      rows.reject(ValidationErrorKind.GRADE_OUT_OF_RANGE, chunk.lineCount);
+      return;
+    }
+    if (subjectStart == subjectEnd) {
+      rows.reject(ValidationErrorKind.INVALID_ROW_FORMAT, chunk.lineCount);
+      return;
+    }
+
+    rows.grades.put(subjectNames.lookup(content, subjectStart, subjectEnd), grade);
+  }
+
+  private List<Student> mergeChunks(List<Chunk> chunks, String fileName,
+                                    ValidationReport validationReport) {
+    Map<String, StudentRows> rowsByStudent = new LinkedHashMap<>();
+    long firstLine = 1;
+    int errorCount = 0;
+
+    for (Chunk chunk : chunks) {
+      for (RowError error : chunk.errors) {
+        long line = firstLine + error.line();
+        validationReport.record(ParseResult.failure(error.kind(),
+            (int) Math.min(line, Integer.MAX_VALUE)).inFile(fileName));
+        if (errorCount++ < MAX_LOGGED_ERRORS) {
+          logger.error("Ошибка в строке {}: {}", line, error.kind().getDescription());
+        }
+      }
+      long chunkFirstLine = firstLine;
+      chunk.rowsByStudent.forEach((fullName, rows) -> rowsByStudent
+          .computeIfAbsent(fullName, k -> new StudentRows()).merge(rows, chunkFirstLine));
+      firstLine += chunk.lineCount;
+    }
+    if (errorCount > MAX_LOGGED_ERRORS) {
+      logger.error("Всего строк с ошибками: {}", errorCount);
+    }
+
+    List<Student> students = new ArrayList<>(rowsByStudent.size());
+    for (Map.Entry<String, StudentRows> entry : rowsByStudent.entrySet()) {
+      String fullName = entry.getKey();
+      if (!fileValidator.isValidFullName(fullName)) {
+        logger.warn("Некорректное ФИО: {}. Студент пропущен.", fullName);
+        validationReport.record(ParseResult.failure(ValidationErrorKind.INVALID_FILE_NAME, 0)
+            .inFile(fileName + ": " + fullName));
+        continue;
+      }
+      ParseResult rejection = entry.getValue().check();
+      if (rejection != null) {
+        logger.error("Студент {} пропущен: {}", fullName, rejection.getMessage());
+        validationReport.record(rejection.inFile(fileName + ": " + fullName));
+        continue;
+      }
+      students.add(new Student(fullName, entry.getValue().grades));
+    }
+    logger.info("Из файла прочитано студентов: {}", students.size());
+    return students;
+  }
+
+  private static int skipByteOrderMark(byte[] content) {
+    boolean hasBom = content.length >= 3 && (content[0] & 0xFF) == 0xEF
+        && (content[1] & 0xFF) == 0xBB && (content[2] & 0xFF) == 0xBF;
+    return hasBom ? 3 : 0;
+  }
+
+  private static int indexOf(byte[] content, int from, int to, byte value) {
+    for (int i = from; i < to; i++) {
+      if (content[i] == value) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int lastIndexOf(byte[] content, int from, int to, byte value) {
+    for (int i = to - 1; i >= from; i--) {
+      if (content[i] == value) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Результат разбора одного блока. Номера строк в ошибках считаются от начала блока.
+   */
+  private static final class Chunk {
+    private final Map<String, StudentRows> rowsByStudent = new LinkedHashMap<>();
+    private final List<RowError> errors = new ArrayList<>();
+    private long lineCount;
+    private byte[] lastNameBytes = new byte[0];
+    private String lastName;
+
+    /**
+     * Строки одного студента обычно идут подряд, поэтому ФИО из предыдущей строки
+     * переиспользуется без создания новой строки.
+     */
+    String fullName(byte[] content, int from, int to) {
+      if (lastName == null || !Arrays.equals(lastNameBytes, 0, lastNameBytes.length,
+          content, from, to)) {
+        lastNameBytes = Arrays.copyOfRange(content, from, to);
+        lastName = new String(lastNameBytes, StandardCharsets.UTF_8);
+      }
+      return lastName;
+    }
+
+    StudentRows rowsOf(String fullName) {
+      return rowsByStudent.computeIfAbsent(fullName, k -> new StudentRows());
+    }
+
+    void addError(long line, ValidationErrorKind kind) {
+      errors.add(new RowError(line, kind));
+    }
+  }
+
+  /**
+   * Строки одного студента: оценки, число строк и первая ошибочная строка. После нее
+   * оценки студента больше не собираются.
+   */
+  private static final class StudentRows {
+    private final Map<String, Integer> grades = new HashMap<>();
+    private long rowCount;
+    private ValidationErrorKind error;
+    private long errorLine;
+
+    void reject(ValidationErrorKind kind, long line) {
+      error = kind;
+      errorLine = line;
+      grades.clear();
+    }
+
+    /**
+     * Добавляет строки следующего блока, номера строк которого начинаются с
+     * {@code firstLine}.
+     */
+    void merge(StudentRows other, long firstLine) {
+      rowCount += other.rowCount;
+      if (error != null) {
+        return;
+      }
+      if (other.error != null) {
+        reject(other.error, firstLine + other.errorLine);
+      } else {
+        grades.putAll(other.grades);
+      }
+    }
+
+    /**
+     * Причина пропуска студента с тем же приоритетом, что в
+     * {@link GradeFileParser#tryParse}: нехватка строк важнее ошибки в строке; либо
+     * {@code null}, если студент корректен.
+     */
+    ParseResult check() {
+      if (rowCount < GradeFileParser.MIN_LINES) {
+        return ParseResult.failure(ValidationErrorKind.TOO_FEW_LINES, 0);
+      }
+      if (error != null) {
+        return ParseResult.failure(error, (int) Math.min(errorLine, Integer.MAX_VALUE));
+      }
+      if (grades.size() < GradeFileParser.MIN_LINES) {
+        return ParseResult.failure(ValidationErrorKind.TOO_FEW_LINES, 0);
+      }
+      return null;
+    }
+  }
+
+  private record RowError(long line, ValidationErrorKind kind) {
+  }
+}
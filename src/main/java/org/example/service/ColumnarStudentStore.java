@@ -0,0 +1,303 @@
+package org.example.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.example.model.Student;
+import org.example.model.SubjectDictionary;
+
+/**
+ * Хранилище студентов по столбцам вне кучи, для наборов, которые не помещаются в память в
+ * виде списка объектов {@link Student}.
+ *
+ * <p>Для каждого предмета (по идентификатору {@link SubjectDictionary}) заводится столбец
+ * прямого {@link ByteBuffer} с одним байтом оценки на строку, 0 - нет оценки. Рядом хранятся
+ * столбцы суммы и количества оценок для ранжирования, столбец смещений имен и общий блок
+ * имен в UTF-8 ({@code u16 длина, ФИО, u16 длина, папка}). {@link GradeCalculator} и
+ * {@link StudentRanking} просматривают столбцы частями через {@link AggregationKernels};
+ * объект {@link Student} создается только по запросу {@link #studentAt(int)}.
+ *
+ * <p>Добавление не потокобезопасно; после заполнения хранилище можно читать из нескольких
+ * потоков. Число строк и размер блока имен ограничены 2 ГБ.
+ *
+ * <p>Прямые буферы не входят в {@code -Xmx}: их общий объем ограничен флагом
+ * {@code -XX:MaxDirectMemorySize}, который по умолчанию равен {@code -Xmx}. При росте
+ * хранилище временно держит и старый, и новый буфер столбца, поэтому для больших наборов
+ * флаг стоит задавать явно с запасом, иначе добавление завершится
+ * {@link OutOfMemoryError} "Direct buffer memory". Память освобождается, когда хранилище
+ * становится недостижимым и собирается сборщиком мусора.
+ */
+public class ColumnarStudentStore {
+  private static final int DEFAULT_CAPACITY = 1024;
+  private static final int MAX_STRING_BYTES = 0xFFFF;
+  static final int SCAN_CHUNK_ROWS = 8192;
+
+  private ByteBuffer[] gradeColumns = new ByteBuffer[0];
+  private ByteBuffer sumColumn;
+  private ByteBuffer countColumn;
+  private ByteBuffer nameOffsetColumn;
+  private ByteBuffer names;
+  private int capacity;
+  private int size;
+
+  public ColumnarStudentStore() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public ColumnarStudentStore(int initialCapacity) {
+    if (initialCapacity < 1) {
+      throw new IllegalArgumentException(
+          "Начальная емкость должна быть положительной: " + initialCapacity);
+    }
+    this.capacity = initialCapacity;
+    this.sumColumn = ByteBuffer.allocateDirect(initialCapacity * Integer.BYTES);
+    this.countColumn = ByteBuffer.allocateDirect(initialCapacity * Integer.BYTES);
+    this.nameOffsetColumn = ByteBuffer.allocateDirect(initialCapacity * Integer.BYTES);
+    this.names = ByteBuffer.allocateDirect(initialCapacity * 64);
+  }
+
+  /**
+   * Добавляет студента строкой в конец хранилища. Сам объект после этого не нужен.
+   */
+  public void append(Student student) {
+    if (size == capacity) {
+      grow();
+    }
+    int row = size;
+    // Имена пишутся первыми: слишком длинное имя не должно оставить оценки в строке
+    nameOffsetColumn.putInt(row * Integer.BYTES, names.position());
+    putString(student.getFullName());
+    putString(student.getCohort());
+
+    int bound = student.getSubjectIdBound();
+    if (bound > gradeColumns.length) {
+      gradeColumns = Arrays.copyOf(gradeColumns, bound);
+    }
+    for (int id = 0; id < bound; id++) {
+      int grade = student.getGrade(id);
+      if (grade != 0) {
+        if (gradeColumns[id] == null) {
+          gradeColumns[id] = ByteBuffer.allocateDirect(capacity);
+        }
+        gradeColumns[id].put(row, (byte) grade);
+      }
+    }
+
+    sumColumn.putInt(row * Integer.BYTES, student.getGradeSum());
+    countColumn.putInt(row * Integer.BYTES, student.getSubjectCount());
+    size++;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Граница идентификаторов предметов, для которых в хранилище есть столбцы.
+   */
+  public int getSubjectIdBound() {
+    return gradeColumns.length;
+  }
+
+  /**
+   * Оценка студента в строке {@code row} по предмету или 0, если ее нет.
+   */
+  public int getGrade(int row, int subjectId) {
+    checkRow(row);
+    ByteBuffer column = subjectId >= 0 && subjectId < gradeColumns.length
+        ? gradeColumns[subjectId] : null;
+    return column == null ? 0 : column.get(row);
+  }
+
+  public int getGradeSum(int row) {
+    checkRow(row);
+    return sumColumn.getInt(row * Integer.BYTES);
+  }
+
+  public int getSubjectCount(int row) {
+    checkRow(row);
+    return countColumn.getInt(row * Integer.BYTES);
+  }
+
+  /**
+   * Точно сравнивает средние баллы двух строк, как {@link Student#compareAverageTo(Student)}.
+   */
+  public int compareAverages(int row, int otherRow) {
+    long left = (long) getGradeSum(row) * Math.max(getSubjectCount(otherRow), 1);
+    long right = (long) getGradeSum(otherRow) * Math.max(getSubjectCount(row), 1);
+    return Long.compare(left, right);
+  }
+
+  /**
+   * Суммирует оценки по предмету просмотром одного столбца. Возвращает пару
+   * {@code {сумма, количество}}.
+   */
+  public long[] sumGrades(int subjectId) {
+    return sumGrades(subjectId, AggregationKernels.scalar());
+  }
+
+  /**
+   * Суммирует оценки по предмету циклами {@code kernels}: столбец копируется частями по
+   * {@link #SCAN_CHUNK_ROWS} строк в массив в куче. Возвращает пару {@code {сумма, количество}}.
+   */
+  public long[] sumGrades(int subjectId, AggregationKernels kernels) {
+    long sum = 0;
+    long count = 0;
+    ByteBuffer column = subjectId >= 0 && subjectId < gradeColumns.length
+        ? gradeColumns[subjectId] : null;
+    if (column != null) {
+      byte[] chunk = new byte[Math.min(size, SCAN_CHUNK_ROWS)];
+      for (int from = 0; from < size; from += chunk.length) {
+        int length = Math.min(chunk.length, size - from);
+        column.get(from, chunk, 0, length);
+        sum += kernels.sum(chunk, length);
+        count += kernels.countNonZero(chunk, length);
+      }
+    }
+    return new long[] {sum, count};
+  }
+
+  /**
+   * Добавляет к {@code counts[g - 1]} количество оценок {@code g} по предмету для g от 1 до
+   * {@code counts.length}.
+   */
+  public void countGrades(int subjectId, AggregationKernels kernels, long[] counts) {
+    ByteBuffer column = subjectId >= 0 && subjectId < gradeColumns.length
+        ? gradeColumns[subjectId] : null;
+    if (column == null) {
+      return;
+    }
+    byte[] chunk = new byte[Math.min(size, SCAN_CHUNK_ROWS)];
+    for (int from = 0; from < size; from += chunk.length) {
+      int length = Math.min(chunk.length, size - from);
+      column.get(from, chunk, 0, length);
+      kernels.histogram(chunk, length, counts);
+    }
+  }
+
+  /**
+   * Первая строка с наибольшим ({@code maximum}) или наименьшим средним баллом, -1 для
+   * пустого хранилища.
+   */
+  public int findExtremeAverageRow(boolean maximum, AggregationKernels kernels) {
+    int best = -1;
+    int[] sums = new int[Math.min(size, SCAN_CHUNK_ROWS)];
+    int[] counts = new int[sums.length];
+    for (int from = 0; from < size; from += sums.length) {
+      int length = readTotals(from, sums, counts);
+      int row = from + kernels.findExtremeAverage(sums, counts, length, maximum);
+      int comparison = best < 0 ? 0 : compareAverages(row, best);
+      if (best < 0 || (maximum ? comparison > 0 : comparison < 0)) {
+        best = row;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Строки, средний балл которых равен среднему строки {@code row}, по возрастанию.
+   */
+  public int[] findRowsWithSameAverage(int row, AggregationKernels kernels) {
+    long targetSum = getGradeSum(row);
+    long targetCount = getSubjectCount(row);
+    int[] sums = new int[Math.min(size, SCAN_CHUNK_ROWS)];
+    int[] counts = new int[sums.length];
+    int[] chunkRows = new int[sums.length];
+    int[] rows = new int[16];
+    int found = 0;
+    for (int from = 0; from < size; from += sums.length) {
+      int length = readTotals(from, sums, counts);
+      int matched = kernels.findEqualAverages(sums, counts, length, targetSum, targetCount,
+          chunkRows);
+      if (found + matched > rows.length) {
+        rows = Arrays.copyOf(rows, Math.max(rows.length * 2, found + matched));
+      }
+      for (int i = 0; i < matched; i++) {
+        rows[found++] = from + chunkRows[i];
+      }
+    }
+    return Arrays.copyOf(rows, found);
+  }
+
+  /**
+   * Создает объект студента для строки; используется только для выводимых студентов.
+   */
+  public Student studentAt(int row) {
+    checkRow(row);
+    int offset = nameOffsetColumn.getInt(row * Integer.BYTES);
+    int nameLength = names.getShort(offset) & 0xFFFF;
+    String fullName = getString(offset + Short.BYTES, nameLength);
+    int cohortOffset = offset + Short.BYTES + nameLength;
+    String cohort = getString(cohortOffset + Short.BYTES, names.getShort(cohortOffset) & 0xFFFF);
+
+    byte[] grades = new byte[gradeColumns.length];
+    for (int id = 0; id < gradeColumns.length; id++) {
+      if (gradeColumns[id] != null) {
+        grades[id] = gradeColumns[id].get(row);
+      }
+    }
+    return new Student(fullName, grades, cohort);
+  }
+
+  private void checkRow(int row) {
+    if (row < 0 || row >= size) {
+      throw new IndexOutOfBoundsException("Нет строки " + row + ", всего строк: " + size);
+    }
+  }
+
+  /**
+   * Копирует суммы и количества оценок строк начиная с {@code from} в массивы в куче.
+   */
+  private int readTotals(int from, int[] sums, int[] counts) {
+    int length = Math.min(sums.length, size - from);
+    sumColumn.duplicate().clear().asIntBuffer().get(from, sums, 0, length);
+    countColumn.duplicate().clear().asIntBuffer().get(from, counts, 0, length);
+    return length;
+  }
+
+  private void grow() {
+    if (capacity > Integer.MAX_VALUE / 2 / Integer.BYTES) {
+      throw new IllegalStateException("Превышено максимальное число строк хранилища.");
+    }
+    int newCapacity = capacity * 2;
+    for (int id = 0; id < gradeColumns.length; id++) {
+      if (gradeColumns[id] != null) {
+        gradeColumns[id] = copy(gradeColumns[id], capacity, newCapacity);
+      }
+    }
+    sumColumn = copy(sumColumn, capacity * Integer.BYTES, newCapacity * Integer.BYTES);
+    countColumn = copy(countColumn, capacity * Integer.BYTES, newCapacity * Integer.BYTES);
+    nameOffsetColumn = copy(nameOffsetColumn, capacity * Integer.BYTES,
+        newCapacity * Integer.BYTES);
+    capacity = newCapacity;
+  }
+
+  private void putString(String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    if (bytes.length > MAX_STRING_BYTES) {
+      throw new IllegalArgumentException("Слишком длинная строка: " + value.length());
+    }
+    int required = Short.BYTES + bytes.length;
+    if (names.remaining() < required) {
+      long newCapacity = Math.max((long) names.capacity() * 2, names.position() + required);
+      if (newCapacity > Integer.MAX_VALUE) {
+        throw new IllegalStateException("Превышен максимальный размер блока имен.");
+      }
+      names = copy(names, names.position(), (int) newCapacity);
+    }
+    names.putShort((short) bytes.length);
+    names.put(bytes);
+  }
+
+  private String getString(int offset, int length) {
+    byte[] bytes = new byte[length];
+    names.get(offset, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static ByteBuffer copy(ByteBuffer source, int usedBytes, int newCapacity) {
+    ByteBuffer copy = ByteBuffer.allocateDirect(newCapacity);
+    copy.put(source.duplicate().position(0).limit(usedBytes));
+    return copy;
+  }
+}
@@ -0,0 +1,82 @@
+package org.example.service;
+
+/**
+ * Дешевый отпечаток набора файлов оценок: число файлов, наибольшее время изменения, общий
+ * размер и не зависящая от порядка свертка имен, размеров и времен изменения файлов.
+ *
+ * <p>Строится только по атрибутам файлов, без чтения содержимого. Совпадение отпечатков
+ * означает, что файлы не добавлялись, не удалялись, не переименовывались и не изменялись
+ * с точностью до времени изменения файловой системы.
+ */
+public final class DirectoryFingerprint {
+  private final int fileCount;
+  private final long maxModifiedNanos;
+  private final long totalSize;
+  private final long entriesHash;
+
+  public DirectoryFingerprint(int fileCount, long maxModifiedNanos, long totalSize,
+                              long entriesHash) {
+    this.fileCount = fileCount;
+    this.maxModifiedNanos = maxModifiedNanos;
+    this.totalSize = totalSize;
+    this.entriesHash = entriesHash;
+  }
+
+  public int getFileCount() {
+    return fileCount;
+  }
+
+  public long getMaxModifiedNanos() {
+    return maxModifiedNanos;
+  }
+
+  public long getTotalSize() {
+    return totalSize;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof DirectoryFingerprint)) {
+      return false;
+    }
+    DirectoryFingerprint other = (DirectoryFingerprint) o;
+    return fileCount == other.fileCount && maxModifiedNanos == other.maxModifiedNanos
+        && totalSize == other.totalSize && entriesHash == other.entriesHash;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(entriesHash) * 31 + fileCount;
+  }
+
+  @Override
+  public String toString() {
+    return "файлов: " + fileCount + ", размер: " + totalSize + ", изменен: " + maxModifiedNanos;
+  }
+
+  /**
+   * Накапливает отпечаток по атрибутам файлов в любом порядке.
+   */
+  static final class Builder {
+    private int fileCount;
+    private long maxModifiedNanos = Long.MIN_VALUE;
+    private long totalSize;
+    private long entriesHash;
+
+    void add(String name, long size, long modifiedNanos) {
+      fileCount++;
+      maxModifiedNanos = Math.max(maxModifiedNanos, modifiedNanos);
+      totalSize += size;
+      long entry = name.hashCode() * 0x9E3779B97F4A7C15L + size;
+      entry = entry * 0xC2B2AE3D27D4EB4FL + modifiedNanos;
+      entriesHash += entry ^ (entry >>> 29);
+    }
+
+    DirectoryFingerprint build() {
+      return new DirectoryFingerprint(fileCount, maxModifiedNanos, totalSize, entriesHash);
+    }
+  }
+}
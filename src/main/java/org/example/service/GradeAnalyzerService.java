@@ -1,30 +1,50 @@
 package org.example.service;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import org.example.model.AnalysisReport;
+import org.example.model.GradeDistribution;
+import org.example.model.Leaderboard;
 import org.example.model.Student;
+import org.example.model.SubjectLeaderboard;
 
 /**
  * Главный сервис для анализа оценок, координирующий работу других сервисов.
  */
 public class GradeAnalyzerService {
+  /**
+   * Число файлов, разбираемых одновременно при чтении директории или дерева, если
+   * вызывающий не задал свое: по одному на доступный процессор.
+   */
+  public static final int DEFAULT_READER_THREADS = Runtime.getRuntime().availableProcessors();
+
   private final StudentFileReader fileReader;
   private final GradeCalculator gradeCalculator;
   private final StudentRanking studentRanking;
+  private final AnalysisCache analysisCache;
 
   public GradeAnalyzerService() {
-    this.fileReader = new StudentFileReader();
-    this.gradeCalculator = new GradeCalculator();
-    this.studentRanking = new StudentRanking();
+    this(new StudentFileReader(), new GradeCalculator(), new StudentRanking());
   }
 
   public GradeAnalyzerService(StudentFileReader fileReader,
                               GradeCalculator gradeCalculator,
                               StudentRanking studentRanking) {
+    this(fileReader, gradeCalculator, studentRanking, new AnalysisCache());
+  }
+
+  public GradeAnalyzerService(StudentFileReader fileReader,
+                              GradeCalculator gradeCalculator,
+                              StudentRanking studentRanking,
+                              AnalysisCache analysisCache) {
     this.fileReader = fileReader;
     this.gradeCalculator = gradeCalculator;
     this.studentRanking = studentRanking;
+    this.analysisCache = analysisCache;
   }
 
   /**
@@ -34,6 +54,228 @@ public class GradeAnalyzerService {
     return fileReader.readStudentsFromDirectory(directoryPath);
   }
 
+  /**
+   * Читает студентов из директории, обрабатывая до {@code parallelism} файлов одновременно.
+   */
+  public List<Student> readStudentsFromDirectory(String directoryPath, int parallelism)
+      throws IOException {
+    return fileReader.readStudentsFromDirectory(directoryPath, parallelism);
+  }
+
+  /**
+   * Читает студентов из директории, собирая ошибки пропущенных файлов в
+   * {@code validationReport}.
+   */
+  public List<Student> readStudentsFromDirectory(String directoryPath, int parallelism,
+                                                 ValidationReport validationReport)
+      throws IOException {
+    return fileReader.readStudentsFromDirectory(directoryPath, parallelism, validationReport);
+  }
+
+  /**
+   * Читает студентов директории в столбцовое хранилище вне кучи для наборов, не
+   * помещающихся в память в виде списка.
+   */
+  public ColumnarStudentStore readStudentsIntoStore(String directoryPath) throws IOException {
+    return fileReader.readStudentsIntoStore(directoryPath);
+  }
+
+  /**
+   * Читает студентов в столбцовое хранилище с учетом ошибок пропущенных файлов в
+   * {@code validationReport}.
+   */
+  public ColumnarStudentStore readStudentsIntoStore(String directoryPath,
+                                                    ValidationReport validationReport)
+      throws IOException {
+    return fileReader.readStudentsIntoStore(directoryPath, validationReport);
+  }
+
+  /**
+   * Проверяет, указывает ли путь на ZIP-архив с файлами оценок.
+   */
+  public boolean isArchive(String path) {
+    return fileReader.isArchive(path);
+  }
+
+  /**
+   * Рекурсивно читает студентов из дерева директорий школа/класс/ученик.txt.
+   */
+  public List<Student> readStudentsFromTree(String rootPath, int parallelism)
+      throws IOException {
+    return fileReader.readStudentsFromTree(rootPath, parallelism);
+  }
+
+  /**
+   * Читает дерево школа/класс/ученик.txt в куб оценок по школам, классам и предметам.
+   */
+  public GradeCube readGradeCubeFromTree(String rootPath, int parallelism,
+                                         ValidationReport validationReport)
+      throws IOException {
+    return fileReader.readGradeCubeFromTree(rootPath, parallelism, validationReport);
+  }
+
+  /**
+   * Читает студентов из директории, перечитывая только файлы, изменившиеся с прошлого
+   * запуска. Манифест хранится в директории рядом с отчетом.
+   */
+  public IncrementalReadResult readStudentsIncrementally(String directoryPath)
+      throws IOException {
+    Path manifestPath = Paths.get(directoryPath, GradeManifest.FILE_NAME);
+    GradeManifest manifest = GradeManifest.load(manifestPath);
+
+    IncrementalReadResult result = fileReader.readStudentsIncrementally(directoryPath, manifest);
+    gradeCalculator.applyChanges(result.getSubjectTotals(), result.getRemoved(),
+        result.getAdded());
+
+    manifest.save(manifestPath);
+    return result;
+  }
+
+  /**
+   * Строит полный отчет по результату {@link #readStudentsIncrementally}, как
+   * {@link #analyzeAll(List, int, int)}, но средние по предметам берет из сумм, обновленных
+   * только по изменившимся файлам, а не пересчитывает по всем ученикам.
+   */
+  public AnalysisReport analyzeIncremental(IncrementalReadResult result, int leaderboardSize,
+                                           int subjectLeaderboardSize) {
+    AnalysisAccumulator accumulator = new AnalysisAccumulator(leaderboardSize,
+        subjectLeaderboardSize, result.getSubjectTotals());
+    result.getStudents().forEach(accumulator::add);
+    return accumulator.toReport();
+  }
+
+  /**
+   * Читает студентов из одного файла со строками ФИО;Предмет;Оценка, разбирая его
+   * параллельно на всех ядрах.
+   */
+  public List<Student> readStudentsFromBulkFile(String filePath) throws IOException {
+    return readStudentsFromBulkFile(filePath, new ValidationReport());
+  }
+
+  /**
+   * То же, что {@link #readStudentsFromBulkFile(String)}, но ошибочные строки учитываются
+   * в {@code validationReport}.
+   */
+  public List<Student> readStudentsFromBulkFile(String filePath,
+                                                ValidationReport validationReport)
+      throws IOException {
+    return new BulkGradeFileReader().read(Paths.get(filePath),
+        Runtime.getRuntime().availableProcessors(), validationReport);
+  }
+
+  /**
+   * Сохраняет разобранных студентов в бинарный снимок.
+   */
+  public void saveSnapshot(List<Student> students, String snapshotPath) throws IOException {
+    new StudentSnapshot().write(students, Paths.get(snapshotPath));
+  }
+
+  /**
+   * Загружает студентов из бинарного снимка вместо разбора текстовых файлов.
+   */
+  public List<Student> readStudentsFromSnapshot(String snapshotPath) throws IOException {
+    return new StudentSnapshot().read(Paths.get(snapshotPath));
+  }
+
+  /**
+   * Создает наблюдателя, поддерживающего отчет в директории в актуальном состоянии.
+   */
+  public GradeDirectoryWatcher watchDirectory(String directoryPath, Duration debounce)
+      throws IOException {
+    return new GradeDirectoryWatcher(Paths.get(directoryPath), debounce, fileReader,
+        new ReportWriter());
+  }
+
+  /**
+   * Анализирует директорию потоковым конвейером без построения полного списка студентов.
+   * Для каждой стадии задается свое число потоков, очереди между стадиями ограничены
+   * {@code queueCapacity} элементами.
+   */
+  public AnalysisReport analyzeWithPipeline(String directoryPath, int readerThreads,
+                                            int parserThreads, int aggregatorThreads,
+                                            int queueCapacity) throws IOException {
+    return analyzeWithPipeline(directoryPath, readerThreads, parserThreads, aggregatorThreads,
+        queueCapacity, new ValidationReport());
+  }
+
+  /**
+   * Потоковый анализ с учетом ошибок пропущенных файлов в {@code validationReport}.
+   */
+  public AnalysisReport analyzeWithPipeline(String directoryPath, int readerThreads,
+                                            int parserThreads, int aggregatorThreads,
+                                            int queueCapacity,
+                                            ValidationReport validationReport)
+      throws IOException {
+    return new GradePipeline(readerThreads, parserThreads, aggregatorThreads, queueCapacity)
+        .run(directoryPath, validationReport);
+  }
+
+  /**
+   * Рассчитывает средние и распределения по предметам, лучших и худших учеников за один
+   * проход по списку вместо отдельных проходов каждого расчета.
+   */
+  public AnalysisReport analyzeAll(List<Student> students) {
+    return analyzeAll(students, 0);
+  }
+
+  /**
+   * То же, что {@link #analyzeAll(List)}, с рейтингом из {@code leaderboardSize} первых и
+   * последних учеников в том же проходе; 0 - без рейтинга.
+   */
+  public AnalysisReport analyzeAll(List<Student> students, int leaderboardSize) {
+    return analyzeAll(students, leaderboardSize, 0);
+  }
+
+  /**
+   * То же, что {@link #analyzeAll(List, int)}, с рейтингами из
+   * {@code subjectLeaderboardSize} лучших и худших учеников по каждому предмету в том же
+   * проходе; 0 - без них.
+   */
+  public AnalysisReport analyzeAll(List<Student> students, int leaderboardSize,
+                                   int subjectLeaderboardSize) {
+    AnalysisAccumulator accumulator =
+        new AnalysisAccumulator(leaderboardSize, subjectLeaderboardSize);
+    students.forEach(accumulator::add);
+    return accumulator.toReport();
+  }
+
+  /**
+   * Читает директорию и строит по ней полный отчет, как {@link #analyzeAll(List, int, int)}.
+   * Отчет берется из {@link AnalysisCache}, если файлы директории не менялись с прошлого
+   * расчета; изменения определяются по {@link DirectoryFingerprint} без чтения файлов.
+   */
+  public AnalysisReport analyzeDirectory(String directoryPath, int leaderboardSize,
+                                         int subjectLeaderboardSize) throws IOException {
+    DirectoryFingerprint fingerprint = fileReader.fingerprint(directoryPath);
+    AnalysisReport cached = analysisCache.get(directoryPath, leaderboardSize,
+        subjectLeaderboardSize, fingerprint);
+    if (cached != null) {
+      return cached;
+    }
+    AnalysisReport report = analyzeAll(readStudentsFromDirectory(directoryPath),
+        leaderboardSize, subjectLeaderboardSize);
+    analysisCache.put(directoryPath, leaderboardSize, subjectLeaderboardSize, fingerprint,
+        report);
+    return report;
+  }
+
+  /**
+   * Кэш отчетов {@link #analyzeDirectory}, в том числе его счетчики попаданий и промахов.
+   */
+  public AnalysisCache getAnalysisCache() {
+    return analysisCache;
+  }
+
+  /**
+   * Рассчитывает средние по предметам, лучших и худших студентов параллельно на
+   * {@code parallelism} потоках. Результат совпадает с последовательным расчетом.
+   */
+  public AnalysisReport analyzeInParallel(List<Student> students, int parallelism) {
+    try (ParallelGradeAnalyzer analyzer = new ParallelGradeAnalyzer(parallelism)) {
+      return analyzer.analyze(students);
+    }
+  }
+
   /**
    * Рассчитывает средний балл по предметам.
    */
@@ -41,6 +283,90 @@ public class GradeAnalyzerService {
     return gradeCalculator.calculateAverageGradesBySubject(students);
   }
 
+  /**
+   * Рассчитывает средний балл по предметам просмотром столбцов хранилища.
+   */
+  public Map<String, Double> calculateAverageGradesBySubject(ColumnarStudentStore store) {
+    return gradeCalculator.calculateAverageGradesBySubject(store);
+  }
+
+  /**
+   * Рассчитывает распределение оценок по предметам.
+   */
+  public Map<String, GradeDistribution> calculateGradeDistributions(List<Student> students) {
+    return gradeCalculator.calculateGradeDistributions(students);
+  }
+
+  /**
+   * Рассчитывает распределение оценок по предметам просмотром столбцов хранилища.
+   */
+  public Map<String, GradeDistribution> calculateGradeDistributions(ColumnarStudentStore store) {
+    return gradeCalculator.calculateGradeDistributions(store);
+  }
+
+  /**
+   * Находит лучших студентов в столбцовом хранилище.
+   */
+  public List<Student> findBestStudents(ColumnarStudentStore store) {
+    return studentRanking.findBestStudents(store);
+  }
+
+  /**
+   * Находит худших студентов в столбцовом хранилище.
+   */
+  public List<Student> findWorstStudents(ColumnarStudentStore store) {
+    return studentRanking.findWorstStudents(store);
+  }
+
+  /**
+   * Строит рейтинг из {@code limit} лучших и {@code limit} худших учеников.
+   */
+  public Leaderboard buildLeaderboard(List<Student> students, int limit) {
+    return studentRanking.buildLeaderboard(students, limit);
+  }
+
+  /**
+   * Строит рейтинги по каждой папке (школе/классу), например 100 лучших в каждом классе.
+   */
+  public Map<String, Leaderboard> buildLeaderboardsByCohort(List<Student> students, int limit) {
+    return studentRanking.buildLeaderboardsByCohort(students, limit);
+  }
+
+  /**
+   * Строит для каждого предмета списки из {@code limit} лучших и худших учеников.
+   */
+  public Map<String, SubjectLeaderboard> buildSubjectLeaderboards(List<Student> students,
+                                                                  int limit) {
+    return studentRanking.buildSubjectLeaderboards(students, limit);
+  }
+
+  /**
+   * То же, что {@link #buildSubjectLeaderboards(List, int)}, параллельно на
+   * {@code parallelism} потоках; результат совпадает с последовательным.
+   */
+  public Map<String, SubjectLeaderboard> buildSubjectLeaderboards(List<Student> students,
+                                                                  int limit,
+                                                                  int parallelism) {
+    try (ParallelGradeAnalyzer analyzer = new ParallelGradeAnalyzer(parallelism)) {
+      return analyzer.buildSubjectLeaderboards(students, limit);
+    }
+  }
+
+  /**
+   * Строит индекс мест учеников для запросов места, диапазона мест и процентиля.
+   */
+  public StudentRankIndex buildRankIndex(List<Student> students) {
+    return new StudentRankIndex(students);
+  }
+
+  /**
+   * Обновляет индекс мест по файлам, изменившимся с прошлого чтения директории.
+   */
+  public void updateRankIndex(StudentRankIndex rankIndex, IncrementalReadResult changes) {
+    changes.getRemoved().forEach(rankIndex::remove);
+    changes.getAdded().forEach(rankIndex::add);
+  }
+
   /**
    * Находит лучших студентов.
    */
@@ -1,54 +1,95 @@
 package org.example.service;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import org.example.model.GradeDistribution;
 import org.example.model.Student;
+import org.example.model.SubjectDictionary;
 
 /**
  * Сервис для расчета различных метрик по оценкам.
  */
 public class GradeCalculator {
+  private final AggregationKernels kernels;
+
+  public GradeCalculator() {
+    this(AggregationKernels.preferred());
+  }
 
   /**
-   * Рассчитывает средний балл по каждому предмету.
+   * @param kernels циклы просмотра столбцов {@link ColumnarStudentStore}
    */
-  public Map<String, Double> calculateAverageGradesBySubject(List<Student> students) {
-    Map<String, List<Integer>> gradesBySubject = groupGradesBySubject(students);
-    Map<String, Double> avgGrades = new HashMap<>();
-
-    for (Map.Entry<String, List<Integer>> entry : gradesBySubject.entrySet()) {
-      String subject = entry.getKey();
-      List<Integer> grades = entry.getValue();
-      double average = calculateAverage(grades);
-      avgGrades.put(subject, average);
-    }
+  public GradeCalculator(AggregationKernels kernels) {
+    this.kernels = kernels;
+  }
 
-    return avgGrades;
+  /**
+   * Рассчитывает средний балл по каждому предмету за один проход с накоплением суммы и
+   * количества оценок, без группировки самих оценок.
+   */
+  public Map<String, Double> calculateAverageGradesBySubject(List<Student> students) {
+    return accumulate(students).getAverages();
   }
 
-  private Map<String, List<Integer>> groupGradesBySubject(List<Student> students) {
-    Map<String, List<Integer>> gradesBySubject = new HashMap<>();
+  /**
+   * Рассчитывает средний балл по каждому предмету для столбцового хранилища: каждый
+   * предмет суммируется просмотром своего столбца, объекты студентов не создаются.
+   */
+  public Map<String, Double> calculateAverageGradesBySubject(ColumnarStudentStore store) {
+    SubjectAccumulator accumulator = new SubjectAccumulator();
+    for (int id = 0; id < store.getSubjectIdBound(); id++) {
+      long[] totals = store.sumGrades(id, kernels);
+      accumulator.addTotals(id, totals[0], totals[1]);
+    }
+    return accumulator.getAverages();
+  }
 
-    for (Student student : students) {
-      for (Map.Entry<String, Integer> entry : student.getGrades().entrySet()) {
-        String subject = entry.getKey();
-        Integer grade = entry.getValue();
+  /**
+   * Рассчитывает распределение оценок 1..5 по каждому предмету: медиану, квартили,
+   * стандартное отклонение и количество каждой оценки.
+   */
+  public Map<String, GradeDistribution> calculateGradeDistributions(List<Student> students) {
+    GradeHistogram histogram = new GradeHistogram();
+    students.forEach(histogram::add);
+    return histogram.getDistributions();
+  }
 
-        gradesBySubject.computeIfAbsent(subject, k -> new ArrayList<>()).add(grade);
+  /**
+   * Рассчитывает распределение оценок по каждому предмету столбцового хранилища просмотром
+   * столбцов предметов.
+   */
+  public Map<String, GradeDistribution> calculateGradeDistributions(ColumnarStudentStore store) {
+    Map<String, GradeDistribution> distributions = new HashMap<>();
+    SubjectDictionary dictionary = SubjectDictionary.getInstance();
+    for (int id = 0; id < store.getSubjectIdBound(); id++) {
+      long[] counts = new long[GradeDistribution.MAX_GRADE];
+      store.countGrades(id, kernels, counts);
+      GradeDistribution distribution = new GradeDistribution(counts);
+      if (distribution.getTotal() > 0) {
+        distributions.put(dictionary.nameOf(id), distribution);
       }
     }
-
-    return gradesBySubject;
+    return distributions;
   }
 
-  private double calculateAverage(List<Integer> grades) {
-    if (grades.isEmpty()) {
-      return 0.0;
-    }
+  /**
+   * Накапливает суммы и количества оценок студентов. Накопители частей набора можно
+   * объединить через {@link SubjectAccumulator#merge}.
+   */
+  public SubjectAccumulator accumulate(Collection<Student> students) {
+    SubjectAccumulator accumulator = new SubjectAccumulator();
+    students.forEach(accumulator::add);
+    return accumulator;
+  }
 
-    double sum = grades.stream().mapToInt(Integer::intValue).sum();
-    return sum / grades.size();
+  /**
+   * Обновляет накопленные суммы по предметам только по изменившимся студентам.
+   */
+  public void applyChanges(SubjectAccumulator subjectTotals, Collection<Student> removed,
+                           Collection<Student> added) {
+    removed.forEach(subjectTotals::remove);
+    added.forEach(subjectTotals::add);
   }
 }
@@ -0,0 +1,118 @@
+package org.example.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.example.model.AnalysisReport;
+import org.example.model.CohortSummary;
+import org.example.model.Student;
+
+/**
+ * Предварительно агрегированный куб оценок по измерениям школа × класс × предмет.
+ *
+ * <p>Школа и класс берутся из папки студента ({@link Student#getCohort()}): первый уровень -
+ * школа, остальной путь - класс. В каждой ячейке школа × класс по предметам накапливаются
+ * сумма, количество и распределение оценок, а также лучшие и худшие ученики. Итоги по школе
+ * и по всему набору ({@link #rollup(String)}, {@link #rollup()}) собираются объединением
+ * ячеек, без повторного просмотра студентов.
+ *
+ * <p>Заполняется за один проход при чтении дерева; экземпляр не потокобезопасен, кубы
+ * частей набора объединяются через {@link #merge}. При объединении ячеек лучшие и худшие
+ * ученики с равным баллом идут в порядке школ и классов.
+ */
+public class GradeCube {
+  private final Map<String, Map<String, AnalysisAccumulator>> cells = new TreeMap<>();
+
+  /**
+   * Учитывает студента в ячейке его школы и класса.
+   */
+  public void add(Student student) {
+    String cohort = student.getCohort();
+    int separator = cohort.indexOf('/');
+    String school = separator < 0 ? cohort : cohort.substring(0, separator);
+    String schoolClass = separator < 0 ? "" : cohort.substring(separator + 1);
+    cells.computeIfAbsent(school, key -> new TreeMap<>())
+        .computeIfAbsent(schoolClass, key -> new AnalysisAccumulator())
+        .add(student);
+  }
+
+  /**
+   * Добавляет ячейки другого куба.
+   */
+  public void merge(GradeCube other) {
+    other.cells.forEach((school, classes) -> classes.forEach((schoolClass, cell) ->
+        cells.computeIfAbsent(school, key -> new TreeMap<>())
+            .computeIfAbsent(schoolClass, key -> new AnalysisAccumulator())
+            .merge(cell)));
+  }
+
+  /**
+   * Школы по алфавиту; пустая строка - студенты в корне дерева.
+   */
+  public Set<String> getSchools() {
+    return cells.keySet();
+  }
+
+  /**
+   * Классы школы по алфавиту; пустая строка - студенты прямо в папке школы.
+   */
+  public Set<String> getClasses(String school) {
+    return cells.getOrDefault(school, Map.of()).keySet();
+  }
+
+  /**
+   * Итоги по всему набору: средние по предметам, лучшие и худшие ученики.
+   */
+  public AnalysisReport rollup() {
+    AnalysisAccumulator total = new AnalysisAccumulator();
+    cells.values().forEach(classes -> classes.values().forEach(total::merge));
+    return total.toReport();
+  }
+
+  /**
+   * Итоги по школе (школа × предмет); для неизвестной школы - пустой отчет.
+   */
+  public AnalysisReport rollup(String school) {
+    AnalysisAccumulator total = new AnalysisAccumulator();
+    cells.getOrDefault(school, Map.of()).values().forEach(total::merge);
+    return total.toReport();
+  }
+
+  /**
+   * Итоги по классу школы (школа × класс × предмет); для неизвестного класса - пустой отчет.
+   */
+  public AnalysisReport rollup(String school, String schoolClass) {
+    AnalysisAccumulator cell = cells.getOrDefault(school, Map.of()).get(schoolClass);
+    return cell == null ? new AnalysisAccumulator().toReport() : cell.toReport();
+  }
+
+  /**
+   * Итоги по каждой школе, за которыми следуют итоги по ее классам.
+   */
+  public List<CohortSummary> drillDown() {
+    List<CohortSummary> summaries = new ArrayList<>();
+    cells.forEach((school, classes) -> {
+      summaries.add(new CohortSummary(school, null, rollup(school)));
+      classes.forEach((schoolClass, cell) ->
+          summaries.add(new CohortSummary(school, schoolClass, cell.toReport())));
+    });
+    return summaries;
+  }
+
+  /**
+   * Отчет по всему набору с детализацией по школам и классам.
+   */
+  public AnalysisReport toReport() {
+    AnalysisReport total = rollup();
+    return new AnalysisReport.Builder()
+        .averageGrades(total.getAverageGrades())
+        .bestStudents(total.getBestStudents())
+        .worstStudents(total.getWorstStudents())
+        .studentCount(total.getStudentCount())
+        .gradeDistributions(total.getGradeDistributions())
+        .cohortSummaries(drillDown())
+        .build();
+  }
+}
@@ -0,0 +1,204 @@
+package org.example.service;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.model.AnalysisReport;
+import org.example.model.Student;
+
+/**
+ * Наблюдает за директорией с файлами оценок и поддерживает отчет в актуальном состоянии.
+ *
+ * <p>Состояние (студенты, суммы по предметам, группы по среднему баллу) обновляется по
+ * событиям {@link WatchService} только для изменившихся файлов. Отчет перезаписывается
+ * после паузы {@code debounce}, чтобы серия изменений приводила к одной записи.
+ */
+public class GradeDirectoryWatcher implements AutoCloseable {
+  private static final Logger logger = LogManager.getLogger(GradeDirectoryWatcher.class);
+
+  private final Path directory;
+  private final Duration debounce;
+  private final StudentFileReader fileReader;
+  private final ReportWriter reportWriter;
+  private final WatchService watchService;
+  private final ScheduledExecutorService scheduler;
+
+  private final Map<Path, Student> studentsByFile = new HashMap<>();
+  private final SubjectAccumulator subjectTotals = new SubjectAccumulator();
+  private final GradeHistogram histogram = new GradeHistogram();
+  // Группы студентов с равным средним баллом; ключом служит любой студент с этим баллом
+  private final TreeMap<Student, Set<Student>> studentsByAverage =
+      new TreeMap<>(Student::compareAverageTo);
+  private ScheduledFuture<?> pendingReport;
+
+  public GradeDirectoryWatcher(Path directory, Duration debounce, StudentFileReader fileReader,
+                               ReportWriter reportWriter) throws IOException {
+    if (!Files.isDirectory(directory)) {
+      throw new IOException("Указанный путь не является директорией: " + directory);
+    }
+    this.directory = directory;
+    this.debounce = debounce;
+    this.fileReader = fileReader;
+    this.reportWriter = reportWriter;
+    this.watchService = directory.getFileSystem().newWatchService();
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "report-writer");
+      thread.setDaemon(true);
+      return thread;
+    });
+    directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+  }
+
+  /**
+   * Загружает текущее содержимое директории, записывает отчет и обрабатывает события до
+   * вызова {@link #close()}.
+   */
+  public void run() throws IOException {
+    rescan();
+    writeReport();
+
+    try {
+      while (true) {
+        WatchKey key = watchService.take();
+        for (WatchEvent<?> event : key.pollEvents()) {
+          handleEvent(event);
+        }
+        if (!key.reset()) {
+          logger.error("Директория {} больше недоступна, наблюдение остановлено.", directory);
+          return;
+        }
+      }
+    } catch (ClosedWatchServiceException e) {
+      logger.info("Наблюдение за {} остановлено.", directory);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Текущий отчет по накопленному состоянию.
+   */
+  public synchronized AnalysisReport currentReport() {
+    List<Student> best = studentsByAverage.isEmpty()
+        ? new ArrayList<>() : new ArrayList<>(studentsByAverage.lastEntry().getValue());
+    List<Student> worst = studentsByAverage.isEmpty()
+        ? new ArrayList<>() : new ArrayList<>(studentsByAverage.firstEntry().getValue());
+    return new AnalysisReport.Builder()
+        .averageGrades(subjectTotals.getAverages())
+        .bestStudents(best)
+        .worstStudents(worst)
+        .studentCount(studentsByFile.size())
+        .gradeDistributions(histogram.getDistributions())
+        .build();
+  }
+
+  @Override
+  public void close() {
+    scheduler.shutdown();
+    try {
+      watchService.close();
+    } catch (IOException e) {
+      logger.warn("Не удалось закрыть WatchService: {}", e.getMessage());
+    }
+  }
+
+  private void handleEvent(WatchEvent<?> event) throws IOException {
+    if (event.kind() == OVERFLOW) {
+      logger.warn("Часть событий файловой системы потеряна, директория будет перечитана.");
+      rescan();
+      scheduleReport();
+      return;
+    }
+
+    Path file = directory.resolve((Path) event.context());
+    if (!file.getFileName().toString().endsWith(".txt")) {
+      return;
+    }
+
+    if (event.kind() == ENTRY_DELETE) {
+      replaceStudent(file, Optional.empty());
+    } else {
+      replaceStudent(file, fileReader.readStudentFile(file));
+    }
+    scheduleReport();
+  }
+
+  private synchronized void rescan() throws IOException {
+    new ArrayList<>(studentsByFile.keySet()).forEach(file -> replaceStudent(file,
+        Optional.empty()));
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+      for (Path file : files) {
+        Optional<Student> student = fileReader.readStudentFile(file);
+        if (student.isPresent()) {
+          replaceStudent(file, student);
+        }
+      }
+    }
+  }
+
+  private synchronized void replaceStudent(Path file, Optional<Student> student) {
+    Student previous = studentsByFile.remove(file);
+    if (previous != null) {
+      subjectTotals.remove(previous);
+      histogram.remove(previous);
+      Set<Student> group = studentsByAverage.get(previous);
+      group.remove(previous);
+      if (group.isEmpty()) {
+        studentsByAverage.remove(previous);
+      }
+    }
+
+    student.ifPresent(s -> {
+      studentsByFile.put(file, s);
+      subjectTotals.add(s);
+      histogram.add(s);
+      studentsByAverage.computeIfAbsent(s, k -> new LinkedHashSet<>()).add(s);
+    });
+  }
+
+  private synchronized void scheduleReport() {
+    if (pendingReport != null) {
+      pendingReport.cancel(false);
+    }
+    pendingReport = scheduler.schedule(this::writeReportSafely, debounce.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  private void writeReportSafely() {
+    try {
+      writeReport();
+    } catch (IOException e) {
+      logger.error("Не удалось обновить отчет: {}", e.getMessage());
+    }
+  }
+
+  private void writeReport() throws IOException {
+    Path reportPath = reportWriter.writeToFile(currentReport(), directory);
+    logger.info("Отчет обновлен: {}", reportPath);
+  }
+}
@@ -0,0 +1,298 @@
+package org.example.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.example.exception.InvalidStudentFileException;
+import org.example.model.ParseResult;
+import org.example.model.Student;
+import org.example.model.SubjectDictionary;
+import org.example.model.ValidationErrorKind;
+
+/**
+ * Парсер содержимого файла студента, работающий напрямую с байтами UTF-8.
+ *
+ * <p>Строки вида {@code Предмет - Оценка} разбираются без декодирования файла в строки:
+ * разделитель и оценка ищутся в байтах, а предметы переводятся в идентификаторы
+ * {@link SubjectDictionary} через общий кэш, поэтому повторяющиеся предметы не создают
+ * новых объектов {@link String}.
+ * Правила валидации совпадают с построчным разбором: не менее 5 строк, оценки от 1 до 5.
+ * Основной путь {@link #tryParse} не бросает исключений, поэтому большое число
+ * некорректных файлов не замедляет разбор.
+ */
+public class GradeFileParser {
+  static final int MIN_LINES = 5;
+
+  private final FileValidator fileValidator = new FileValidator();
+  private final SubjectNameCache subjectNames = new SubjectNameCache();
+
+  /**
+   * Разбирает содержимое файла студента целиком.
+   */
+  public Student parse(String fullName, byte[] content) throws InvalidStudentFileException {
+    return parse(fullName, "", content, content.length);
+  }
+
+  /**
+   * Разбирает содержимое файла студента из папки {@code cohort}.
+   */
+  public Student parse(String fullName, String cohort, byte[] content)
+      throws InvalidStudentFileException {
+    return parse(fullName, cohort, content, content.length);
+  }
+
+  /**
+   * Разбирает первые {@code length} байт буфера, что позволяет переиспользовать буфер чтения.
+   */
+  public Student parse(String fullName, String cohort, byte[] content, int length)
+      throws InvalidStudentFileException {
+    ParseResult result = tryParse(fullName, cohort, content, length);
+    if (!result.isSuccess()) {
+      throw new InvalidStudentFileException(result.getErrorKind().getDescription());
+    }
+    return result.getStudent();
+  }
+
+  /**
+   * Разбирает содержимое файла без исключений: ошибка возвращается как результат.
+   */
+  public ParseResult tryParse(String fullName, String cohort, byte[] content) {
+    return tryParse(fullName, cohort, content, content.length);
+  }
+
+  /**
+   * Разбирает первые {@code length} байт буфера без исключений. При ошибке результат содержит
+   * вид первой найденной ошибки и номер строки (с 1); нехватка строк важнее ошибок в строках
+   * и номера строки не имеет.
+   */
+  public ParseResult tryParse(String fullName, String cohort, byte[] content, int length) {
+    GradeBuffer grades = new GradeBuffer();
+    ValidationErrorKind firstError = null;
+    int errorLine = 0;
+    int lineCount = 0;
+    int lineStart = 0;
+    int pos = 0;
+
+    while (pos < length) {
+      byte b = content[pos];
+      if (b != '\n' && b != '\r') {
+        pos++;
+        continue;
+      }
+      if (firstError == null) {
+        firstError = parseLine(content, lineStart, pos, grades);
+        errorLine = lineCount + 1;
+      }
+      lineCount++;
+      pos++;
+      if (b == '\r' && pos < length && content[pos] == '\n') {
+        pos++;
+      }
+      lineStart = pos;
+    }
+    if (lineStart < length) {
+      if (firstError == null) {
+        firstError = parseLine(content, lineStart, length, grades);
+        errorLine = lineCount + 1;
+      }
+      lineCount++;
+    }
+
+    if (lineCount < MIN_LINES) {
+      return ParseResult.failure(ValidationErrorKind.TOO_FEW_LINES, 0);
+    }
+    if (firstError != null) {
+      return ParseResult.failure(firstError, errorLine);
+    }
+    return ParseResult.success(new Student(fullName, grades.grades, cohort));
+  }
+
+  /**
+   * Разбирает одну строку и возвращает вид ошибки либо {@code null}.
+   */
+  private ValidationErrorKind parseLine(byte[] content, int from, int to, GradeBuffer grades) {
+    int start = skipLeadingWhitespace(content, from, to);
+    int end = skipTrailingWhitespace(content, start, to);
+
+    int separator = lastSeparatorIndex(content, start, end);
+    if (separator < 0) {
+      return null;
+    }
+
+    int subjectEnd = skipTrailingWhitespace(content, start, separator);
+    int gradeStart = skipLeadingWhitespace(content, separator + 3, end);
+
+    int grade = parseGrade(content, gradeStart, end);
+    if (grade == Integer.MIN_VALUE) {
+      return ValidationErrorKind.INVALID_GRADE_FORMAT;
+    }
+    if (!fileValidator.isValidGrade(grade)) {
+      return ValidationErrorKind.GRADE_OUT_OF_RANGE;
+    }
+
+    grades.put(subjectNames.lookupId(content, start, subjectEnd), grade);
+    return null;
+  }
+
+  /**
+   * Оценки разбираемого файла по идентификаторам предметов; массив растет по мере
+   * появления новых предметов в словаре.
+   */
+  private static final class GradeBuffer {
+    private byte[] grades = new byte[SubjectDictionary.getInstance().size()];
+
+    void put(int subjectId, int grade) {
+      if (subjectId >= grades.length) {
+        grades = Arrays.copyOf(grades, Math.max(subjectId + 1, grades.length * 2));
+      }
+      grades[subjectId] = (byte) grade;
+    }
+  }
+
+  /**
+   * Повторяет {@link Integer#parseInt(String)} для ASCII-цифр. Возвращает
+   * {@link Integer#MIN_VALUE}, если текст не является целым числом.
+   */
+  static int parseGrade(byte[] content, int from, int to) {
+    if (to - from == 1) {
+      int digit = content[from] - '0';
+      return digit >= 0 && digit <= 9 ? digit : Integer.MIN_VALUE;
+    }
+
+    int pos = from;
+    boolean negative = false;
+    if (pos < to && (content[pos] == '-' || content[pos] == '+')) {
+      negative = content[pos] == '-';
+      pos++;
+    }
+    if (pos == to) {
+      return Integer.MIN_VALUE;
+    }
+
+    long value = 0;
+    boolean overflow = false;
+    for (; pos < to; pos++) {
+      int digit = content[pos] - '0';
+      if (digit < 0 || digit > 9) {
+        return Integer.MIN_VALUE;
+      }
+      if (!overflow) {
+        value = value * 10 + digit;
+        overflow = value > -(long) Integer.MIN_VALUE;
+      }
+    }
+    if (overflow || (!negative && value > Integer.MAX_VALUE)) {
+      return Integer.MIN_VALUE;
+    }
+    // Отрицательные числа и ноль одинаково вне диапазона оценок
+    return negative ? 0 : (int) value;
+  }
+
+  private static int lastSeparatorIndex(byte[] content, int from, int to) {
+    for (int i = to - 3; i >= from; i--) {
+      if (content[i] == ' ' && content[i + 1] == '-' && content[i + 2] == ' ') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Пропускает пробельные символы так же, как {@link String#trim()}: байты UTF-8 многобайтовых
+   * символов всегда больше {@code 0x7F}, поэтому сравнение без знака корректно.
+   */
+  static int skipLeadingWhitespace(byte[] content, int from, int to) {
+    while (from < to && (content[from] & 0xFF) <= ' ') {
+      from++;
+    }
+    return from;
+  }
+
+  static int skipTrailingWhitespace(byte[] content, int from, int to) {
+    while (to > from && (content[to - 1] & 0xFF) <= ' ') {
+      to--;
+    }
+    return to;
+  }
+
+  /**
+   * Кэш названий предметов и их идентификаторов в {@link SubjectDictionary} по байтовому
+   * представлению названия. Чтение идет без блокировок по неизменяемому снимку таблицы,
+   * добавление копирует таблицу под монитором.
+   */
+  static final class SubjectNameCache {
+    private static final int MAX_ENTRIES = 4096;
+
+    private volatile Entry[] table = new Entry[64];
+    private int size;
+
+    String lookup(byte[] content, int from, int to) {
+      return entry(content, from, to).name();
+    }
+
+    int lookupId(byte[] content, int from, int to) {
+      return entry(content, from, to).id();
+    }
+
+    private Entry entry(byte[] content, int from, int to) {
+      int hash = hash(content, from, to);
+      Entry cached = find(table, content, from, to, hash);
+      return cached != null ? cached : insert(content, from, to, hash);
+    }
+
+    private synchronized Entry insert(byte[] content, int from, int to, int hash) {
+      Entry[] current = table;
+      Entry cached = find(current, content, from, to, hash);
+      if (cached != null) {
+        return cached;
+      }
+
+      SubjectDictionary dictionary = SubjectDictionary.getInstance();
+      int id = dictionary.idOf(new String(content, from, to - from, StandardCharsets.UTF_8));
+      Entry entry = new Entry(Arrays.copyOfRange(content, from, to), hash,
+          dictionary.nameOf(id), id, null);
+      if (size >= MAX_ENTRIES) {
+        return entry;
+      }
+
+      Entry[] updated = size + 1 > current.length / 2
+          ? rehash(current, current.length * 2)
+          : current.clone();
+      int index = hash & (updated.length - 1);
+      updated[index] = new Entry(entry.bytes, hash, entry.name, id, updated[index]);
+      size++;
+      table = updated;
+      return entry;
+    }
+
+    private static Entry find(Entry[] entries, byte[] content, int from, int to, int hash) {
+      for (Entry e = entries[hash & (entries.length - 1)]; e != null; e = e.next) {
+        if (e.hash == hash && Arrays.equals(e.bytes, 0, e.bytes.length, content, from, to)) {
+          return e;
+        }
+      }
+      return null;
+    }
+
+    private static Entry[] rehash(Entry[] entries, int capacity) {
+      Entry[] resized = new Entry[capacity];
+      for (Entry head : entries) {
+        for (Entry e = head; e != null; e = e.next) {
+          int index = e.hash & (capacity - 1);
+          resized[index] = new Entry(e.bytes, e.hash, e.name, e.id, resized[index]);
+        }
+      }
+      return resized;
+    }
+
+    private static int hash(byte[] content, int from, int to) {
+      int h = 1;
+      for (int i = from; i < to; i++) {
+        h = 31 * h + content[i];
+      }
+      return h ^ (h >>> 16);
+    }
+
+    private record Entry(byte[] bytes, int hash, String name, int id, Entry next) {
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package org.example.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.example.model.GradeDistribution;
+import org.example.model.Student;
+import org.example.model.SubjectDictionary;
+
+/**
+ * Накопитель количества оценок 1..5 по каждому предмету: пять счетчиков на предмет,
+ * независимо от числа студентов. Накопители разных потоков объединяются через
+ * {@link #merge}. Оценки вне диапазона {@link FileValidator#isValidGrade} не учитываются.
+ * Экземпляр не потокобезопасен.
+ */
+public class GradeHistogram {
+  private static final int BUCKETS =
+      GradeDistribution.MAX_GRADE - GradeDistribution.MIN_GRADE + 1;
+
+  // Счетчики предмета с идентификатором id занимают ячейки [id * BUCKETS, (id + 1) * BUCKETS)
+  private long[] counts = new long[0];
+
+  /**
+   * Учитывает все оценки студента.
+   */
+  public void add(Student student) {
+    update(student, 1);
+  }
+
+  /**
+   * Исключает оценки студента, ранее учтенные через {@link #add(Student)}. Если какой-то из
+   * его оценок в накопителе нет, например студент исключается повторно, бросает
+   * {@link IllegalStateException} и счетчики не меняет.
+   */
+  public void remove(Student student) {
+    for (int id = 0; id < student.getSubjectIdBound(); id++) {
+      int index = indexOf(id, student.getGrade(id));
+      if (index >= 0 && (index >= counts.length || counts[index] == 0)) {
+        throw new IllegalStateException("Оценка " + student.getGrade(id) + " студента "
+            + student.getFullName() + " не учтена в распределении.");
+      }
+    }
+    update(student, -1);
+  }
+
+  /**
+   * Учитывает одну оценку по предмету с идентификатором {@code subjectId}.
+   */
+  public void addGrade(int subjectId, int grade) {
+    if (grade < GradeDistribution.MIN_GRADE || grade > GradeDistribution.MAX_GRADE) {
+      return;
+    }
+    ensureCapacity(subjectId + 1);
+    counts[indexOf(subjectId, grade)]++;
+  }
+
+  /**
+   * Добавляет счетчики другого накопителя.
+   */
+  public void merge(GradeHistogram other) {
+    ensureCapacity(other.counts.length / BUCKETS);
+    for (int i = 0; i < other.counts.length; i++) {
+      counts[i] += other.counts[i];
+    }
+  }
+
+  /**
+   * Возвращает распределение оценок по каждому предмету, по которому есть оценки.
+   */
+  public Map<String, GradeDistribution> getDistributions() {
+    SubjectDictionary dictionary = SubjectDictionary.getInstance();
+    Map<String, GradeDistribution> distributions = new HashMap<>();
+    for (int id = 0; id < counts.length / BUCKETS; id++) {
+      long[] subjectCounts = Arrays.copyOfRange(counts, id * BUCKETS, (id + 1) * BUCKETS);
+      if (Arrays.stream(subjectCounts).anyMatch(count -> count > 0)) {
+        distributions.put(dictionary.nameOf(id), new GradeDistribution(subjectCounts));
+      }
+    }
+    return distributions;
+  }
+
+  private void update(Student student, int delta) {
+    int bound = student.getSubjectIdBound();
+    ensureCapacity(bound);
+    for (int id = 0; id < bound; id++) {
+      int index = indexOf(id, student.getGrade(id));
+      if (index >= 0) {
+        counts[index] += delta;
+      }
+    }
+  }
+
+  /**
+   * Ячейка счетчика оценки {@code grade} по предмету {@code id} или -1 для оценки вне
+   * диапазона.
+   */
+  private static int indexOf(int id, int grade) {
+    if (grade < GradeDistribution.MIN_GRADE || grade > GradeDistribution.MAX_GRADE) {
+      return -1;
+    }
+    return id * BUCKETS + grade - GradeDistribution.MIN_GRADE;
+  }
+
+  private void ensureCapacity(int subjectBound) {
+    if (subjectBound * BUCKETS > counts.length) {
+      counts = Arrays.copyOf(counts, subjectBound * BUCKETS);
+    }
+  }
+}
@@ -0,0 +1,201 @@
+package org.example.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.model.Student;
+
+/**
+ * Манифест ранее разобранных файлов, сохраняемый рядом с отчетом.
+ *
+ * <p>Для каждого файла хранит размер, время изменения, контрольную сумму содержимого и
+ * разобранного студента, а также накопленные суммы оценок по предметам. При повторном
+ * запуске перечитываются только новые и изменившиеся файлы.
+ */
+public class GradeManifest {
+  public static final String FILE_NAME = "отчет.manifest";
+
+  private static final Logger logger = LogManager.getLogger(GradeManifest.class);
+  private static final int MAGIC = 0x4752444D;
+  private static final int VERSION = 3;
+
+  private final Map<String, Entry> entries = new LinkedHashMap<>();
+  private final SubjectAccumulator subjectTotals = new SubjectAccumulator();
+
+  /**
+   * Загружает манифест. Отсутствующий или поврежденный манифест заменяется пустым,
+   * что приводит к полному перечитыванию директории.
+   */
+  public static GradeManifest load(Path manifestPath) throws IOException {
+    GradeManifest manifest = new GradeManifest();
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(manifestPath)))) {
+      manifest.readFrom(in);
+    } catch (NoSuchFileException e) {
+      return manifest;
+    } catch (IOException | RuntimeException e) {
+      logger.warn("Манифест {} поврежден и будет пересоздан: {}", manifestPath, e.getMessage());
+      return new GradeManifest();
+    }
+    return manifest;
+  }
+
+  /**
+   * Сохраняет манифест через временный файл, чтобы прерванная запись не портила предыдущий.
+   * Если файловая система не умеет заменять файл атомарно, он заменяется обычным
+   * перемещением.
+   */
+  public void save(Path manifestPath) throws IOException {
+    Path tempPath = manifestPath.resolveSibling(manifestPath.getFileName() + ".tmp");
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+      writeTo(out);
+    }
+    try {
+      Files.move(tempPath, manifestPath, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      logger.debug("Атомарная замена манифеста не поддерживается: {}", e.getMessage());
+      Files.move(tempPath, manifestPath, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * Контрольная сумма содержимого файла.
+   */
+  public static long contentHash(byte[] content) {
+    CRC32C crc = new CRC32C();
+    crc.update(content, 0, content.length);
+    return crc.getValue();
+  }
+
+  public SubjectAccumulator getSubjectTotals() {
+    return subjectTotals;
+  }
+
+  Entry get(String path) {
+    return entries.get(path);
+  }
+
+  void put(String path, Entry entry) {
+    entries.put(path, entry);
+  }
+
+  Entry remove(String path) {
+    return entries.remove(path);
+  }
+
+  List<String> paths() {
+    return new ArrayList<>(entries.keySet());
+  }
+
+  private void readFrom(DataInputStream in) throws IOException {
+    if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+      throw new IOException("Неизвестный формат манифеста.");
+    }
+
+    int entryCount = in.readInt();
+    for (int i = 0; i < entryCount; i++) {
+      String path = in.readUTF();
+      long size = in.readLong();
+      long modifiedNanos = in.readLong();
+      long contentHash = in.readLong();
+      String fullName = in.readUTF();
+      String cohort = in.readUTF();
+      int gradeCount = in.readInt();
+      Map<String, Integer> grades = new HashMap<>();
+      for (int j = 0; j < gradeCount; j++) {
+        grades.put(in.readUTF(), (int) in.readByte());
+      }
+      entries.put(path, new Entry(size, modifiedNanos, contentHash,
+          new Student(fullName, grades, cohort)));
+    }
+
+    int subjectCount = in.readInt();
+    for (int i = 0; i < subjectCount; i++) {
+      subjectTotals.restore(in.readUTF(), in.readLong(), in.readLong());
+    }
+  }
+
+  private void writeTo(DataOutputStream out) throws IOException {
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+
+    out.writeInt(entries.size());
+    for (Map.Entry<String, Entry> item : entries.entrySet()) {
+      Entry entry = item.getValue();
+      Student student = entry.getStudent();
+      out.writeUTF(item.getKey());
+      out.writeLong(entry.getSize());
+      out.writeLong(entry.getModifiedNanos());
+      out.writeLong(entry.getContentHash());
+      out.writeUTF(student.getFullName());
+      out.writeUTF(student.getCohort());
+      out.writeInt(student.getGrades().size());
+      for (Map.Entry<String, Integer> grade : student.getGrades().entrySet()) {
+        out.writeUTF(grade.getKey());
+        out.writeByte(grade.getValue());
+      }
+    }
+
+    Map<String, long[]> totals = subjectTotals.snapshot();
+    out.writeInt(totals.size());
+    for (Map.Entry<String, long[]> item : totals.entrySet()) {
+      out.writeUTF(item.getKey());
+      out.writeLong(item.getValue()[0]);
+      out.writeLong(item.getValue()[1]);
+    }
+  }
+
+  /**
+   * Запись манифеста об одном файле.
+   */
+  static final class Entry {
+    private final long size;
+    private final long modifiedNanos;
+    private final long contentHash;
+    private final Student student;
+
+    Entry(long size, long modifiedNanos, long contentHash, Student student) {
+      this.size = size;
+      this.modifiedNanos = modifiedNanos;
+      this.contentHash = contentHash;
+      this.student = student;
+    }
+
+    boolean isUnchanged(long size, long modifiedNanos) {
+      return this.size == size && this.modifiedNanos == modifiedNanos;
+    }
+
+    long getSize() {
+      return size;
+    }
+
+    long getModifiedNanos() {
+      return modifiedNanos;
+    }
+
+    long getContentHash() {
+      return contentHash;
+    }
+
+    Student getStudent() {
+      return student;
+    }
+  }
+}
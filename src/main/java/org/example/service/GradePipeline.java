@@ -0,0 +1,239 @@
+package org.example.service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.model.AnalysisReport;
+import org.example.model.ParseResult;
+import org.example.model.Student;
+import org.example.model.ValidationErrorKind;
+
+/**
+ * Потоковый конвейер анализа: перечисление файлов, чтение байт, разбор и агрегация.
+ *
+ * <p>Стадии связаны очередями ограниченной емкости, поэтому медленный диск или медленный
+ * разбор притормаживают предыдущие стадии, а в памяти одновременно находится не больше
+ * {@code queueCapacity} элементов на очередь. Средние по предметам и лучшие/худшие
+ * студенты накапливаются по мере поступления, полный список студентов не строится.
+ * Каждая стадия, кроме перечисления, выполняется заданным числом виртуальных потоков.
+ */
+public class GradePipeline {
+  private static final Logger logger = LogManager.getLogger(GradePipeline.class);
+  private static final Path END_OF_PATHS = Paths.get("");
+  private static final RawFile END_OF_FILES = new RawFile(null, null, null);
+  private static final Student END_OF_STUDENTS = new Student("", Map.of());
+
+  private final int readerThreads;
+  private final int parserThreads;
+  private final int aggregatorThreads;
+  private final int queueCapacity;
+  private final FileValidator fileValidator = new FileValidator();
+  private final GradeFileParser gradeFileParser = new GradeFileParser();
+
+  public GradePipeline(int readerThreads, int parserThreads, int aggregatorThreads,
+                       int queueCapacity) {
+    if (readerThreads < 1 || parserThreads < 1 || aggregatorThreads < 1 || queueCapacity < 1) {
+      throw new IllegalArgumentException(
+          "Число потоков стадий и емкость очередей должны быть положительными.");
+    }
+    this.readerThreads = readerThreads;
+    this.parserThreads = parserThreads;
+    this.aggregatorThreads = aggregatorThreads;
+    this.queueCapacity = queueCapacity;
+  }
+
+  /**
+   * Прогоняет файлы директории через конвейер и возвращает итоговый отчет.
+   */
+  public AnalysisReport run(String directoryPath) throws IOException {
+    return run(directoryPath, new ValidationReport());
+  }
+
+  /**
+   * Прогоняет файлы директории через конвейер, учитывая ошибки пропущенных файлов в
+   * {@code validationReport}.
+   */
+  public AnalysisReport run(String directoryPath, ValidationReport validationReport)
+      throws IOException {
+    Path directory = Paths.get(directoryPath);
+    if (!Files.isDirectory(directory)) {
+      String errorMessage = "Указанный путь не является директорией: " + directoryPath;
+      logger.error(errorMessage);
+      throw new IOException(errorMessage);
+    }
+
+    BlockingQueue<Path> paths = new ArrayBlockingQueue<>(queueCapacity);
+    BlockingQueue<RawFile> files = new ArrayBlockingQueue<>(queueCapacity);
+    BlockingQueue<Student> students = new ArrayBlockingQueue<>(queueCapacity);
+    AtomicInteger activeReaders = new AtomicInteger(readerThreads);
+    AtomicInteger activeParsers = new AtomicInteger(parserThreads);
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    List<Aggregator> aggregators = new ArrayList<>();
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      executor.submit(stage(executor, failure, () -> {
+        listFiles(directory, paths);
+        putAll(paths, END_OF_PATHS, readerThreads);
+      }));
+      for (int i = 0; i < readerThreads; i++) {
+        executor.submit(stage(executor, failure, () -> {
+          readFiles(paths, files, validationReport);
+          if (activeReaders.decrementAndGet() == 0) {
+            putAll(files, END_OF_FILES, parserThreads);
+          }
+        }));
+      }
+      for (int i = 0; i < parserThreads; i++) {
+        executor.submit(stage(executor, failure, () -> {
+          parseFiles(files, students, validationReport);
+          if (activeParsers.decrementAndGet() == 0) {
+            putAll(students, END_OF_STUDENTS, aggregatorThreads);
+          }
+        }));
+      }
+      for (int i = 0; i < aggregatorThreads; i++) {
+        Aggregator aggregator = new Aggregator();
+        aggregators.add(aggregator);
+        executor.submit(stage(executor, failure, () -> aggregator.consume(students)));
+      }
+    } catch (RejectedExecutionException e) {
+      // Стадия упала раньше, чем были запущены остальные; ошибка уже сохранена в failure
+      logger.debug("Конвейер остановлен до запуска всех стадий.");
+    }
+
+    Throwable error = failure.get();
+    if (error instanceof IOException ioException) {
+      throw ioException;
+    }
+    if (error != null) {
+      throw new IOException("Сбой конвейера анализа.", error);
+    }
+    if (Thread.currentThread().isInterrupted()) {
+      throw new InterruptedIOException("Анализ прерван.");
+    }
+
+    Aggregator total = new Aggregator();
+    aggregators.forEach(total::merge);
+    return total.toReport();
+  }
+
+  private void listFiles(Path directory, BlockingQueue<Path> paths)
+      throws IOException, InterruptedException {
+    try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+      for (Path file : entries) {
+        if (StudentFileReader.hasStudentFileName(file) && Files.isRegularFile(file)) {
+          paths.put(file);
+        }
+      }
+    }
+  }
+
+  private void readFiles(BlockingQueue<Path> paths, BlockingQueue<RawFile> files,
+                         ValidationReport validationReport) throws InterruptedException {
+    for (Path file = paths.take(); file != END_OF_PATHS; file = paths.take()) {
+      String fullName = file.getFileName().toString().replace(".txt", "");
+      if (!fileValidator.isValidFullName(fullName)) {
+        logger.warn("Некорректное имя файла (ФИО): {}. Файл пропущен.", file.getFileName());
+        validationReport.record(ParseResult.failure(ValidationErrorKind.INVALID_FILE_NAME, 0)
+            .inFile(file.toString()));
+        continue;
+      }
+      try {
+        files.put(new RawFile(file, fullName, readBytes(file)));
+      } catch (IOException e) {
+        logger.error("Ошибка обработки файла {}: {}", file.getFileName(), e.getMessage());
+        validationReport.record(ParseResult.failure(ValidationErrorKind.READ_ERROR, 0)
+            .inFile(file.toString()));
+      }
+    }
+  }
+
+  /**
+   * Читает содержимое файла. Вынесено отдельно, чтобы тесты могли подменить чтение.
+   */
+  byte[] readBytes(Path file) throws IOException {
+    return Files.readAllBytes(file);
+  }
+
+  private void parseFiles(BlockingQueue<RawFile> files, BlockingQueue<Student> students,
+                          ValidationReport validationReport) throws InterruptedException {
+    for (RawFile file = files.take(); file != END_OF_FILES; file = files.take()) {
+      ParseResult result = gradeFileParser.tryParse(file.fullName(), "", file.content());
+      if (result.isSuccess()) {
+        students.put(result.getStudent());
+        logger.info("Успешно обработан файл: {}", file.path().getFileName());
+      } else {
+        logger.error("Ошибка обработки файла {}: {}", file.path().getFileName(),
+            result.getMessage());
+        validationReport.record(result.inFile(file.path().toString()));
+      }
+    }
+  }
+
+  private static <T> void putAll(BlockingQueue<T> queue, T marker, int count)
+      throws InterruptedException {
+    for (int i = 0; i < count; i++) {
+      queue.put(marker);
+    }
+  }
+
+  /**
+   * Оборачивает стадию так, что первая ошибка любой стадии останавливает весь конвейер.
+   */
+  private static Runnable stage(ExecutorService executor, AtomicReference<Throwable> failure,
+                                StageBody body) {
+    return () -> {
+      try {
+        body.run();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (Throwable e) {
+        if (failure.compareAndSet(null, e)) {
+          executor.shutdownNow();
+        }
+      }
+    };
+  }
+
+  @FunctionalInterface
+  private interface StageBody {
+    void run() throws Exception;
+  }
+
+  private record RawFile(Path path, String fullName, byte[] content) {
+  }
+
+  private static final class Aggregator {
+    private final AnalysisAccumulator totals = new AnalysisAccumulator();
+
+    void consume(BlockingQueue<Student> students) throws InterruptedException {
+      for (Student student = students.take(); student != END_OF_STUDENTS;
+           student = students.take()) {
+        totals.add(student);
+      }
+    }
+
+    void merge(Aggregator other) {
+      totals.merge(other.totals);
+    }
+
+    AnalysisReport toReport() {
+      return totals.toReport();
+    }
+  }
+}
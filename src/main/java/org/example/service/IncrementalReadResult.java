@@ -0,0 +1,73 @@
+package org.example.service;
+
+import java.util.List;
+import java.util.Map;
+import org.example.model.Student;
+
+/**
+ * Результат инкрементального чтения директории по манифесту.
+ */
+public class IncrementalReadResult {
+  private final List<Student> students;
+  private final List<Student> added;
+  private final List<Student> removed;
+  private final SubjectAccumulator subjectTotals;
+  private final ValidationReport validationReport;
+
+  public IncrementalReadResult(List<Student> students, List<Student> added,
+                               List<Student> removed, SubjectAccumulator subjectTotals) {
+    this(students, added, removed, subjectTotals, new ValidationReport());
+  }
+
+  public IncrementalReadResult(List<Student> students, List<Student> added,
+                               List<Student> removed, SubjectAccumulator subjectTotals,
+                               ValidationReport validationReport) {
+    this.students = students;
+    this.added = added;
+    this.removed = removed;
+    this.subjectTotals = subjectTotals;
+    this.validationReport = validationReport;
+  }
+
+  /**
+   * Все студенты директории: перечитанные и взятые из манифеста.
+   */
+  public List<Student> getStudents() {
+    return students;
+  }
+
+  /**
+   * Студенты из новых и изменившихся файлов.
+   */
+  public List<Student> getAdded() {
+    return added;
+  }
+
+  /**
+   * Прежние версии студентов из изменившихся, удаленных и ставших некорректными файлов.
+   */
+  public List<Student> getRemoved() {
+    return removed;
+  }
+
+  /**
+   * Суммы оценок по предметам с учетом всех изменений.
+   */
+  public SubjectAccumulator getSubjectTotals() {
+    return subjectTotals;
+  }
+
+  /**
+   * Ошибки файлов, не вошедших в анализ при этом чтении.
+   */
+  public ValidationReport getValidationReport() {
+    return validationReport;
+  }
+
+  /**
+   * Средний балл по предметам для всей директории.
+   */
+  public Map<String, Double> getAverageGrades() {
+    return subjectTotals.getAverages();
+  }
+}
@@ -0,0 +1,84 @@
+package org.example.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import org.example.model.Leaderboard;
+import org.example.model.Student;
+
+/**
+ * Накопитель рейтинга из {@code limit} лучших и {@code limit} худших учеников.
+ *
+ * <p>Каждый список - куча ограниченного размера, в вершине которой худший из отобранных
+ * кандидатов, поэтому отбор из n учеников занимает O(n log limit) без сортировки всего
+ * набора, а память - O(limit). Порядок полный: средний балл (точно, через
+ * {@link Student#compareAverageTo}), затем ФИО, затем папка. Накопители частей набора
+ * объединяются через {@link #merge}; экземпляр не потокобезопасен.
+ */
+public class LeaderboardAccumulator {
+  /**
+   * Порядок от лучшего ученика к худшему.
+   */
+  static final Comparator<Student> BEST_FIRST = ((Comparator<Student>) (left, right) ->
+      right.compareAverageTo(left))
+      .thenComparing(Student::getFullName)
+      .thenComparing(Student::getCohort);
+  /**
+   * Порядок от худшего ученика к лучшему; равные баллы - так же по ФИО и папке.
+   */
+  static final Comparator<Student> WORST_FIRST = ((Comparator<Student>) Student::compareAverageTo)
+      .thenComparing(Student::getFullName)
+      .thenComparing(Student::getCohort);
+
+  private final int limit;
+  private final PriorityQueue<Student> top;
+  private final PriorityQueue<Student> bottom;
+
+  public LeaderboardAccumulator(int limit) {
+    if (limit < 1) {
+      throw new IllegalArgumentException("Размер рейтинга должен быть положительным: " + limit);
+    }
+    this.limit = limit;
+    this.top = new PriorityQueue<>(limit, BEST_FIRST.reversed());
+    this.bottom = new PriorityQueue<>(limit, WORST_FIRST.reversed());
+  }
+
+  /**
+   * Учитывает очередного ученика.
+   */
+  public void add(Student student) {
+    offer(top, student, BEST_FIRST);
+    offer(bottom, student, WORST_FIRST);
+  }
+
+  /**
+   * Добавляет кандидатов другого накопителя того же размера.
+   */
+  public void merge(LeaderboardAccumulator other) {
+    other.top.forEach(student -> offer(top, student, BEST_FIRST));
+    other.bottom.forEach(student -> offer(bottom, student, WORST_FIRST));
+  }
+
+  /**
+   * Рейтинг по накопленным ученикам; {@code cohort} - подпись рейтинга.
+   */
+  public Leaderboard toLeaderboard(String cohort) {
+    return new Leaderboard(cohort, limit, sorted(top, BEST_FIRST), sorted(bottom, WORST_FIRST));
+  }
+
+  private void offer(PriorityQueue<Student> heap, Student student, Comparator<Student> order) {
+    if (heap.size() < limit) {
+      heap.add(student);
+    } else if (order.compare(student, heap.peek()) < 0) {
+      heap.poll();
+      heap.add(student);
+    }
+  }
+
+  private static List<Student> sorted(PriorityQueue<Student> heap, Comparator<Student> order) {
+    List<Student> students = new ArrayList<>(heap);
+    students.sort(order);
+    return students;
+  }
+}
@@ -0,0 +1,115 @@
+package org.example.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import org.example.model.AnalysisReport;
+import org.example.model.Student;
+import org.example.model.SubjectLeaderboard;
+
+/**
+ * Параллельный анализ списка студентов на {@link ForkJoinPool}.
+ *
+ * <p>Список делится пополам до частей не больше {@link #CHUNK_SIZE} студентов; для каждой
+ * части за один проход заполняется {@link AnalysisAccumulator}: суммы по предметам,
+ * распределения оценок и кандидаты в лучшие и худшие.
+ * Результаты объединяются слева направо, поэтому средние, состав и порядок лучших и худших
+ * студентов совпадают с последовательными {@link GradeCalculator} и {@link StudentRanking}.
+ * Так же по частям строятся рейтинги по предметам ({@link SubjectLeaderboardAccumulator}):
+ * каждая часть обновляет все предметы за один проход, а предметы разных частей
+ * обрабатываются одновременно.
+ */
+public class ParallelGradeAnalyzer implements AutoCloseable {
+  static final int CHUNK_SIZE = 4096;
+
+  private final ForkJoinPool pool;
+
+  public ParallelGradeAnalyzer(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException(
+          "Уровень параллелизма должен быть положительным: " + parallelism);
+    }
+    this.pool = new ForkJoinPool(parallelism);
+  }
+
+  /**
+   * Рассчитывает средние по предметам, лучших и худших студентов за один параллельный проход.
+   */
+  public AnalysisReport analyze(List<Student> students) {
+    return pool.invoke(new ChunkTask<>(students, 0, students.size(), AnalysisAccumulator::new,
+        AnalysisAccumulator::add, AnalysisAccumulator::merge)).toReport();
+  }
+
+  /**
+   * Строит для каждого предмета списки из {@code limit} лучших и худших учеников за один
+   * параллельный проход; предметы по алфавиту.
+   */
+  public Map<String, SubjectLeaderboard> buildSubjectLeaderboards(List<Student> students,
+                                                                  int limit) {
+    SubjectLeaderboardAccumulator result = pool.invoke(new ChunkTask<>(students, 0,
+        students.size(), () -> new SubjectLeaderboardAccumulator(limit),
+        SubjectLeaderboardAccumulator::add, SubjectLeaderboardAccumulator::merge));
+    return result.getLeaderboards();
+  }
+
+  public Map<String, Double> calculateAverageGradesBySubject(List<Student> students) {
+    return analyze(students).getAverageGrades();
+  }
+
+  public List<Student> findBestStudents(List<Student> students) {
+    return analyze(students).getBestStudents();
+  }
+
+  public List<Student> findWorstStudents(List<Student> students) {
+    return analyze(students).getWorstStudents();
+  }
+
+  @Override
+  public void close() {
+    pool.shutdown();
+  }
+
+  /**
+   * Заполняет накопитель по части списка; накопители половин объединяются слева направо.
+   */
+  private static final class ChunkTask<A> extends RecursiveTask<A> {
+    private final List<Student> students;
+    private final int from;
+    private final int to;
+    private final Supplier<A> factory;
+    private final BiConsumer<A, Student> adder;
+    private final BiConsumer<A, A> merger;
+
+    ChunkTask(List<Student> students, int from, int to, Supplier<A> factory,
+              BiConsumer<A, Student> adder, BiConsumer<A, A> merger) {
+      this.students = students;
+      this.from = from;
+      this.to = to;
+      this.factory = factory;
+      this.adder = adder;
+      this.merger = merger;
+    }
+
+    @Override
+    protected A compute() {
+      if (to - from <= CHUNK_SIZE) {
+        A partial = factory.get();
+        for (int i = from; i < to; i++) {
+          adder.accept(partial, students.get(i));
+        }
+        return partial;
+      }
+
+      int middle = (from + to) >>> 1;
+      ChunkTask<A> left = new ChunkTask<>(students, from, middle, factory, adder, merger);
+      ChunkTask<A> right = new ChunkTask<>(students, middle, to, factory, adder, merger);
+      right.fork();
+      A leftResult = left.compute();
+      merger.accept(leftResult, right.join());
+      return leftResult;
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package org.example.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.example.model.Student;
+
+/**
+ * Накопитель лучших и худших студентов для потоковой обработки.
+ *
+ * <p>Хранит только текущие максимальный и минимальный средние баллы и студентов с ними,
+ * поэтому не требует полного списка. Результат совпадает с {@link StudentRanking}:
+ * баллы сравниваются точно, студенты с равным баллом сохраняются в порядке поступления.
+ */
+public class RankingAccumulator {
+  private final List<Student> best = new ArrayList<>();
+  private final List<Student> worst = new ArrayList<>();
+
+  /**
+   * Учитывает очередного студента.
+   */
+  public void add(Student student) {
+    int toBest = best.isEmpty() ? 1 : student.compareAverageTo(best.get(0));
+    if (toBest > 0) {
+      best.clear();
+    }
+    if (toBest >= 0) {
+      best.add(student);
+    }
+
+    int toWorst = worst.isEmpty() ? -1 : student.compareAverageTo(worst.get(0));
+    if (toWorst < 0) {
+      worst.clear();
+    }
+    if (toWorst <= 0) {
+      worst.add(student);
+    }
+  }
+
+  /**
+   * Добавляет результаты другого накопителя, считая его студентов идущими после текущих.
+   */
+  public void merge(RankingAccumulator other) {
+    if (!other.best.isEmpty()) {
+      int toBest = best.isEmpty() ? 1 : other.best.get(0).compareAverageTo(best.get(0));
+      if (toBest > 0) {
+        best.clear();
+      }
+      if (toBest >= 0) {
+        best.addAll(other.best);
+      }
+    }
+
+    if (!other.worst.isEmpty()) {
+      int toWorst = worst.isEmpty() ? -1 : other.worst.get(0).compareAverageTo(worst.get(0));
+      if (toWorst < 0) {
+        worst.clear();
+      }
+      if (toWorst <= 0) {
+        worst.addAll(other.worst);
+      }
+    }
+  }
+
+  public List<Student> getBestStudents() {
+    return new ArrayList<>(best);
+  }
+
+  public List<Student> getWorstStudents() {
+    return new ArrayList<>(worst);
+  }
+}
@@ -0,0 +1,214 @@
+package org.example.service;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.example.model.AnalysisReport;
+import org.example.model.CohortSummary;
+import org.example.model.GradeDistribution;
+import org.example.model.Leaderboard;
+import org.example.model.ParseResult;
+import org.example.model.Student;
+import org.example.model.SubjectLeaderboard;
+import org.example.model.ValidationErrorKind;
+
+/**
+ * Формирует отчет об успеваемости для консоли и для файла.
+ */
+public class ReportWriter {
+  public static final String REPORT_FILE_NAME = "отчет.тхт";
+  public static final String VALIDATION_REPORT_FILE_NAME = "ошибки.тхт";
+
+  /**
+   * Печатает отчет в консоль в кодировке консоли, чтобы кириллица не искажалась.
+   */
+  public void printToConsole(AnalysisReport report) {
+    PrintWriter out = new PrintWriter(new OutputStreamWriter(System.out, System.out.charset()));
+    out.println("\n--- Отчет об успеваемости ---");
+    out.println("\nСредний балл по предметам:");
+    writeBody(report, out);
+    out.println("--- Конец отчета ---\n");
+    out.flush();
+  }
+
+  /**
+   * Записывает отчет в файл {@value #REPORT_FILE_NAME} в указанной директории.
+   * Файл сначала пишется во временный и затем подменяется, чтобы читатели не видели
+   * недописанный отчет.
+   */
+  public Path writeToFile(AnalysisReport report, Path directory) throws IOException {
+    Path reportPath = directory.resolve(REPORT_FILE_NAME);
+    Path tempPath = directory.resolve(REPORT_FILE_NAME + ".tmp");
+
+    try (PrintWriter writer = new PrintWriter(
+        Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8))) {
+      writeBody(report, writer);
+    }
+    Files.move(tempPath, reportPath, StandardCopyOption.REPLACE_EXISTING);
+    return reportPath;
+  }
+
+  /**
+   * Записывает сводку ошибок в файл {@value #VALIDATION_REPORT_FILE_NAME} рядом с отчетом:
+   * число ошибок каждого вида и примеры файлов с номером строки, если он известен.
+   */
+  public Path writeValidationReport(ValidationReport validationReport, Path directory)
+      throws IOException {
+    Path reportPath = directory.resolve(VALIDATION_REPORT_FILE_NAME);
+    Path tempPath = directory.resolve(VALIDATION_REPORT_FILE_NAME + ".tmp");
+
+    try (PrintWriter writer = new PrintWriter(
+        Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8))) {
+      writer.printf("Пропущено файлов: %d%n", validationReport.getTotalCount());
+      for (ValidationErrorKind kind : ValidationErrorKind.values()) {
+        long count = validationReport.getCount(kind);
+        if (count == 0) {
+          continue;
+        }
+        writer.println();
+        writer.printf("%s Файлов: %d%n", kind.getDescription(), count);
+        for (ParseResult sample : validationReport.getSamples(kind)) {
+          writer.println(sample.getLine() > 0
+              ? "  " + sample.getFile() + ", строка " + sample.getLine()
+              : "  " + sample.getFile());
+        }
+        if (count > ValidationReport.MAX_SAMPLES) {
+          writer.printf("  ... и еще %d%n", count - ValidationReport.MAX_SAMPLES);
+        }
+      }
+    }
+    Files.move(tempPath, reportPath, StandardCopyOption.REPLACE_EXISTING);
+    return reportPath;
+  }
+
+  /**
+   * Удаляет файл {@value #VALIDATION_REPORT_FILE_NAME}, оставшийся от прошлого запуска,
+   * если он есть.
+   */
+  public void deleteValidationReport(Path directory) throws IOException {
+    Files.deleteIfExists(directory.resolve(VALIDATION_REPORT_FILE_NAME));
+  }
+
+  private void writeBody(AnalysisReport report, PrintWriter writer) {
+    report.getAverageGrades().forEach((subject, avg) -> writer.printf("%s - %.2f%n", subject, avg));
+    writer.println();
+
+    writer.println(report.getBestStudents().size() == 1 ? "Лучший ученик:" : "Лучшие ученики:");
+    writeStudents(report.getBestStudents(), writer);
+    writer.println();
+
+    writer.println(report.getWorstStudents().size() == 1 ? "Худший ученик:" : "Худшие ученики:");
+    writeStudents(report.getWorstStudents(), writer);
+    writer.println();
+
+    writer.printf("Количество учеников: %d%n", report.getStudentCount());
+    writeDistributions(report.getGradeDistributions(), writer);
+    writeLeaderboard(report.getLeaderboard(), writer);
+    writeSubjectLeaderboards(report.getSubjectLeaderboards(), writer);
+    writeCohortSummaries(report.getCohortSummaries(), writer);
+  }
+
+  private void writeLeaderboard(Leaderboard leaderboard, PrintWriter writer) {
+    if (leaderboard.getTop().isEmpty()) {
+      return;
+    }
+    writer.println();
+    writer.printf("Рейтинг: первые %d%n", leaderboard.getTop().size());
+    writeRanked(leaderboard.getTop(), writer);
+    writer.println();
+    writer.printf("Рейтинг: последние %d%n", leaderboard.getBottom().size());
+    writeRanked(leaderboard.getBottom(), writer);
+  }
+
+  /**
+   * Для каждого предмета: высшая и низшая оценка с числом получивших их учеников, затем
+   * лучшие и худшие по оценке.
+   */
+  private void writeSubjectLeaderboards(Map<String, SubjectLeaderboard> leaderboards,
+                                        PrintWriter writer) {
+    if (leaderboards.isEmpty()) {
+      return;
+    }
+    writer.println();
+    writer.println("Лучшие и худшие по предметам:");
+    for (SubjectLeaderboard leaderboard : leaderboards.values()) {
+      writer.printf("%s: высшая оценка %d (учеников: %d), низшая оценка %d (учеников: %d)%n",
+          leaderboard.getSubject(), leaderboard.getMaxGrade(), leaderboard.getMaxGradeCount(),
+          leaderboard.getMinGrade(), leaderboard.getMinGradeCount());
+      writer.printf("  лучшие: %s%n", joinNames(leaderboard.getTop()));
+      writer.printf("  худшие: %s%n", joinNames(leaderboard.getBottom()));
+    }
+  }
+
+  private String joinNames(List<Student> students) {
+    return students.stream().map(Student::getFullName).collect(Collectors.joining(", "));
+  }
+
+  private void writeRanked(List<Student> students, PrintWriter writer) {
+    for (int i = 0; i < students.size(); i++) {
+      Student student = students.get(i);
+      writer.printf("%d. %s (средний балл - %.2f)%n", i + 1, student.getFullName(),
+          student.getAverageGrade());
+    }
+  }
+
+  /**
+   * Детализация по школам: итоги школы и с отступом итоги каждого ее класса.
+   */
+  private void writeCohortSummaries(List<CohortSummary> summaries, PrintWriter writer) {
+    if (summaries.isEmpty()) {
+      return;
+    }
+    writer.println();
+    writer.println("Результаты по школам и классам:");
+    for (CohortSummary summary : summaries) {
+      String indent = summary.isSchoolTotal() ? "" : "  ";
+      AnalysisReport report = summary.getReport();
+      writer.printf("%s%s, учеников: %d%n", indent, summary.isSchoolTotal()
+          ? "Школа: " + cohortName(summary.getSchool())
+          : "Класс: " + cohortName(summary.getSchoolClass()), report.getStudentCount());
+      new TreeMap<>(report.getAverageGrades()).forEach((subject, avg) ->
+          writer.printf("%s  %s - %.2f%n", indent, subject, avg));
+      writer.printf("%s  Лучшие: %s%n", indent, joinStudents(report.getBestStudents()));
+      writer.printf("%s  Худшие: %s%n", indent, joinStudents(report.getWorstStudents()));
+    }
+  }
+
+  private static String cohortName(String name) {
+    return name.isEmpty() ? "(без папки)" : name;
+  }
+
+  private static String joinStudents(List<Student> students) {
+    return students.stream()
+        .map(s -> String.format("%s (%.2f)", s.getFullName(), s.getAverageGrade()))
+        .collect(Collectors.joining(", "));
+  }
+
+  private void writeDistributions(Map<String, GradeDistribution> distributions,
+                                  PrintWriter writer) {
+    if (distributions.isEmpty()) {
+      return;
+    }
+    writer.println();
+    writer.println("Распределение оценок по предметам:");
+    distributions.forEach((subject, d) -> writer.printf(
+        "%s - медиана %.2f, 25%% - %.2f, 75%% - %.2f, ст. откл. %.2f, оценки 1/2/3/4/5: "
+            + "%d/%d/%d/%d/%d%n",
+        subject, d.getMedian(), d.getPercentile(25), d.getPercentile(75),
+        d.getStandardDeviation(), d.getCount(1), d.getCount(2), d.getCount(3), d.getCount(4),
+        d.getCount(5)));
+  }
+
+  private void writeStudents(List<Student> students, PrintWriter writer) {
+    students.forEach(
+        s -> writer.printf("%s (средний балл - %.2f)%n", s.getFullName(), s.getAverageGrade()));
+  }
+}
@@ -0,0 +1,101 @@
+package org.example.service;
+
+/**
+ * Циклы агрегации без Vector API; используются, когда модуль не подключен, и для хвостов
+ * массивов, не кратных длине вектора.
+ */
+final class ScalarAggregationKernels implements AggregationKernels {
+  static final ScalarAggregationKernels INSTANCE = new ScalarAggregationKernels();
+
+  private ScalarAggregationKernels() {
+  }
+
+  @Override
+  public String getName() {
+    return "scalar";
+  }
+
+  @Override
+  public long sum(byte[] grades, int length) {
+    return sum(grades, 0, length);
+  }
+
+  @Override
+  public int countNonZero(byte[] grades, int length) {
+    return countNonZero(grades, 0, length);
+  }
+
+  @Override
+  public void histogram(byte[] grades, int length, long[] counts) {
+    histogram(grades, 0, length, counts);
+  }
+
+  @Override
+  public int findExtremeAverage(int[] sums, int[] counts, int length, boolean maximum) {
+    return length == 0 ? -1 : findExtremeAverage(sums, counts, 1, length, 0, maximum);
+  }
+
+  @Override
+  public int findEqualAverages(int[] sums, int[] counts, int length, long targetSum,
+                               long targetCount, int[] rows) {
+    return findEqualAverages(sums, counts, 0, length, targetSum, targetCount, rows, 0);
+  }
+
+  static long sum(byte[] grades, int from, int to) {
+    long sum = 0;
+    for (int i = from; i < to; i++) {
+      sum += grades[i];
+    }
+    return sum;
+  }
+
+  static int countNonZero(byte[] grades, int from, int to) {
+    int count = 0;
+    for (int i = from; i < to; i++) {
+      if (grades[i] != 0) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  static void histogram(byte[] grades, int from, int to, long[] counts) {
+    for (int i = from; i < to; i++) {
+      int grade = grades[i];
+      if (grade >= 1 && grade <= counts.length) {
+        counts[grade - 1]++;
+      }
+    }
+  }
+
+  /**
+   * Продолжает поиск крайнего среднего с текущим кандидатом {@code best}; кандидат меняется
+   * только на строго лучшую строку, поэтому из равных остается первая.
+   */
+  static int findExtremeAverage(int[] sums, int[] counts, int from, int to, int best,
+                                boolean maximum) {
+    for (int i = from; i < to; i++) {
+      int comparison = compareAverages(sums[i], counts[i], sums[best], counts[best]);
+      if (maximum ? comparison > 0 : comparison < 0) {
+        best = i;
+      }
+    }
+    return best;
+  }
+
+  static int findEqualAverages(int[] sums, int[] counts, int from, int to, long targetSum,
+                               long targetCount, int[] rows, int found) {
+    long divisor = Math.max(targetCount, 1);
+    for (int i = from; i < to; i++) {
+      if ((long) sums[i] * divisor == targetSum * Math.max(counts[i], 1)) {
+        rows[found++] = i;
+      }
+    }
+    return found;
+  }
+
+  static int compareAverages(int sum, int count, int otherSum, int otherCount) {
+    return Long.compare((long) sum * Math.max(otherCount, 1),
+        (long) otherSum * Math.max(count, 1));
+  }
+}
@@ -2,96 +2,552 @@ package org.example.service;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.ZipException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.example.exception.InvalidStudentFileException;
+import org.example.model.ParseResult;
 import org.example.model.Student;
+import org.example.model.ValidationErrorKind;
 
 /**
  * Сервис для чтения и парсинга файлов студентов.
  */
 public class StudentFileReader {
   private static final Logger logger = LogManager.getLogger(StudentFileReader.class);
+  static final String ARCHIVE_FALLBACK_ENCODING = "CP866";
   private final FileValidator fileValidator = new FileValidator();
+  private final GradeFileParser gradeFileParser = new GradeFileParser();
 
   /**
    * Читает и парсит файлы студентов из указанной директории.
    */
   public List<Student> readStudentsFromDirectory(String directoryPath) throws IOException {
-    List<Student> students = new ArrayList<>();
-    File folder = new File(directoryPath);
+    return readStudentsFromDirectory(directoryPath, 1);
+  }
 
-    if (!folder.isDirectory()) {
-      String errorMessage = "Указанный путь не является директорией: " + directoryPath;
-      logger.error(errorMessage);
-      throw new IOException(errorMessage);
+  /**
+   * Читает и парсит файлы студентов, обрабатывая одновременно не более {@code parallelism}
+   * файлов. Каждый файл читается на отдельном виртуальном потоке; порядок студентов в
+   * результате совпадает с последовательным чтением. Вместо директории можно указать
+   * ZIP-архив: файлы читаются прямо из него, включая вложенные папки. Имена записей
+   * должны быть в UTF-8 или, как у архивов проводника Windows, в CP866.
+   */
+  public List<Student> readStudentsFromDirectory(String directoryPath, int parallelism)
+      throws IOException {
+    return readStudentsFromDirectory(directoryPath, parallelism, new ValidationReport());
+  }
+
+  /**
+   * То же, что {@link #readStudentsFromDirectory(String, int)}, но ошибки пропущенных файлов
+   * дополнительно учитываются в {@code validationReport}.
+   */
+  public List<Student> readStudentsFromDirectory(String directoryPath, int parallelism,
+                                                 ValidationReport validationReport)
+      throws IOException {
+    validateParallelism(parallelism);
+    if (isArchive(directoryPath)) {
+      return readStudentsFromArchive(Paths.get(directoryPath), parallelism, validationReport);
     }
+    File folder = new File(directoryPath);
+    requireDirectory(folder.toPath(), directoryPath);
 
     File[] files = folder.listFiles();
     if (files == null) {
-      return students;
+      return new ArrayList<>();
     }
 
-    for (File file : files) {
-      if (!shouldProcessFile(file)) {
-        continue;
+    try (Ingestion ingestion = new Ingestion(parallelism, validationReport)) {
+      for (File file : files) {
+        if (shouldProcessFile(file.toPath())) {
+          ingestion.submit(file.toPath(), "");
+        }
       }
+      return ingestion.finish();
+    }
+  }
 
-      String fileName = file.getName().replace(".txt", "");
-      if (!fileValidator.isValidFullName(fileName)) {
-        logger.warn("Некорректное имя файла (ФИО): {}. Файл пропущен.", file.getName());
-        continue;
+  /**
+   * Строит отпечаток файлов оценок директории только по их атрибутам. Для ZIP-архива
+   * отпечаток строится по самому архиву.
+   */
+  public DirectoryFingerprint fingerprint(String directoryPath) throws IOException {
+    Path path = Paths.get(directoryPath);
+    DirectoryFingerprint.Builder fingerprint = new DirectoryFingerprint.Builder();
+    if (isArchive(directoryPath)) {
+      BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+      fingerprint.add(path.getFileName().toString(), attrs.size(),
+          attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS));
+      return fingerprint.build();
+    }
+    requireDirectory(path, directoryPath);
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(path)) {
+      for (Path file : files) {
+        if (!hasStudentFileName(file)) {
+          continue;
+        }
+        BasicFileAttributes attrs;
+        try {
+          attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+          continue;
+        }
+        if (attrs.isRegularFile()) {
+          fingerprint.add(file.getFileName().toString(), attrs.size(),
+              attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS));
+        }
       }
+    }
+    return fingerprint.build();
+  }
 
-      try {
-        List<String> lines = Files.readAllLines(file.toPath());
-        students.add(createStudentFromFile(fileName, lines));
-        logger.info("Успешно обработан файл: {}", file.getName());
-      } catch (InvalidStudentFileException | IOException e) {
-        logger.error("Ошибка обработки файла {}: {}", file.getName(), e.getMessage());
+  /**
+   * Читает файлы студентов директории в столбцовое хранилище вне кучи. Файлы разбираются
+   * по одному, и объект студента становится ненужным сразу после добавления строки, поэтому
+   * в куче не накапливается список всех студентов.
+   */
+  public ColumnarStudentStore readStudentsIntoStore(String directoryPath) throws IOException {
+    return readStudentsIntoStore(directoryPath, new ValidationReport());
+  }
+
+  /**
+   * То же, что {@link #readStudentsIntoStore(String)}, но ошибки пропущенных файлов
+   * дополнительно учитываются в {@code validationReport}.
+   */
+  public ColumnarStudentStore readStudentsIntoStore(String directoryPath,
+                                                    ValidationReport validationReport)
+      throws IOException {
+    Path directory = Paths.get(directoryPath);
+    requireDirectory(directory, directoryPath);
+
+    ColumnarStudentStore store = new ColumnarStudentStore();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+      for (Path file : files) {
+        if (shouldProcessFile(file)) {
+          readStudentFile(file, "", validationReport).ifPresent(store::append);
+        }
       }
     }
-    return students;
+    logger.info("В столбцовое хранилище прочитано студентов: {}", store.size());
+    return store;
+  }
+
+  /**
+   * Рекурсивно читает файлы студентов из дерева директорий вида школа/класс/ученик.txt.
+   */
+  public List<Student> readStudentsFromTree(String rootPath) throws IOException {
+    return readStudentsFromTree(rootPath, 1);
+  }
+
+  /**
+   * Рекурсивно читает дерево директорий, не загружая листинги целиком: каталоги обходятся
+   * потоково через {@link Files#walkFileTree}, а найденные файлы сразу отправляются на
+   * разбор. Относительный путь папки файла сохраняется в {@link Student#getCohort()}.
+   */
+  public List<Student> readStudentsFromTree(String rootPath, int parallelism)
+      throws IOException {
+    return readStudentsFromTree(rootPath, parallelism, new ValidationReport());
+  }
+
+  /**
+   * То же, что {@link #readStudentsFromTree(String, int)}, с учетом ошибок пропущенных файлов
+   * в {@code validationReport}.
+   */
+  public List<Student> readStudentsFromTree(String rootPath, int parallelism,
+                                            ValidationReport validationReport)
+      throws IOException {
+    validateParallelism(parallelism);
+    if (isArchive(rootPath)) {
+      return readStudentsFromArchive(Paths.get(rootPath), parallelism, validationReport);
+    }
+    Path root = Paths.get(rootPath);
+    requireDirectory(root, rootPath);
+
+    try (Ingestion ingestion = new Ingestion(parallelism, validationReport)) {
+      walkTree(root, ingestion);
+      return ingestion.finish();
+    }
   }
 
-  private boolean shouldProcessFile(File file) {
-    return file.isFile()
-        && file.getName().endsWith(".txt")
-        && !file.getName().equalsIgnoreCase("отчет.тхт");
+  /**
+   * Рекурсивно читает дерево школа/класс/ученик.txt или ZIP-архив с ним сразу в
+   * {@link GradeCube}: студенты учитываются в кубе по мере разбора и не собираются в список.
+   */
+  public GradeCube readGradeCubeFromTree(String rootPath, int parallelism,
+                                         ValidationReport validationReport)
+      throws IOException {
+    GradeCube cube = new GradeCube();
+    streamStudentsFromTree(rootPath, parallelism, validationReport, cube::add);
+    return cube;
   }
 
-  private Student createStudentFromFile(String fullName, List<String> lines)
-      throws InvalidStudentFileException {
-    if (lines.size() < 5) {
-      throw new InvalidStudentFileException("Файл должен содержать не менее 5 предметов.");
+  /**
+   * Рекурсивно читает дерево или ZIP-архив с ним и передает студентов {@code sink} в
+   * вызывающем потоке по мере разбора, в порядке обхода; одновременно в памяти не больше
+   * {@code parallelism} еще не переданных студентов.
+   */
+  void streamStudentsFromTree(String rootPath, int parallelism,
+                              ValidationReport validationReport, Consumer<Student> sink)
+      throws IOException {
+    validateParallelism(parallelism);
+    if (isArchive(rootPath)) {
+      try (FileSystem zip = openArchive(Paths.get(rootPath));
+           Ingestion ingestion = new Ingestion(parallelism, validationReport, sink)) {
+        for (Path root : zip.getRootDirectories()) {
+          walkTree(root, ingestion);
+        }
+        ingestion.finish();
+      }
+      return;
     }
+    Path root = Paths.get(rootPath);
+    requireDirectory(root, rootPath);
 
-    Map<String, Integer> grades = new HashMap<>();
+    try (Ingestion ingestion = new Ingestion(parallelism, validationReport, sink)) {
+      walkTree(root, ingestion);
+      ingestion.finish();
+    }
+  }
 
+  /**
+   * Проверяет, указывает ли путь на ZIP-архив с файлами оценок.
+   */
+  public boolean isArchive(String path) {
+    Path candidate = Paths.get(path);
+    return Files.isRegularFile(candidate)
+        && candidate.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".zip");
+  }
+
+  /**
+   * Читает файлы студентов из ZIP-архива через файловую систему zipfs: записи распаковываются
+   * в память по мере разбора, без извлечения на диск.
+   */
+  private List<Student> readStudentsFromArchive(Path archive, int parallelism,
+                                                ValidationReport validationReport)
+      throws IOException {
+    try (FileSystem zip = openArchive(archive);
+         Ingestion ingestion = new Ingestion(parallelism, validationReport)) {
+      for (Path root : zip.getRootDirectories()) {
+        walkTree(root, ingestion);
+      }
+      return ingestion.finish();
+    }
+  }
+
+  /**
+   * Открывает ZIP-архив как файловую систему. Имена записей сначала читаются как UTF-8;
+   * если они не декодируются, архив открывается повторно в {@value #ARCHIVE_FALLBACK_ENCODING},
+   * в которой имена сохраняет проводник Windows. Кодировка выбирается для всего архива:
+   * смесь UTF-8 и CP866 в одном архиве не поддерживается.
+   */
+  private static FileSystem openArchive(Path archive) throws IOException {
     try {
-      for (String line : lines) {
-        String trimmedLine = line.trim();
-        if (trimmedLine.contains(" - ")) {
-          String subject = trimmedLine.substring(0, trimmedLine.lastIndexOf(" - ")).trim();
-          int grade = Integer.parseInt(
-              trimmedLine.substring(trimmedLine.lastIndexOf(" - ") + 3).trim());
-
-          if (!fileValidator.isValidGrade(grade)) {
-            throw new InvalidStudentFileException("Оценка должна быть в диапазоне от 1 до 5.");
+      return FileSystems.newFileSystem(archive);
+    } catch (ZipException e) {
+      logger.debug("Имена в архиве {} не в UTF-8, используется {}.", archive,
+          ARCHIVE_FALLBACK_ENCODING);
+      return FileSystems.newFileSystem(archive, Map.of("encoding", ARCHIVE_FALLBACK_ENCODING));
+    }
+  }
+
+  private void walkTree(Path root, Ingestion ingestion) throws IOException {
+    Files.walkFileTree(root, new SimpleFileVisitor<>() {
+      @Override
+      public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+          throws IOException {
+        if (hasStudentFileName(file) && (attrs.isRegularFile() || Files.isRegularFile(file))) {
+          ingestion.submit(file, cohortOf(root, file.getParent()));
+        }
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFileFailed(Path file, IOException e) {
+        logger.error("Ошибка доступа к {}: {}", file, e.getMessage());
+        return FileVisitResult.CONTINUE;
+      }
+    });
+  }
+
+  /**
+   * Читает директорию с учетом манифеста предыдущего запуска: файлы с прежними размером и
+   * временем изменения берутся из манифеста, остальные перечитываются, а совпадение
+   * контрольной суммы избавляет от повторного разбора. Манифест обновляется на месте, но
+   * суммы оценок по предметам в нем пересчитывает вызывающий через
+   * {@link GradeCalculator#applyChanges}, поэтому метод доступен только
+   * {@link GradeAnalyzerService#readStudentsIncrementally}. Ошибки пропущенных файлов
+   * собираются в {@link IncrementalReadResult#getValidationReport()}.
+   */
+  IncrementalReadResult readStudentsIncrementally(String directoryPath,
+                                                  GradeManifest manifest)
+      throws IOException {
+    File folder = new File(directoryPath);
+    requireDirectory(folder.toPath(), directoryPath);
+
+    List<Student> students = new ArrayList<>();
+    List<Student> added = new ArrayList<>();
+    List<Student> removed = new ArrayList<>();
+    Set<String> seenPaths = new HashSet<>();
+    ValidationReport validationReport = new ValidationReport();
+
+    File[] files = folder.listFiles();
+    for (File candidate : files == null ? new File[0] : files) {
+      Path file = candidate.toPath();
+      if (!shouldProcessFile(file)) {
+        continue;
+      }
+      String key = file.getFileName().toString();
+      String fullName = key.replace(".txt", "");
+      if (!fileValidator.isValidFullName(fullName)) {
+        logger.warn("Некорректное имя файла (ФИО): {}. Файл пропущен.", key);
+        validationReport.record(
+            ParseResult.failure(ValidationErrorKind.INVALID_FILE_NAME, 0).inFile(file.toString()));
+        continue;
+      }
+      seenPaths.add(key);
+
+      GradeManifest.Entry cached = manifest.get(key);
+      Optional<GradeManifest.Entry> current =
+          refreshEntry(file, fullName, cached, validationReport);
+      if (current.isPresent()) {
+        GradeManifest.Entry entry = current.get();
+        manifest.put(key, entry);
+        students.add(entry.getStudent());
+        if (cached == null || cached.getStudent() != entry.getStudent()) {
+          added.add(entry.getStudent());
+          if (cached != null) {
+            removed.add(cached.getStudent());
           }
-          grades.put(subject, grade);
         }
+      } else if (cached != null) {
+        manifest.remove(key);
+        removed.add(cached.getStudent());
       }
-    } catch (NumberFormatException e) {
-      throw new InvalidStudentFileException("Неверный формат оценки в файле.", e);
     }
 
-    return new Student(fullName, grades);
+    for (String path : manifest.paths()) {
+      if (!seenPaths.contains(path)) {
+        removed.add(manifest.remove(path).getStudent());
+        logger.info("Файл удален, студент исключен из анализа: {}", path);
+      }
+    }
+
+    logger.info("Инкрементальное чтение: перечитано {}, исключено {}, без изменений {}.",
+        added.size(), removed.size(), students.size() - added.size());
+    return new IncrementalReadResult(students, added, removed, manifest.getSubjectTotals(),
+        validationReport);
   }
 
+  /**
+   * Возвращает актуальную запись манифеста для файла или пустое значение, если файл не
+   * удалось прочитать или разобрать.
+   */
+  private Optional<GradeManifest.Entry> refreshEntry(Path file, String fullName,
+                                                     GradeManifest.Entry cached,
+                                                     ValidationReport validationReport) {
+    long modifiedNanos;
+    byte[] content;
+    try {
+      BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+      modifiedNanos = attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+      if (cached != null && cached.isUnchanged(attrs.size(), modifiedNanos)) {
+        return Optional.of(cached);
+      }
+      content = Files.readAllBytes(file);
+    } catch (IOException e) {
+      reportReadError(file, e, validationReport);
+      return Optional.empty();
+    }
+
+    long contentHash = GradeManifest.contentHash(content);
+    if (cached != null && cached.getSize() == content.length
+        && cached.getContentHash() == contentHash) {
+      return Optional.of(new GradeManifest.Entry(content.length, modifiedNanos, contentHash,
+          cached.getStudent()));
+    }
+
+    ParseResult result = gradeFileParser.tryParse(fullName, "", content);
+    if (!result.isSuccess()) {
+      reportParseError(file, result, validationReport);
+      return Optional.empty();
+    }
+    logger.info("Успешно обработан файл: {}", file.getFileName());
+    return Optional.of(new GradeManifest.Entry(content.length, modifiedNanos, contentHash,
+        result.getStudent()));
+  }
+
+  private void validateParallelism(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException(
+          "Уровень параллелизма должен быть положительным: " + parallelism);
+    }
+  }
+
+  private void requireDirectory(Path path, String originalPath) throws IOException {
+    if (!Files.isDirectory(path)) {
+      String errorMessage = "Указанный путь не является директорией: " + originalPath;
+      logger.error(errorMessage);
+      throw new IOException(errorMessage);
+    }
+  }
+
+  /**
+   * Читает один файл студента, если он проходит отбор по имени и содержимому.
+   */
+  public Optional<Student> readStudentFile(Path file) {
+    if (!shouldProcessFile(file)) {
+      return Optional.empty();
+    }
+    return readStudentFile(file, "", new ValidationReport());
+  }
+
+  private Optional<Student> readStudentFile(Path file, String cohort,
+                                            ValidationReport validationReport) {
+    String fileName = file.getFileName().toString().replace(".txt", "");
+    if (!fileValidator.isValidFullName(fileName)) {
+      logger.warn("Некорректное имя файла (ФИО): {}. Файл пропущен.", file.getFileName());
+      validationReport.record(ParseResult.failure(ValidationErrorKind.INVALID_FILE_NAME, 0)
+          .inFile(file.toString()));
+      return Optional.empty();
+    }
+
+    byte[] content;
+    try {
+      content = Files.readAllBytes(file);
+    } catch (IOException e) {
+      reportReadError(file, e, validationReport);
+      return Optional.empty();
+    }
+
+    ParseResult result = gradeFileParser.tryParse(fileName, cohort, content);
+    if (!result.isSuccess()) {
+      reportParseError(file, result, validationReport);
+      return Optional.empty();
+    }
+    logger.info("Успешно обработан файл: {}", file.getFileName());
+    return Optional.of(result.getStudent());
+  }
+
+  private static void reportReadError(Path file, IOException e,
+                                      ValidationReport validationReport) {
+    logger.error("Ошибка обработки файла {}: {}", file.getFileName(), e.getMessage());
+    validationReport.record(
+        ParseResult.failure(ValidationErrorKind.READ_ERROR, 0).inFile(file.toString()));
+  }
+
+  private static void reportParseError(Path file, ParseResult result,
+                                       ValidationReport validationReport) {
+    logger.error("Ошибка обработки файла {}: {}", file.getFileName(), result.getMessage());
+    validationReport.record(result.inFile(file.toString()));
+  }
+
+  private boolean shouldProcessFile(Path file) {
+    return Files.isRegularFile(file) && hasStudentFileName(file);
+  }
+
+  static boolean hasStudentFileName(Path file) {
+    String name = file.getFileName().toString();
+    return name.endsWith(".txt") && !name.equalsIgnoreCase(ReportWriter.REPORT_FILE_NAME);
+  }
+
+  private static String cohortOf(Path root, Path directory) {
+    StringJoiner cohort = new StringJoiner("/");
+    for (Path part : root.relativize(directory)) {
+      if (!part.toString().isEmpty()) {
+        cohort.add(part.toString());
+      }
+    }
+    return cohort.toString();
+  }
+
+  /**
+   * Разбор отобранных файлов: сразу в вызывающем потоке либо на виртуальных потоках. Студенты
+   * передаются получателю (по умолчанию - в список результата) в вызывающем потоке в порядке
+   * отправки файлов. В работе не больше {@code parallelism} файлов: прежде чем отправить
+   * следующий, вызывающий поток дожидается самого раннего и передает его студента получателю,
+   * поэтому разобранные студенты не копятся до конца обхода.
+   */
+  private final class Ingestion implements AutoCloseable {
+    private final List<Student> students = new ArrayList<>();
+    private final Deque<Future<Optional<Student>>> pending = new ArrayDeque<>();
+    private final int parallelism;
+    private final ExecutorService executor;
+    private final ValidationReport validationReport;
+    private final Consumer<Student> sink;
+
+    Ingestion(int parallelism, ValidationReport validationReport) {
+      this(parallelism, validationReport, null);
+    }
+
+    Ingestion(int parallelism, ValidationReport validationReport, Consumer<Student> sink) {
+      this.validationReport = validationReport;
+      this.sink = sink != null ? sink : students::add;
+      this.parallelism = parallelism;
+      this.executor = parallelism > 1 ? Executors.newVirtualThreadPerTaskExecutor() : null;
+    }
+
+    void submit(Path file, String cohort) throws IOException {
+      if (executor == null) {
+        readStudentFile(file, cohort, validationReport).ifPresent(sink);
+        return;
+      }
+
+      if (pending.size() == parallelism) {
+        drainFirst();
+      }
+      pending.add(executor.submit(() -> readStudentFile(file, cohort, validationReport)));
+    }
+
+    List<Student> finish() throws IOException {
+      while (!pending.isEmpty()) {
+        drainFirst();
+      }
+      return students;
+    }
+
+    private void drainFirst() throws IOException {
+      try {
+        pending.peek().get().ifPresent(sink);
+        pending.remove();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Чтение директории прервано.");
+      } catch (ExecutionException e) {
+        throw new IOException("Непредвиденная ошибка при чтении файла.", e.getCause());
+      }
+    }
+
+    @Override
+    public void close() {
+      if (executor != null) {
+        executor.shutdownNow();
+      }
+    }
+  }
 }
@@ -0,0 +1,315 @@
+package org.example.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.example.model.Student;
+
+/**
+ * Индекс мест учеников по среднему баллу для быстрых запросов места, диапазона мест и
+ * процентиля без сортировки всего списка.
+ *
+ * <p>Средний балл - дробь сумма/количество оценок, поэтому возможных значений конечное
+ * число: все несократимые дроби p/q при q не больше наибольшего числа предметов и p/q не
+ * больше наибольшей оценки. Эти дроби упорядочены по возрастанию, и над ними построено
+ * дерево Фенвика с числом учеников каждого значения; запросы и изменения занимают
+ * O(log U), где U - число возможных значений. Если добавленный ученик выходит за границы,
+ * набор дробей перестраивается с удвоенными границами.
+ *
+ * <p>Места считаются от лучшего: {@link #rankOf} дает одинаковое место ученикам с равным
+ * баллом, а {@link #getStudentsInRanks} перечисляет позиции в порядке
+ * {@link LeaderboardAccumulator#BEST_FIRST}. Ученик определяется ФИО и папкой, как в
+ * {@link Student#equals}. Экземпляр не потокобезопасен.
+ */
+public final class StudentRankIndex {
+  private static final Logger logger = LogManager.getLogger(StudentRankIndex.class);
+  private static final int INITIAL_MAX_SUBJECTS = 16;
+  private static final int INITIAL_MAX_GRADE = 5;
+
+  private int maxSubjects;
+  private int maxGrade;
+  private long[] numerators;
+  private long[] denominators;
+  private double[] values;
+  private int[] tree;
+  private TreeSet<Student>[] members;
+  private final Map<Student, Student> indexed = new HashMap<>();
+
+  public StudentRankIndex() {
+    this(List.of());
+  }
+
+  /**
+   * Строит индекс по ученикам; повторы одного ученика (те же ФИО и папка) учитываются
+   * один раз, остальные пропускаются с предупреждением в журнале.
+   */
+  public StudentRankIndex(Collection<Student> students) {
+    int subjects = INITIAL_MAX_SUBJECTS;
+    int grade = INITIAL_MAX_GRADE;
+    for (Student student : students) {
+      subjects = Math.max(subjects, student.getSubjectCount());
+      grade = Math.max(grade, maxGradeOf(student));
+    }
+    rebuild(subjects, grade, students);
+    int dropped = students.size() - indexed.size();
+    if (dropped > 0) {
+      logger.warn("В индекс мест не вошли повторы учеников с теми же ФИО и папкой: {}.",
+          dropped);
+    }
+  }
+
+  public int size() {
+    return indexed.size();
+  }
+
+  /**
+   * Добавляет ученика. Возвращает {@code false}, если ученик с теми же ФИО и папкой уже
+   * есть в индексе.
+   */
+  public boolean add(Student student) {
+    if (indexed.containsKey(student)) {
+      return false;
+    }
+    if (student.getSubjectCount() > maxSubjects || maxGradeOf(student) > maxGrade) {
+      rebuild(Math.max(maxSubjects * 2, student.getSubjectCount()),
+          Math.max(maxGrade, maxGradeOf(student)), new ArrayList<>(indexed.values()));
+    }
+    int slot = slotOf(student.getGradeSum(), student.getSubjectCount());
+    if (members[slot] == null) {
+      members[slot] = new TreeSet<>(LeaderboardAccumulator.BEST_FIRST);
+    }
+    members[slot].add(student);
+    indexed.put(student, student);
+    update(slot, 1);
+    return true;
+  }
+
+  /**
+   * Удаляет ученика с теми же ФИО и папкой, какие бы оценки ни были у него в индексе.
+   * Возвращает {@code false}, если такого ученика нет.
+   */
+  public boolean remove(Student student) {
+    Student stored = indexed.remove(student);
+    if (stored == null) {
+      return false;
+    }
+    int slot = slotOf(stored.getGradeSum(), stored.getSubjectCount());
+    members[slot].remove(stored);
+    update(slot, -1);
+    return true;
+  }
+
+  /**
+   * Заменяет версию ученика в индексе новой, например после изменения его файла.
+   */
+  public void update(Student updated) {
+    remove(updated);
+    add(updated);
+  }
+
+  /**
+   * Место ученика с таким средним баллом: 1 плюс число учеников со строго большим баллом.
+   * Сам ученик может отсутствовать в индексе.
+   */
+  public int rankOf(Student student) {
+    return 1 + countAbove(student.getGradeSum(), student.getSubjectCount());
+  }
+
+  /**
+   * Ученики на позициях с {@code fromRank} по {@code toRank} включительно, от лучшего;
+   * позиции за пределами индекса пропускаются.
+   */
+  public List<Student> getStudentsInRanks(int fromRank, int toRank) {
+    if (fromRank < 1 || toRank < fromRank) {
+      throw new IllegalArgumentException(
+          "Некорректный диапазон мест: " + fromRank + " - " + toRank);
+    }
+    List<Student> result = new ArrayList<>();
+    if (fromRank > size()) {
+      return result;
+    }
+    int last = Math.min(toRank, size());
+    // Позиция k от лучшего - это позиция size - k + 1 по возрастанию балла
+    int slot = lowerBound(size() - fromRank + 1);
+    int skip = fromRank - (size() - prefix(slot + 1) + 1);
+    while (result.size() < last - fromRank + 1) {
+      for (Student student : members[slot]) {
+        if (skip > 0) {
+          skip--;
+        } else if (result.size() < last - fromRank + 1) {
+          result.add(student);
+        }
+      }
+      int below = prefix(slot);
+      if (below == 0) {
+        break;
+      }
+      slot = lowerBound(below);
+    }
+    return result;
+  }
+
+  /**
+   * Процентиль среднего балла {@code average}: доля учеников с меньшим баллом плюс
+   * половина доли учеников с равным, в процентах; 0 для пустого индекса.
+   */
+  public double percentileOf(double average) {
+    if (size() == 0) {
+      return 0;
+    }
+    int from = Arrays.binarySearch(values, average);
+    int first = from;
+    int last = from;
+    if (from < 0) {
+      first = -from - 1;
+      last = first - 1;
+    } else {
+      while (first > 0 && values[first - 1] == average) {
+        first--;
+      }
+      while (last + 1 < values.length && values[last + 1] == average) {
+        last++;
+      }
+    }
+    int below = prefix(first);
+    int equal = prefix(last + 1) - below;
+    return (below + equal / 2.0) * 100 / size();
+  }
+
+  /**
+   * Процентиль среднего балла ученика, с точным сравнением дробей.
+   */
+  public double percentileOf(Student student) {
+    if (size() == 0) {
+      return 0;
+    }
+    long sum = student.getGradeSum();
+    long count = Math.max(student.getSubjectCount(), 1);
+    int notAbove = upperBound(sum, count);
+    int slot = findSlot(sum, count);
+    int equal = slot < 0 ? 0 : prefix(slot + 1) - prefix(slot);
+    return (prefix(notAbove) - equal + equal / 2.0) * 100 / size();
+  }
+
+  private int countAbove(long sum, long count) {
+    return size() - prefix(upperBound(sum, Math.max(count, 1)));
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private void rebuild(int subjects, int grade, Collection<Student> students) {
+    maxSubjects = subjects;
+    maxGrade = grade;
+    List<long[]> fractions = new ArrayList<>();
+    fractions.add(new long[] {0, 1});
+    for (long q = 1; q <= subjects; q++) {
+      for (long p = 1; p <= grade * q; p++) {
+        if (gcd(p, q) == 1) {
+          fractions.add(new long[] {p, q});
+        }
+      }
+    }
+    fractions.sort((left, right) -> Long.compare(left[0] * right[1], right[0] * left[1]));
+    numerators = new long[fractions.size()];
+    denominators = new long[fractions.size()];
+    values = new double[fractions.size()];
+    for (int i = 0; i < fractions.size(); i++) {
+      numerators[i] = fractions.get(i)[0];
+      denominators[i] = fractions.get(i)[1];
+      values[i] = (double) numerators[i] / denominators[i];
+    }
+    tree = new int[fractions.size() + 1];
+    members = new TreeSet[fractions.size()];
+    indexed.clear();
+    students.forEach(this::add);
+  }
+
+  /**
+   * Ячейка дроби {@code sum / count}; дробь должна входить в набор.
+   */
+  private int slotOf(long sum, long count) {
+    int slot = findSlot(sum, count);
+    if (slot < 0) {
+      throw new IllegalStateException("Средний балл вне индекса: " + sum + "/" + count);
+    }
+    return slot;
+  }
+
+  private int findSlot(long sum, long count) {
+    long divisor = Math.max(count, 1);
+    int slot = upperBound(sum, divisor) - 1;
+    return slot >= 0 && numerators[slot] * divisor == sum * denominators[slot] ? slot : -1;
+  }
+
+  /**
+   * Число дробей набора, не больших {@code sum / count}.
+   */
+  private int upperBound(long sum, long count) {
+    int low = 0;
+    int high = numerators.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (numerators[middle] * count <= sum * denominators[middle]) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private void update(int slot, int delta) {
+    for (int i = slot + 1; i < tree.length; i += i & -i) {
+      tree[i] += delta;
+    }
+  }
+
+  /**
+   * Число учеников в ячейках с номерами меньше {@code slots}.
+   */
+  private int prefix(int slots) {
+    int total = 0;
+    for (int i = slots; i > 0; i -= i & -i) {
+      total += tree[i];
+    }
+    return total;
+  }
+
+  /**
+   * Ячейка, на которую приходится {@code position}-й (с 1) ученик по возрастанию балла.
+   */
+  private int lowerBound(int position) {
+    int index = 0;
+    int remaining = position;
+    for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+      int next = index + step;
+      if (next < tree.length && tree[next] < remaining) {
+        index = next;
+        remaining -= tree[next];
+      }
+    }
+    return index;
+  }
+
+  private static int maxGradeOf(Student student) {
+    int max = 0;
+    for (int id = 0; id < student.getSubjectIdBound(); id++) {
+      max = Math.max(max, student.getGrade(id));
+    }
+    return max;
+  }
+
+  private static long gcd(long a, long b) {
+    while (b != 0) {
+      long t = a % b;
+      a = b;
+      b = t;
+    }
+    return a;
+  }
+}
@@ -1,14 +1,30 @@
 package org.example.service;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.OptionalDouble;
+import java.util.Map;
+import java.util.TreeMap;
+import org.example.model.Leaderboard;
 import org.example.model.Student;
+import org.example.model.SubjectLeaderboard;
 
 /**
  * Сервис для ранжирования студентов по успеваемости.
  */
 public class StudentRanking {
+  private final AggregationKernels kernels;
+
+  public StudentRanking() {
+    this(AggregationKernels.preferred());
+  }
+
+  /**
+   * @param kernels циклы просмотра столбцов {@link ColumnarStudentStore}
+   */
+  public StudentRanking(AggregationKernels kernels) {
+    this.kernels = kernels;
+  }
 
   /**
    * Находит студентов с наивысшим средним баллом.
@@ -18,7 +34,7 @@ public class StudentRanking {
       return new ArrayList<>();
     }
 
-    double maxAverage = findMaxAverage(students);
+    Student maxAverage = findMaxAverage(students);
     return filterStudentsByAverage(students, maxAverage, true);
   }
 
@@ -30,34 +46,109 @@ public class StudentRanking {
       return new ArrayList<>();
     }
 
-    double minAverage = findMinAverage(students);
+    Student minAverage = findMinAverage(students);
     return filterStudentsByAverage(students, minAverage, false);
   }
 
-  private double findMaxAverage(List<Student> students) {
-    OptionalDouble maxAverage = students.stream()
-        .mapToDouble(Student::getAverageGrade)
-        .max();
-    return maxAverage.orElse(-1.0);
+  /**
+   * Строит рейтинг из {@code limit} лучших и {@code limit} худших учеников за один проход
+   * с кучами ограниченного размера.
+   */
+  public Leaderboard buildLeaderboard(List<Student> students, int limit) {
+    LeaderboardAccumulator accumulator = new LeaderboardAccumulator(limit);
+    students.forEach(accumulator::add);
+    return accumulator.toLeaderboard(null);
+  }
+
+  /**
+   * Строит для каждого предмета списки из {@code limit} лучших и худших по оценке учеников,
+   * а также высшую и низшую оценку, за один проход по списку; предметы по алфавиту.
+   */
+  public Map<String, SubjectLeaderboard> buildSubjectLeaderboards(List<Student> students,
+                                                                  int limit) {
+    SubjectLeaderboardAccumulator accumulator = new SubjectLeaderboardAccumulator(limit);
+    students.forEach(accumulator::add);
+    return accumulator.getLeaderboards();
+  }
+
+  /**
+   * Строит рейтинги отдельно по каждой папке (школе/классу) за один проход; папки по
+   * алфавиту.
+   */
+  public Map<String, Leaderboard> buildLeaderboardsByCohort(List<Student> students, int limit) {
+    Map<String, LeaderboardAccumulator> accumulators = new TreeMap<>();
+    for (Student student : students) {
+      accumulators.computeIfAbsent(student.getCohort(),
+          cohort -> new LeaderboardAccumulator(limit)).add(student);
+    }
+    Map<String, Leaderboard> leaderboards = new LinkedHashMap<>();
+    accumulators.forEach((cohort, accumulator) ->
+        leaderboards.put(cohort, accumulator.toLeaderboard(cohort)));
+    return leaderboards;
+  }
+
+  /**
+   * Находит студентов с наивысшим средним баллом в столбцовом хранилище. Объекты
+   * создаются только для найденных студентов.
+   */
+  public List<Student> findBestStudents(ColumnarStudentStore store) {
+    return findStudentsByExtremeAverage(store, true);
+  }
+
+  /**
+   * Находит студентов с наименьшим средним баллом в столбцовом хранилище.
+   */
+  public List<Student> findWorstStudents(ColumnarStudentStore store) {
+    return findStudentsByExtremeAverage(store, false);
+  }
+
+  private List<Student> findStudentsByExtremeAverage(ColumnarStudentStore store,
+                                                     boolean isMaximum) {
+    List<Student> result = new ArrayList<>();
+    int target = store.findExtremeAverageRow(isMaximum, kernels);
+    if (target < 0) {
+      return result;
+    }
+    for (int row : store.findRowsWithSameAverage(target, kernels)) {
+      result.add(store.studentAt(row));
+    }
+    return result;
   }
 
-  private double findMinAverage(List<Student> students) {
-    OptionalDouble minAverage = students.stream()
-        .mapToDouble(Student::getAverageGrade)
-        .min();
-    return minAverage.orElse(6.0);
+  /**
+   * Возвращает одного из студентов с наибольшим средним баллом; баллы сравниваются точно
+   * через {@link Student#compareAverageTo(Student)}.
+   */
+  private Student findMaxAverage(List<Student> students) {
+    Student max = students.get(0);
+    for (Student student : students) {
+      if (student.compareAverageTo(max) > 0) {
+        max = student;
+      }
+    }
+    return max;
+  }
+
+  private Student findMinAverage(List<Student> students) {
+    Student min = students.get(0);
+    for (Student student : students) {
+      if (student.compareAverageTo(min) < 0) {
+        min = student;
+      }
+    }
+    return min;
   }
 
   private List<Student> filterStudentsByAverage(List<Student> students,
-                                                double targetAverage,
+                                                Student target,
                                                 boolean isMaximum) {
     List<Student> result = new ArrayList<>();
 
     for (Student student : students) {
-      double studentAverage = student.getAverageGrade();
+      int comparison = student.compareAverageTo(target);
       boolean matches = isMaximum ?
-          studentAverage >= targetAverage :
-          studentAverage <= targetAverage;
+          comparison >= 0 :
+          comparison <= 0;
 
       if (matches) {
         result.add(student);
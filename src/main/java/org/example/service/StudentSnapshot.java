@@ -0,0 +1,154 @@
+package org.example.service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.example.model.Student;
+import org.example.model.SubjectDictionary;
+
+/**
+ * Компактный бинарный снимок разобранных студентов для быстрого старта без разбора текста.
+ *
+ * <p>Формат (big-endian):
+ * <pre>
+ *   int magic, int version, int subjectCount, int studentCount
+ *   subjectCount x (u16 length, UTF-8)        словарь предметов
+ *   studentCount x subjectCount x byte         оценки по номеру предмета, 0 - нет оценки
+ *   studentCount x (u16 length, UTF-8) x 2     ФИО и папка студента
+ * </pre>
+ * Снимок читается через отображение файла в память ({@link FileChannel#map}).
+ */
+public class StudentSnapshot {
+  private static final int MAGIC = 0x47525353;
+  private static final int VERSION = 1;
+  private static final int MAX_STRING_BYTES = 0xFFFF;
+
+  /**
+   * Сохраняет студентов в снимок. Файл пишется во временный и затем подменяется.
+   */
+  public void write(List<Student> students, Path snapshotPath) throws IOException {
+    // Номера предметов в снимке идут подряд в порядке первого появления
+    int[] columnsById = new int[SubjectDictionary.getInstance().size()];
+    Arrays.fill(columnsById, -1);
+    List<Integer> subjectIds = new ArrayList<>();
+    for (Student student : students) {
+      for (int id = 0; id < student.getSubjectIdBound(); id++) {
+        if (student.getGrade(id) != 0 && columnsById[id] < 0) {
+          columnsById[id] = subjectIds.size();
+          subjectIds.add(id);
+        }
+      }
+    }
+
+    Path tempPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(tempPath), 1 << 16))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(subjectIds.size());
+      out.writeInt(students.size());
+
+      for (int id : subjectIds) {
+        writeString(out, SubjectDictionary.getInstance().nameOf(id));
+      }
+
+      byte[] row = new byte[subjectIds.size()];
+      for (Student student : students) {
+        Arrays.fill(row, (byte) 0);
+        for (int id = 0; id < student.getSubjectIdBound(); id++) {
+          int grade = student.getGrade(id);
+          if (grade != 0) {
+            row[columnsById[id]] = (byte) grade;
+          }
+        }
+        out.write(row);
+      }
+
+      for (Student student : students) {
+        writeString(out, student.getFullName());
+        writeString(out, student.getCohort());
+      }
+    }
+    Files.move(tempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  /**
+   * Загружает студентов из снимка.
+   */
+  public List<Student> read(Path snapshotPath) throws IOException {
+    try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Снимок больше 2 ГБ не поддерживается: " + snapshotPath);
+      }
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+      if (buffer.remaining() < 16 || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+        throw new IOException("Файл не является снимком оценок: " + snapshotPath);
+      }
+      int subjectCount = buffer.getInt();
+      int studentCount = buffer.getInt();
+      // Каждый предмет и каждый студент занимают хотя бы два байта длины строки, поэтому
+      // счетчики, которые не помещаются в файл, отбрасываются до выделения массивов
+      if (subjectCount < 0 || studentCount < 0
+          || 2L * subjectCount + 4L * studentCount > buffer.remaining()) {
+        throw new IOException("Снимок поврежден: " + snapshotPath);
+      }
+
+      int[] subjectIds = new int[subjectCount];
+      int maxSubjectId = -1;
+      for (int i = 0; i < subjectCount; i++) {
+        subjectIds[i] = SubjectDictionary.getInstance().idOf(readString(buffer));
+        maxSubjectId = Math.max(maxSubjectId, subjectIds[i]);
+      }
+
+      int gradesOffset = buffer.position();
+      long namesOffset = gradesOffset + (long) studentCount * subjectCount;
+      if (namesOffset + 4L * studentCount > buffer.limit()) {
+        throw new IOException("Снимок поврежден: " + snapshotPath);
+      }
+      buffer.position((int) namesOffset);
+
+      List<Student> students = new ArrayList<>(studentCount);
+      for (int i = 0; i < studentCount; i++) {
+        String fullName = readString(buffer);
+        String cohort = readString(buffer);
+
+        byte[] grades = new byte[maxSubjectId + 1];
+        int rowOffset = gradesOffset + i * subjectCount;
+        for (int subject = 0; subject < subjectCount; subject++) {
+          grades[subjectIds[subject]] = buffer.get(rowOffset + subject);
+        }
+        students.add(new Student(fullName, grades, cohort));
+      }
+      return students;
+    } catch (BufferUnderflowException | IllegalArgumentException e) {
+      throw new IOException("Снимок поврежден: " + snapshotPath, e);
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    if (bytes.length > MAX_STRING_BYTES) {
+      throw new IOException("Слишком длинная строка для снимка: " + value.substring(0, 32));
+    }
+    out.writeShort(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(MappedByteBuffer buffer) {
+    byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
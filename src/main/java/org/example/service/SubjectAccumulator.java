@@ -0,0 +1,129 @@
+package org.example.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.example.model.Student;
+import org.example.model.SubjectDictionary;
+
+/**
+ * Накопитель суммы и количества оценок по каждому предмету.
+ *
+ * <p>Принимает студентов целиком или отдельные оценки, поэтому подходит для потоковой
+ * обработки, а накопители разных потоков объединяются через {@link #merge}. Позволяет как
+ * добавлять, так и вычитать оценки студентов, поэтому средние можно обновлять по
+ * изменившимся файлам, не пересчитывая весь набор. Память - O(число предметов): суммы
+ * хранятся в массивах, индексированных идентификаторами предметов {@link SubjectDictionary}.
+ * Экземпляр не потокобезопасен: каждый поток ведет свой накопитель.
+ */
+public class SubjectAccumulator {
+  private long[] sums = new long[0];
+  private long[] counts = new long[0];
+
+  /**
+   * Учитывает все оценки студента.
+   */
+  public void add(Student student) {
+    int bound = student.getSubjectIdBound();
+    ensureCapacity(bound);
+    for (int id = 0; id < bound; id++) {
+      int grade = student.getGrade(id);
+      if (grade != 0) {
+        sums[id] += grade;
+        counts[id]++;
+      }
+    }
+  }
+
+  /**
+   * Учитывает одну оценку по предмету с идентификатором {@code subjectId}.
+   */
+  public void addGrade(int subjectId, int grade) {
+    addTotals(subjectId, grade, 1);
+  }
+
+  /**
+   * Учитывает одну оценку по предмету с указанным названием.
+   */
+  public void addGrade(String subject, int grade) {
+    addGrade(SubjectDictionary.getInstance().idOf(subject), grade);
+  }
+
+  /**
+   * Учитывает уже подсчитанные сумму и количество оценок по предмету.
+   */
+  void addTotals(int subjectId, long sum, long count) {
+    ensureCapacity(subjectId + 1);
+    sums[subjectId] += sum;
+    counts[subjectId] += count;
+  }
+
+  /**
+   * Исключает оценки студента, ранее учтенные через {@link #add(Student)}.
+   */
+  public void remove(Student student) {
+    int bound = Math.min(student.getSubjectIdBound(), counts.length);
+    for (int id = 0; id < bound; id++) {
+      int grade = student.getGrade(id);
+      if (grade == 0 || counts[id] == 0) {
+        continue;
+      }
+      sums[id] -= grade;
+      counts[id]--;
+      if (counts[id] <= 0) {
+        sums[id] = 0;
+        counts[id] = 0;
+      }
+    }
+  }
+
+  /**
+   * Добавляет суммы другого накопителя, например собранного в другом потоке.
+   */
+  public void merge(SubjectAccumulator other) {
+    ensureCapacity(other.counts.length);
+    for (int id = 0; id < other.counts.length; id++) {
+      sums[id] += other.sums[id];
+      counts[id] += other.counts[id];
+    }
+  }
+
+  /**
+   * Возвращает средний балл по каждому предмету.
+   */
+  public Map<String, Double> getAverages() {
+    SubjectDictionary dictionary = SubjectDictionary.getInstance();
+    Map<String, Double> averages = new HashMap<>();
+    for (int id = 0; id < counts.length; id++) {
+      if (counts[id] > 0) {
+        averages.put(dictionary.nameOf(id), (double) sums[id] / counts[id]);
+      }
+    }
+    return averages;
+  }
+
+  Map<String, long[]> snapshot() {
+    SubjectDictionary dictionary = SubjectDictionary.getInstance();
+    Map<String, long[]> snapshot = new HashMap<>();
+    for (int id = 0; id < counts.length; id++) {
+      if (counts[id] > 0) {
+        snapshot.put(dictionary.nameOf(id), new long[] {sums[id], counts[id]});
+      }
+    }
+    return snapshot;
+  }
+
+  void restore(String subject, long sum, long count) {
+    int id = SubjectDictionary.getInstance().idOf(subject);
+    ensureCapacity(id + 1);
+    sums[id] = sum;
+    counts[id] = count;
+  }
+
+  private void ensureCapacity(int bound) {
+    if (bound > counts.length) {
+      sums = Arrays.copyOf(sums, bound);
+      counts = Arrays.copyOf(counts, bound);
+    }
+  }
+}
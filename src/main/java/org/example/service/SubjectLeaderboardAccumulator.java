@@ -0,0 +1,181 @@
+package org.example.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import org.example.model.Student;
+import org.example.model.SubjectDictionary;
+import org.example.model.SubjectLeaderboard;
+
+/**
+ * Накопитель лучших и худших учеников по каждому предмету за один общий проход.
+ *
+ * <p>Состояние хранится в массивах, индексированных идентификаторами предметов
+ * {@link SubjectDictionary}: высшая и низшая оценка, сколько учеников их получили, и кучи
+ * ограниченного размера для {@code limit} лучших и худших. Ученик просматривается один
+ * раз, и за этот просмотр обновляются все его предметы. Накопители частей набора
+ * объединяются через {@link #merge}; экземпляр не потокобезопасен.
+ */
+public class SubjectLeaderboardAccumulator {
+  private final int limit;
+  private int[] maxGrades = new int[0];
+  private long[] maxGradeCounts = new long[0];
+  private int[] minGrades = new int[0];
+  private long[] minGradeCounts = new long[0];
+  private PriorityQueue<Student>[] top = newQueues(0);
+  private PriorityQueue<Student>[] bottom = newQueues(0);
+  private Comparator<Student>[] bestOrders = newOrders(0);
+  private Comparator<Student>[] worstOrders = newOrders(0);
+
+  public SubjectLeaderboardAccumulator(int limit) {
+    if (limit < 1) {
+      throw new IllegalArgumentException("Размер рейтинга должен быть положительным: " + limit);
+    }
+    this.limit = limit;
+  }
+
+  /**
+   * Учитывает все оценки ученика.
+   */
+  public void add(Student student) {
+    int bound = student.getSubjectIdBound();
+    ensureCapacity(bound);
+    for (int id = 0; id < bound; id++) {
+      int grade = student.getGrade(id);
+      if (grade != 0) {
+        countExtremes(id, grade, 1, grade, 1);
+        offer(top, id, student, bestOrder(id));
+        offer(bottom, id, student, worstOrder(id));
+      }
+    }
+  }
+
+  /**
+   * Добавляет итоги другого накопителя того же размера.
+   */
+  public void merge(SubjectLeaderboardAccumulator other) {
+    ensureCapacity(other.maxGrades.length);
+    for (int id = 0; id < other.maxGrades.length; id++) {
+      if (other.maxGradeCounts[id] == 0) {
+        continue;
+      }
+      countExtremes(id, other.maxGrades[id], other.maxGradeCounts[id], other.minGrades[id],
+          other.minGradeCounts[id]);
+      for (Student student : other.top[id]) {
+        offer(top, id, student, bestOrder(id));
+      }
+      for (Student student : other.bottom[id]) {
+        offer(bottom, id, student, worstOrder(id));
+      }
+    }
+  }
+
+  /**
+   * Рейтинги по предметам в алфавитном порядке названий.
+   */
+  public Map<String, SubjectLeaderboard> getLeaderboards() {
+    SubjectDictionary dictionary = SubjectDictionary.getInstance();
+    Map<String, SubjectLeaderboard> leaderboards = new TreeMap<>();
+    for (int id = 0; id < maxGrades.length; id++) {
+      if (maxGradeCounts[id] == 0) {
+        continue;
+      }
+      String subject = dictionary.nameOf(id);
+      leaderboards.put(subject, new SubjectLeaderboard(subject, maxGrades[id],
+          maxGradeCounts[id], minGrades[id], minGradeCounts[id],
+          sorted(top[id], bestOrder(id)), sorted(bottom[id], worstOrder(id))));
+    }
+    return leaderboards;
+  }
+
+  private void countExtremes(int id, int max, long maxCount, int min, long minCount) {
+    if (maxGradeCounts[id] == 0 || max > maxGrades[id]) {
+      maxGrades[id] = max;
+      maxGradeCounts[id] = maxCount;
+    } else if (max == maxGrades[id]) {
+      maxGradeCounts[id] += maxCount;
+    }
+    if (minGradeCounts[id] == 0 || min < minGrades[id]) {
+      minGrades[id] = min;
+      minGradeCounts[id] = minCount;
+    } else if (min == minGrades[id]) {
+      minGradeCounts[id] += minCount;
+    }
+  }
+
+  private void offer(PriorityQueue<Student>[] queues, int id, Student student,
+                     Comparator<Student> order) {
+    PriorityQueue<Student> queue = queues[id];
+    if (queue == null) {
+      queue = new PriorityQueue<>(limit, order.reversed());
+      queues[id] = queue;
+    }
+    if (queue.size() < limit) {
+      queue.add(student);
+    } else if (order.compare(student, queue.peek()) < 0) {
+      queue.poll();
+      queue.add(student);
+    }
+  }
+
+  private void ensureCapacity(int bound) {
+    if (bound <= maxGrades.length) {
+      return;
+    }
+    maxGrades = Arrays.copyOf(maxGrades, bound);
+    maxGradeCounts = Arrays.copyOf(maxGradeCounts, bound);
+    minGrades = Arrays.copyOf(minGrades, bound);
+    minGradeCounts = Arrays.copyOf(minGradeCounts, bound);
+    top = Arrays.copyOf(top, bound);
+    bottom = Arrays.copyOf(bottom, bound);
+    bestOrders = Arrays.copyOf(bestOrders, bound);
+    worstOrders = Arrays.copyOf(worstOrders, bound);
+  }
+
+  private Comparator<Student> bestOrder(int id) {
+    if (bestOrders[id] == null) {
+      bestOrders[id] = bestFirst(id);
+    }
+    return bestOrders[id];
+  }
+
+  private Comparator<Student> worstOrder(int id) {
+    if (worstOrders[id] == null) {
+      worstOrders[id] = worstFirst(id);
+    }
+    return worstOrders[id];
+  }
+
+  /**
+   * Порядок от лучшего по предмету: оценка, затем порядок общего рейтинга.
+   */
+  static Comparator<Student> bestFirst(int subjectId) {
+    return Comparator.<Student>comparingInt(student -> -student.getGrade(subjectId))
+        .thenComparing(LeaderboardAccumulator.BEST_FIRST);
+  }
+
+  static Comparator<Student> worstFirst(int subjectId) {
+    return Comparator.<Student>comparingInt(student -> student.getGrade(subjectId))
+        .thenComparing(LeaderboardAccumulator.WORST_FIRST);
+  }
+
+  private static List<Student> sorted(PriorityQueue<Student> queue, Comparator<Student> order) {
+    List<Student> students = new ArrayList<>(queue);
+    students.sort(order);
+    return students;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Comparator<Student>[] newOrders(int length) {
+    return new Comparator[length];
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static PriorityQueue<Student>[] newQueues(int length) {
+    return new PriorityQueue[length];
+  }
+}
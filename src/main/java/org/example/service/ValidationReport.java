@@ -0,0 +1,71 @@
+package org.example.service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.example.model.ParseResult;
+import org.example.model.ValidationErrorKind;
+
+/**
+ * Сводка ошибок валидации за один прогон: количество ошибок каждого вида и несколько
+ * примеров файлов. Безопасна для записи из нескольких потоков.
+ */
+public class ValidationReport {
+  static final int MAX_SAMPLES = 10;
+
+  private final Map<ValidationErrorKind, LongAdder> counts =
+      new EnumMap<>(ValidationErrorKind.class);
+  private final Map<ValidationErrorKind, List<ParseResult>> samples =
+      new EnumMap<>(ValidationErrorKind.class);
+
+  public ValidationReport() {
+    for (ValidationErrorKind kind : ValidationErrorKind.values()) {
+      counts.put(kind, new LongAdder());
+      samples.put(kind, new ArrayList<>());
+    }
+  }
+
+  /**
+   * Учитывает неуспешный результат разбора; успешные результаты игнорируются.
+   */
+  public void record(ParseResult result) {
+    if (result.isSuccess()) {
+      return;
+    }
+    counts.get(result.getErrorKind()).increment();
+    List<ParseResult> kindSamples = samples.get(result.getErrorKind());
+    synchronized (kindSamples) {
+      if (kindSamples.size() < MAX_SAMPLES) {
+        kindSamples.add(result);
+      }
+    }
+  }
+
+  public long getCount(ValidationErrorKind kind) {
+    return counts.get(kind).sum();
+  }
+
+  public long getTotalCount() {
+    long total = 0;
+    for (LongAdder count : counts.values()) {
+      total += count.sum();
+    }
+    return total;
+  }
+
+  public boolean isEmpty() {
+    return getTotalCount() == 0;
+  }
+
+  /**
+   * Возвращает первые {@value #MAX_SAMPLES} ошибок указанного вида.
+   */
+  public List<ParseResult> getSamples(ValidationErrorKind kind) {
+    List<ParseResult> kindSamples = samples.get(kind);
+    synchronized (kindSamples) {
+      return new ArrayList<>(kindSamples);
+    }
+  }
+}
@@ -0,0 +1,201 @@
+package org.example.service;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Циклы агрегации на {@code jdk.incubator.vector} с векторами предпочтительной для
+ * процессора длины. Хвосты массивов и редкие векторы, в которых есть кандидат, досчитываются
+ * {@link ScalarAggregationKernels}, поэтому результаты совпадают со скалярными.
+ *
+ * <p>Загружается только через {@link AggregationKernelsLoader}, при подключенном модуле.
+ */
+final class VectorAggregationKernels implements AggregationKernels {
+  private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+  private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+  private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+  private static final int LONG_PARTS = INTS.length() / LONGS.length();
+  private static final int LOW_BYTES = 0x00FF00FF;
+  /**
+   * Если суммы и количества меньше этой границы, их попарные произведения помещаются в
+   * {@code int} и сравнение обходится без расширения до {@code long}.
+   */
+  private static final int INT_PRODUCT_BOUND = 46_340;
+  /**
+   * Через сколько векторов переносить 16-битные частичные суммы: за вектор каждая половина
+   * {@code int} растет не больше чем на 2 * 127.
+   */
+  private static final int PAIR_SUM_FLUSH = 256;
+  // Виды сравнения для anyMatch; оператор сравнения должен быть константой в месте вызова,
+  // иначе Vector API не компилирует его в машинную инструкцию
+  private static final int GREATER = 1;
+  private static final int LESS = -1;
+  private static final int EQUAL = 0;
+
+  @Override
+  public String getName() {
+    return "vector " + BYTES.vectorBitSize() + " бит";
+  }
+
+  /**
+   * Оценки неотрицательны, поэтому байты суммируются без расширения: вектор читается как
+   * {@code int}, соседние байты складываются в 16-битные половины, которые периодически
+   * переносятся в общую сумму.
+   */
+  @Override
+  public long sum(byte[] grades, int length) {
+    int bound = BYTES.loopBound(length);
+    long sum = 0;
+    IntVector pairSums = IntVector.zero(INTS);
+    int pending = 0;
+    for (int i = 0; i < bound; i += BYTES.length()) {
+      IntVector words = ByteVector.fromArray(BYTES, grades, i).reinterpretAsInts();
+      pairSums = pairSums.add(words.and(LOW_BYTES))
+          .add(words.lanewise(VectorOperators.LSHR, 8).and(LOW_BYTES));
+      if (++pending == PAIR_SUM_FLUSH) {
+        sum += flushPairSums(pairSums);
+        pairSums = IntVector.zero(INTS);
+        pending = 0;
+      }
+    }
+    return sum + flushPairSums(pairSums) + ScalarAggregationKernels.sum(grades, bound, length);
+  }
+
+  @Override
+  public int countNonZero(byte[] grades, int length) {
+    int bound = BYTES.loopBound(length);
+    int count = 0;
+    for (int i = 0; i < bound; i += BYTES.length()) {
+      count += ByteVector.fromArray(BYTES, grades, i)
+          .compare(VectorOperators.NE, (byte) 0).trueCount();
+    }
+    return count + ScalarAggregationKernels.countNonZero(grades, bound, length);
+  }
+
+  @Override
+  public void histogram(byte[] grades, int length, long[] counts) {
+    int bound = BYTES.loopBound(length);
+    for (int i = 0; i < bound; i += BYTES.length()) {
+      ByteVector vector = ByteVector.fromArray(BYTES, grades, i);
+      for (int grade = 1; grade <= counts.length; grade++) {
+        counts[grade - 1] += vector.eq((byte) grade).trueCount();
+      }
+    }
+    ScalarAggregationKernels.histogram(grades, bound, length, counts);
+  }
+
+  /**
+   * Каждый вектор строк сравнивается с текущим кандидатом перекрестным умножением в
+   * {@code int}, если позволяют значения, иначе в {@code long}; скалярный поиск
+   * запускается только для вектора со строго лучшей строкой.
+   */
+  @Override
+  public int findExtremeAverage(int[] sums, int[] counts, int length, boolean maximum) {
+    if (length == 0) {
+      return -1;
+    }
+    int better = maximum ? GREATER : LESS;
+    boolean intProducts = fitsIntProducts(sums, counts, length);
+    int bound = INTS.loopBound(length);
+    int best = 0;
+    for (int i = 0; i < bound; i += INTS.length()) {
+      if (anyMatch(sums, counts, i, sums[best], counts[best], better, intProducts)) {
+        best = ScalarAggregationKernels.findExtremeAverage(sums, counts, i, i + INTS.length(),
+            best, maximum);
+      }
+    }
+    return ScalarAggregationKernels.findExtremeAverage(sums, counts, bound, length, best,
+        maximum);
+  }
+
+  @Override
+  public int findEqualAverages(int[] sums, int[] counts, int length, long targetSum,
+                               long targetCount, int[] rows) {
+    boolean intProducts = targetSum < INT_PRODUCT_BOUND && targetCount < INT_PRODUCT_BOUND
+        && fitsIntProducts(sums, counts, length);
+    int bound = INTS.loopBound(length);
+    int found = 0;
+    for (int i = 0; i < bound; i += INTS.length()) {
+      if (anyMatch(sums, counts, i, targetSum, targetCount, EQUAL, intProducts)) {
+        found = ScalarAggregationKernels.findEqualAverages(sums, counts, i, i + INTS.length(),
+            targetSum, targetCount, rows, found);
+      }
+    }
+    return ScalarAggregationKernels.findEqualAverages(sums, counts, bound, length, targetSum,
+        targetCount, rows, found);
+  }
+
+  private static long flushPairSums(IntVector pairSums) {
+    return pairSums.and(0xFFFF).add(pairSums.lanewise(VectorOperators.LSHR, 16))
+        .reduceLanesToLong(VectorOperators.ADD);
+  }
+
+  /**
+   * Все ли суммы и количества неотрицательны и меньше {@link #INT_PRODUCT_BOUND}.
+   */
+  private static boolean fitsIntProducts(int[] sums, int[] counts, int length) {
+    int bound = INTS.loopBound(length);
+    IntVector maximum = IntVector.zero(INTS);
+    IntVector minimum = IntVector.zero(INTS);
+    for (int i = 0; i < bound; i += INTS.length()) {
+      IntVector rowSums = IntVector.fromArray(INTS, sums, i);
+      IntVector rowCounts = IntVector.fromArray(INTS, counts, i);
+      maximum = maximum.max(rowSums).max(rowCounts);
+      minimum = minimum.min(rowSums).min(rowCounts);
+    }
+    int max = maximum.reduceLanes(VectorOperators.MAX);
+    int min = minimum.reduceLanes(VectorOperators.MIN);
+    for (int i = bound; i < length; i++) {
+      max = Math.max(max, Math.max(sums[i], counts[i]));
+      min = Math.min(min, Math.min(sums[i], counts[i]));
+    }
+    return min >= 0 && max < INT_PRODUCT_BOUND;
+  }
+
+  /**
+   * Есть ли в векторе строк с позиции {@code from} строка, для которой
+   * {@code sum / count <comparison> targetSum / targetCount}. Цель должна быть одной из строк
+   * или, при {@code intProducts}, тоже меньше {@link #INT_PRODUCT_BOUND}.
+   */
+  private static boolean anyMatch(int[] sums, int[] counts, int from, long targetSum,
+                                  long targetCount, int comparison, boolean intProducts) {
+    long divisor = Math.max(targetCount, 1);
+    IntVector rowSums = IntVector.fromArray(INTS, sums, from);
+    IntVector rowCounts = IntVector.fromArray(INTS, counts, from)
+        .lanewise(VectorOperators.MAX, 1);
+    if (intProducts) {
+      return compare(rowSums.mul((int) divisor), rowCounts.mul((int) targetSum), comparison)
+          .anyTrue();
+    }
+    for (int part = 0; part < LONG_PARTS; part++) {
+      LongVector left = ((LongVector) rowSums.convertShape(VectorOperators.I2L, LONGS, part))
+          .mul(divisor);
+      LongVector right = ((LongVector) rowCounts.convertShape(VectorOperators.I2L, LONGS, part))
+          .mul(targetSum);
+      if (compare(left, right, comparison).anyTrue()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static VectorMask<Integer> compare(IntVector left, IntVector right, int comparison) {
+    return switch (comparison) {
+      case GREATER -> left.compare(VectorOperators.GT, right);
+      case LESS -> left.compare(VectorOperators.LT, right);
+      default -> left.compare(VectorOperators.EQ, right);
+    };
+  }
+
+  private static VectorMask<Long> compare(LongVector left, LongVector right, int comparison) {
+    return switch (comparison) {
+      case GREATER -> left.compare(VectorOperators.GT, right);
+      case LESS -> left.compare(VectorOperators.LT, right);
+      default -> left.compare(VectorOperators.EQ, right);
+    };
+  }
+}
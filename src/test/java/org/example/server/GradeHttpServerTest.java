@@ -0,0 +1,139 @@
+package org.example.server;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Issue;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.example.model.Student;
+import org.example.service.GradeAnalyzerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Тестирование HTTP-сервера анализа оценок")
+@Epic("Анализ успеваемости")
+@Feature("HTTP-сервер")
+public class GradeHttpServerTest {
+
+  private List<Student> students;
+  private GradeAnalyzerService analyzerService;
+  private HttpClient client;
+
+  @BeforeEach
+  void setUp() {
+    students = new ArrayList<>(List.of(
+        new Student("Иванов Иван Иванович", Map.of("Математика", 5, "Физика", 4)),
+        new Student("Петров Петр Петрович", Map.of("Математика", 3, "Физика", 3)),
+        new Student("Сидорова Анна Викторовна", Map.of("Математика", 4, "Физика", 5))));
+    analyzerService = new GradeAnalyzerService() {
+      @Override
+      public List<Student> readStudentsFromDirectory(String directoryPath, int parallelism) {
+        return List.copyOf(students);
+      }
+    };
+    client = HttpClient.newHttpClient();
+  }
+
+  @Test
+  @DisplayName("Ответы сервера и перезагрузка данных")
+  @Description("Проверяем JSON-ответы со средними, лучшими учениками, рейтингом и поиском ученика, ответ 400 на некорректные параметры, параллельные запросы и подмену снимка после перезагрузки")
+  @Severity(SeverityLevel.NORMAL)
+  @Story("Доступ к результатам по HTTP")
+  @Issue("TASK-601")
+  void testServerEndpointsAndReload() throws Exception {
+    try (GradeHttpServer server = new GradeHttpServer(analyzerService, "оценки", 0)) {
+      server.start();
+      String base = "http://127.0.0.1:" + server.getPort();
+      Allure.parameter("Адрес", base);
+
+      String averages = get(base + "/api/averages").body();
+      assertTrue(averages.contains("\"Математика\":4.0") && averages.contains("\"Физика\":4.0"),
+          averages);
+      assertTrue(get(base + "/api/best").body().startsWith("[{\"fullName\":\"Иванов"));
+      HttpResponse<String> page = get(base + "/api/leaderboard?page=1&size=2");
+      assertEquals(200, page.statusCode());
+      assertTrue(page.body().contains("\"top\":[{\"fullName\":\"Петров"),
+          "На второй странице по 2 должен быть третий ученик");
+
+      String name = URLEncoder.encode("сидорова  анна викторовна", StandardCharsets.UTF_8);
+      HttpResponse<String> lookup = get(base + "/api/students?name=" + name);
+      assertEquals(200, lookup.statusCode());
+      assertTrue(lookup.body().contains("\"rank\":1"),
+          "Равный балл с Ивановым - общее первое место");
+      assertEquals(404, get(base + "/api/students?name=x").statusCode());
+      assertEquals(400, get(base + "/api/leaderboard?page=-1").statusCode());
+      assertEquals(400, rawStatus(server.getPort(), "/api/students?name=%zz"),
+          "Некорректное %-кодирование - ошибка клиента, а не сбой обработчика");
+      assertEquals(400, rawStatus(server.getPort(), "/api/leaderboard?page=%"));
+      assertTrue(server.getAddress().getAddress().isLoopbackAddress(),
+          "По умолчанию сервер слушает только петлевой интерфейс");
+      assertEquals(405, get(base + "/api/reload").statusCode());
+
+      List<CompletableFuture<HttpResponse<String>>> parallel = new ArrayList<>();
+      for (int i = 0; i < 50; i++) {
+        parallel.add(client.sendAsync(request(base + "/api/summary").build(),
+            HttpResponse.BodyHandlers.ofString()));
+      }
+      for (CompletableFuture<HttpResponse<String>> response : parallel) {
+        assertTrue(response.get().body().contains("\"studentCount\":3"));
+      }
+
+      students.add(new Student("Смирнов Семен Семенович", Map.of("Математика", 2)));
+      HttpResponse<String> reload = client.send(
+          request(base + "/api/reload").POST(HttpRequest.BodyPublishers.noBody()).build(),
+          HttpResponse.BodyHandlers.ofString());
+      assertEquals(200, reload.statusCode());
+      assertTrue(reload.body().contains("\"studentCount\":4"));
+      assertTrue(get(base + "/api/worst").body().contains("Смирнов"),
+          "После перезагрузки должен отдаваться новый снимок");
+    }
+  }
+
+  private HttpResponse<String> get(String uri) throws IOException, InterruptedException {
+    return client.send(request(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
+  }
+
+  /**
+   * Статус ответа на запрос с путем как есть: {@link URI} не пропускает некорректное
+   * %-кодирование, поэтому запрос пишется в сокет напрямую.
+   */
+  private int rawStatus(int port, String pathAndQuery) throws IOException {
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+      OutputStream output = socket.getOutputStream();
+      output.write(("GET " + pathAndQuery + " HTTP/1.1\r\nHost: localhost\r\n"
+          + "Connection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+      output.flush();
+      BufferedReader input = new BufferedReader(
+          new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+      return Integer.parseInt(input.readLine().split(" ")[1]);
+    }
+  }
+
+  private HttpRequest.Builder request(String uri) {
+    return HttpRequest.newBuilder(URI.create(uri));
+  }
+}
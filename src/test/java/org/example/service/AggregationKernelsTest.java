@@ -0,0 +1,110 @@
+package org.example.service;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Issue;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Step;
+import io.qameta.allure.Story;
+import org.example.model.GradeDistribution;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("Тестирование циклов агрегации")
+@Epic("Анализ успеваемости")
+@Feature("Циклы агрегации")
+public class AggregationKernelsTest {
+
+  // Длины вокруг ширины вектора (до 64 байт) и длиннее 256 векторов, после которых
+  // переносятся 16-битные частичные суммы
+  private static final int[] LENGTHS = {0, 1, 15, 16, 17, 31, 33, 63, 64, 65, 127, 129,
+      256 * 16 + 1, 256 * 64 - 1, 256 * 64 + 1, 300 * 64 + 13, 3 * 256 * 64 + 7};
+
+  private final AggregationKernels vector = new VectorAggregationKernels();
+  private final AggregationKernels scalar = AggregationKernels.scalar();
+
+  @Test
+  @DisplayName("Суммы, количества и распределения оценок")
+  @Description("Проверяем, что векторные циклы считают суммы, количества ненулевых оценок и распределения так же, как скалярные, на случайных данных, на хвостах, не кратных ширине вектора, и на массивах длиннее 256 векторов, в том числе из наибольших байт, при которых переполнились бы непереносимые 16-битные суммы")
+  @Severity(SeverityLevel.CRITICAL)
+  @Story("Векторные циклы")
+  @Issue("TASK-1201")
+  void testGradeColumnKernelsMatchScalar() {
+    Allure.parameter("Циклы", vector.getName());
+    Random random = new Random(11);
+    byte[] grades = new byte[LENGTHS[LENGTHS.length - 1]];
+    for (int i = 0; i < grades.length; i++) {
+      grades[i] = (byte) random.nextInt(GradeDistribution.MAX_GRADE + 1);
+    }
+    stepVerifyGradeColumn(grades);
+
+    byte[] wide = new byte[grades.length];
+    for (int i = 0; i < wide.length; i++) {
+      wide[i] = (byte) random.nextInt(Byte.MAX_VALUE + 1);
+    }
+    stepVerifyGradeColumn(wide);
+
+    byte[] saturated = new byte[grades.length];
+    Arrays.fill(saturated, Byte.MAX_VALUE);
+    stepVerifyGradeColumn(saturated);
+  }
+
+  @Test
+  @DisplayName("Поиск крайнего и равного среднего")
+  @Description("Проверяем, что векторные циклы находят ту же строку с наибольшим и наименьшим средним и те же строки с равным средним, что и скалярные, для малых сумм и для сумм выше границы сравнения в int")
+  @Severity(SeverityLevel.CRITICAL)
+  @Story("Векторные циклы")
+  @Issue("TASK-1202")
+  void testAverageKernelsMatchScalar() {
+    Random random = new Random(13);
+    for (int scale : new int[] {1, 10_000}) {
+      int length = 1000 + scale % 7;
+      int[] sums = new int[length];
+      int[] counts = new int[length];
+      for (int i = 0; i < length; i++) {
+        counts[i] = scale * (1 + random.nextInt(12));
+        sums[i] = counts[i] + scale * random.nextInt(counts[i] / scale * 4 + 1);
+      }
+      for (int tail : new int[] {0, 1, 7, length}) {
+        assertEquals(scalar.findExtremeAverage(sums, counts, tail, true),
+            vector.findExtremeAverage(sums, counts, tail, true), "Наибольшее, длина " + tail);
+        assertEquals(scalar.findExtremeAverage(sums, counts, tail, false),
+            vector.findExtremeAverage(sums, counts, tail, false), "Наименьшее, длина " + tail);
+      }
+
+      int[] expectedRows = new int[length];
+      int[] actualRows = new int[length];
+      int expected = scalar.findEqualAverages(sums, counts, length, sums[3], counts[3],
+          expectedRows);
+      int actual = vector.findEqualAverages(sums, counts, length, sums[3], counts[3],
+          actualRows);
+      assertEquals(expected, actual, "Число строк с равным средним, масштаб " + scale);
+      assertArrayEquals(Arrays.copyOf(expectedRows, expected),
+          Arrays.copyOf(actualRows, actual));
+    }
+  }
+
+  @Step("Сравнение векторных и скалярных циклов по столбцу оценок")
+  private void stepVerifyGradeColumn(byte[] grades) {
+    for (int length : LENGTHS) {
+      assertEquals(scalar.sum(grades, length), vector.sum(grades, length),
+          "Сумма, длина " + length);
+      assertEquals(scalar.countNonZero(grades, length), vector.countNonZero(grades, length),
+          "Количество, длина " + length);
+      long[] expected = new long[GradeDistribution.MAX_GRADE];
+      long[] actual = new long[GradeDistribution.MAX_GRADE];
+      scalar.histogram(grades, length, expected);
+      vector.histogram(grades, length, actual);
+      assertArrayEquals(expected, actual, "Распределение, длина " + length);
+    }
+  }
+}
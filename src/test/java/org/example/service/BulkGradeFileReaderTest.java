@@ -0,0 +1,189 @@
+package org.example.service;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Issue;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Step;
+import io.qameta.allure.Story;
+import org.example.model.ParseResult;
+import org.example.model.Student;
+import org.example.model.ValidationErrorKind;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Тестирование чтения общего файла оценок")
+@Epic("Анализ успеваемости")
+@Feature("Чтение общего файла оценок")
+public class BulkGradeFileReaderTest {
+
+  private static final String[] SUBJECTS = {"Математика", "Физика", "Химия", "История",
+      "Биология"};
+  private static final String[] LINE_ENDINGS = {"\n", "\r\n", "\r"};
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  @DisplayName("Строки на границах блоков")
+  @Description("Проверяем, что при любом размере блока и числе потоков строки с окончаниями \\n, \\r\\n и \\r, попавшие на границу блоков, не теряются и не разрываются, а студенты идут в порядке первого появления")
+  @Severity(SeverityLevel.CRITICAL)
+  @Story("Разбиение на блоки")
+  @Issue("TASK-1001")
+  void testChunkBoundariesAndMergeOrder() throws IOException {
+    StringBuilder content = new StringBuilder("\uFEFF");
+    int row = 0;
+    // Первый студент получает последний предмет в самом конце файла, уже в другом блоке
+    for (int student = 0; student < 12; student++) {
+      int subjects = student == 0 ? SUBJECTS.length - 1 : SUBJECTS.length;
+      for (int subject = 0; subject < subjects; subject++) {
+        content.append(fullName(student)).append(';').append(SUBJECTS[subject]).append(';')
+            .append(1 + (student + subject) % 5).append(LINE_ENDINGS[row++ % 3]);
+      }
+    }
+    content.append(fullName(0)).append(" ; ").append(SUBJECTS[SUBJECTS.length - 1])
+        .append(" ; 5");
+    Path file = stepWriteFile(content.toString());
+
+    for (int chunkSize : new int[] {1, 7, 40, 41, 97, 500, 1 << 20}) {
+      for (int parallelism : new int[] {1, 4}) {
+        List<Student> students = new BulkGradeFileReader(chunkSize).read(file, parallelism);
+        Allure.parameter("Размер блока " + chunkSize + ", потоков " + parallelism,
+            students.size());
+        stepVerifyStudents(students);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Ошибочная строка исключает студента целиком")
+  @Description("Проверяем, что первая ошибочная строка студента исключает его целиком и учитывается в ValidationReport один раз с номером строки от начала файла при разбиении на блоки, а строка без разделителей учитывается отдельно")
+  @Severity(SeverityLevel.NORMAL)
+  @Story("Валидация содержимого")
+  @Issue("TASK-1002")
+  void testRowErrorsReachValidationReport() throws IOException {
+    StringBuilder content = new StringBuilder();
+    for (int student = 0; student < 3; student++) {
+      for (int subject = 0; subject < SUBJECTS.length; subject++) {
+        content.append(fullName(student)).append(';').append(SUBJECTS[subject])
+            .append(";5\r\n");
+      }
+    }
+    content.append("без разделителей\r")
+        .append(fullName(0)).append(";Физика;пять\n")
+        .append(fullName(0)).append(";Физика;7\r\n")
+        .append(fullName(1)).append(";Химия\n")
+        .append("Петров Петр Петрович;Физика;4\n");
+    Path file = stepWriteFile(content.toString());
+
+    ValidationReport validationReport = new ValidationReport();
+    List<Student> students = new BulkGradeFileReader(16).read(file, 4, validationReport);
+
+    assertEquals(List.of(fullName(2)), students.stream().map(Student::getFullName).toList());
+    assertEquals(4, validationReport.getTotalCount(), "Каждый студент учитывается один раз");
+    assertEquals(List.of(16, 19), validationReport.getSamples(
+        ValidationErrorKind.INVALID_ROW_FORMAT).stream().map(ParseResult::getLine).sorted()
+        .toList(), "Номера строк считаются от начала файла");
+    ParseResult gradeError =
+        validationReport.getSamples(ValidationErrorKind.INVALID_GRADE_FORMAT).get(0);
+    assertEquals(17, gradeError.getLine(), "Учитывается первая ошибочная строка студента");
+    assertTrue(gradeError.getFile().endsWith(fullName(0)));
+    assertEquals(0, validationReport.getCount(ValidationErrorKind.GRADE_OUT_OF_RANGE));
+    assertEquals(1, validationReport.getCount(ValidationErrorKind.TOO_FEW_LINES),
+        "Студент с одним предметом пропускается и учитывается");
+  }
+
+  @Test
+  @DisplayName("Общий файл и отдельные файлы дают одинаковый результат")
+  @Description("Проверяем, что одни и те же оценки с ошибочными строками, прочитанные из общего файла и из файлов отдельных студентов, дают тех же студентов, те же средние и те же виды ошибок")
+  @Severity(SeverityLevel.CRITICAL)
+  @Story("Валидация содержимого")
+  @Issue("TASK-1003")
+  void testBulkMatchesPerFileReader() throws IOException {
+    String[][] grades = {
+        {"5", "4", "3", "2", "1"},
+        {"5", "пять", "4", "4", "4"},
+        {"3", "3", "7", "3", "3"},
+        {"4", "4", "4"},
+        {"2", "0", "пять", "2", "2", "2"},
+        {"1", "2", "3", "4", "5", "4"},
+    };
+    Path directory = Files.createDirectory(tempDir.resolve("ученики"));
+    StringBuilder bulk = new StringBuilder();
+    for (int student = 0; student < grades.length; student++) {
+      StringBuilder perFile = new StringBuilder();
+      for (int subject = 0; subject < grades[student].length; subject++) {
+        String subjectName = subject < SUBJECTS.length ? SUBJECTS[subject] : "Литература";
+        perFile.append(subjectName).append(" - ").append(grades[student][subject])
+            .append('\n');
+        bulk.append(fullName(student)).append(';').append(subjectName).append(';')
+            .append(grades[student][subject]).append('\n');
+      }
+      Files.writeString(directory.resolve(fullName(student) + ".txt"), perFile.toString(),
+          StandardCharsets.UTF_8);
+    }
+    Path file = stepWriteFile(bulk.toString());
+
+    ValidationReport perFileReport = new ValidationReport();
+    List<Student> perFileStudents =
+        new StudentFileReader().readStudentsFromDirectory(directory.toString(), 1, perFileReport);
+    for (int chunkSize : new int[] {16, 1 << 20}) {
+      ValidationReport bulkReport = new ValidationReport();
+      List<Student> bulkStudents =
+          new BulkGradeFileReader(chunkSize).read(file, 4, bulkReport);
+
+      assertEquals(names(perFileStudents), names(bulkStudents));
+      GradeCalculator calculator = new GradeCalculator();
+      assertEquals(calculator.calculateAverageGradesBySubject(perFileStudents),
+          calculator.calculateAverageGradesBySubject(bulkStudents));
+      for (ValidationErrorKind kind : ValidationErrorKind.values()) {
+        assertEquals(perFileReport.getCount(kind), bulkReport.getCount(kind), kind.name());
+      }
+    }
+  }
+
+  @Step("Проверка студентов и их оценок")
+  private void stepVerifyStudents(List<Student> students) {
+    assertEquals(12, students.size());
+    for (int student = 0; student < students.size(); student++) {
+      assertEquals(fullName(student), students.get(student).getFullName(),
+          "Студенты должны идти в порядке первого появления");
+      Map<String, Integer> grades = students.get(student).getGrades();
+      assertEquals(SUBJECTS.length, grades.size());
+      for (int subject = 0; subject < SUBJECTS.length; subject++) {
+        int expected = student == 0 && subject == SUBJECTS.length - 1
+            ? 5 : 1 + (student + subject) % 5;
+        assertEquals(Integer.valueOf(expected), grades.get(SUBJECTS[subject]));
+      }
+    }
+  }
+
+  @Step("Создание общего файла оценок")
+  private Path stepWriteFile(String content) throws IOException {
+    return Files.writeString(tempDir.resolve("оценки.csv"), content, StandardCharsets.UTF_8);
+  }
+
+  private static Set<String> names(List<Student> students) {
+    return students.stream().map(Student::getFullName).collect(Collectors.toSet());
+  }
+
+  private static String fullName(int student) {
+    return "Ученик" + (char) ('А' + student) + " Иван Иванович";
+  }
+}
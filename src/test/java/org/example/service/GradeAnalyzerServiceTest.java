@@ -9,17 +9,32 @@ import io.qameta.allure.Severity;
 import io.qameta.allure.SeverityLevel;
 import io.qameta.allure.Step;
 import io.qameta.allure.Story;
+import org.example.model.AnalysisReport;
 import org.example.model.Student;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DisplayName("Тестирование сервиса анализа успеваемости")
@@ -30,6 +45,9 @@ public class GradeAnalyzerServiceTest {
   private GradeAnalyzerService analyzerService;
   private List<Student> students;
 
+  @TempDir
+  Path tempDir;
+
   @BeforeEach
   void setUp() {
     analyzerService = new GradeAnalyzerService();
@@ -72,6 +90,231 @@ public class GradeAnalyzerServiceTest {
     stepVerifyWorstStudents(worstStudents);
   }
 
+  @Test
+  @DisplayName("Параллельный анализ совпадает с последовательным")
+  @Description("Проверяем, что анализ на ForkJoinPool дает те же средние и тот же состав и порядок лучших и худших учеников, что и последовательный расчет")
+  @Severity(SeverityLevel.NORMAL)
+  @Story("Параллельный анализ")
+  @Issue("TASK-204")
+  void testAnalyzeInParallelMatchesSequential() {
+    List<Student> manyStudents = new ArrayList<>();
+    for (int i = 0; i < ParallelGradeAnalyzer.CHUNK_SIZE * 3; i++) {
+      manyStudents.add(students.get(i % students.size()));
+    }
+    Allure.parameter("Количество студентов", manyStudents.size());
+
+    AnalysisReport report = analyzerService.analyzeInParallel(manyStudents, 4);
+
+    assertEquals(analyzerService.calculateAverageGradesBySubject(manyStudents),
+        report.getAverageGrades(), "Средние должны совпадать с последовательным расчетом");
+    assertEquals(analyzerService.findBestStudents(manyStudents), report.getBestStudents(),
+        "Лучшие ученики должны совпадать с последовательным расчетом");
+    assertEquals(analyzerService.findWorstStudents(manyStudents), report.getWorstStudents(),
+        "Худшие ученики должны совпадать с последовательным расчетом");
+  }
+
+  @Test
+  @DisplayName("Куб оценок по школам, классам и предметам")
+  @Description("Проверяем, что итоги по классу, школе и всему набору из куба совпадают с расчетом по соответствующей части студентов, а детализация идет по школам и их классам")
+  @Severity(SeverityLevel.NORMAL)
+  @Story("Детализация по школам и классам")
+  @Issue("TASK-205")
+  void testGradeCubeRollups() {
+    Student first = new Student("Иванов Иван Иванович", Map.of("Математика", 5, "Физика", 4),
+        "Школа 1/5А");
+    Student second = new Student("Петров Петр Петрович", Map.of("Математика", 3),
+        "Школа 1/6Б");
+    Student third = new Student("Сидоров Сидор Сидорович", Map.of("Физика", 2),
+        "Школа 2/5А/группа 1");
+    GradeCube cube = new GradeCube();
+    List.of(first, second, third).forEach(cube::add);
+    Allure.parameter("Школы", cube.getSchools());
+
+    assertEquals(List.of("Школа 1", "Школа 2"), new ArrayList<>(cube.getSchools()));
+    assertEquals(List.of("5А/группа 1"), new ArrayList<>(cube.getClasses("Школа 2")));
+    assertEquals(analyzerService.calculateAverageGradesBySubject(List.of(first, second)),
+        cube.rollup("Школа 1").getAverageGrades(), "Средние по школе должны совпадать");
+    assertEquals(List.of(first), cube.rollup("Школа 1").getBestStudents());
+    assertEquals(List.of(second), cube.rollup("Школа 1", "6Б").getBestStudents());
+    assertEquals(analyzerService.calculateAverageGradesBySubject(List.of(first, second, third)),
+        cube.rollup().getAverageGrades(), "Средние по всему набору должны совпадать");
+    assertEquals(List.of(third), cube.rollup().getWorstStudents());
+    assertEquals(0, cube.rollup("Школа 3").getStudentCount());
+
+    AnalysisReport report = cube.toReport();
+    assertEquals(3, report.getStudentCount());
+    assertEquals(5, report.getCohortSummaries().size(), "2 школы и 3 класса");
+    assertTrue(report.getCohortSummaries().get(0).isSchoolTotal());
+    assertEquals("5А", report.getCohortSummaries().get(1).getSchoolClass());
+  }
+
+  @Test
+  @DisplayName("Анализ всех показателей за один проход")
+  @Description("Проверяем, что общий отчет за один проход совпадает с отдельными расчетами средних, распределений, лучших и худших учеников и рейтинга")
+  @Severity(SeverityLevel.NORMAL)
+  @Story("Расчет средних оценок")
+  @Issue("TASK-206")
+  void testAnalyzeAllMatchesSeparateCalculations() {
+    stepPrepareTestData();
+    AnalysisReport report = analyzerService.analyzeAll(students, 2);
+
+    assertEquals(analyzerService.calculateAverageGradesBySubject(students),
+        report.getAverageGrades(), "Средние должны совпадать с отдельным расчетом");
+    assertEquals(analyzerService.findBestStudents(students), report.getBestStudents());
+    assertEquals(analyzerService.findWorstStudents(students), report.getWorstStudents());
+    assertEquals(students.size(), report.getStudentCount());
+    assertEquals(analyzerService.calculateGradeDistributions(students).keySet(),
+        report.getGradeDistributions().keySet());
+    assertEquals(analyzerService.buildLeaderboard(students, 2).getTop(),
+        report.getLeaderboard().getTop(), "Рейтинг должен совпадать с отдельным расчетом");
+    assertTrue(analyzerService.analyzeAll(students).getLeaderboard().getTop().isEmpty(),
+        "Без размера рейтинг не строится и остается пустым");
+  }
+
+  @Test
+  @DisplayName("Асинхронный анализ со сроком и отменой")
+  @Description("Проверяем, что асинхронные расчеты совпадают с синхронными, а истечение срока и отмена прерывают выполняющуюся задачу")
+  @Severity(SeverityLevel.NORMAL)
+  @Story("Расчет средних оценок")
+  @Issue("TASK-207")
+  void testAsyncAnalysisWithDeadlineAndCancellation() throws Exception {
+    stepPrepareTestData();
+    CountDownLatch started = new CountDownLatch(2);
+    CountDownLatch interrupted = new CountDownLatch(2);
+    GradeAnalyzerService slowService = new GradeAnalyzerService() {
+      @Override
+      public List<Student> readStudentsFromDirectory(String directoryPath) throws IOException {
+        started.countDown();
+        try {
+          new CountDownLatch(1).await();
+        } catch (InterruptedException e) {
+          interrupted.countDown();
+        }
+        throw new InterruptedIOException("Чтение прервано.");
+      }
+    };
+
+    try (AsyncGradeAnalyzerService async = new AsyncGradeAnalyzerService(slowService)) {
+      assertEquals(analyzerService.calculateAverageGradesBySubject(students),
+          async.calculateAverageGradesBySubject(students).get(5, TimeUnit.SECONDS));
+      assertEquals(analyzerService.findBestStudents(students),
+          async.findBestStudents(students).get(5, TimeUnit.SECONDS));
+      assertEquals(students.size(),
+          async.analyzeAll(students, 2, 1).get(5, TimeUnit.SECONDS).getStudentCount());
+
+      CompletableFuture<AnalysisReport> late =
+          async.analyzeDirectory(tempDir.toString(), 0, 0, Duration.ofMillis(50));
+      ExecutionException timeout = assertThrows(ExecutionException.class,
+          () -> late.get(5, TimeUnit.SECONDS));
+      assertTrue(timeout.getCause() instanceof TimeoutException, "Срок должен истечь");
+
+      CompletableFuture<List<Student>> cancelled = async.readStudentsFromDirectory("любая");
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+      assertTrue(cancelled.cancel(true));
+      assertTrue(interrupted.await(5, TimeUnit.SECONDS),
+          "Задачи должны быть прерваны по сроку и при отмене");
+    }
+  }
+
+  @Test
+  @DisplayName("Кэш отчетов по отпечатку директории")
+  @Description("Проверяем, что повторный анализ неизменившейся директории берется из кэша, а изменение файлов, истечение срока жизни и вытеснение приводят к пересчету")
+  @Severity(SeverityLevel.NORMAL)
+  @Story("Расчет средних оценок")
+  @Issue("TASK-208")
+  void testAnalysisCacheInvalidation() throws Exception {
+    Path first = Files.createTempDirectory("оценки");
+    Path second = Files.createTempDirectory("оценки");
+    try {
+      String grades = "Математика - 5\nФизика - 4\nХимия - 3\nИстория - 5\nБиология - 4\n";
+      Files.writeString(first.resolve("Иванов Иван Иванович.txt"), grades);
+      Files.writeString(second.resolve("Петров Петр Петрович.txt"), grades);
+      long[] now = {0};
+      AnalysisCache cache = new AnalysisCache(1, Duration.ofSeconds(60), () -> now[0]);
+      GradeAnalyzerService service = new GradeAnalyzerService(new StudentFileReader(),
+          new GradeCalculator(), new StudentRanking(), cache);
+
+      AnalysisReport report = service.analyzeDirectory(first.toString(), 5, 0);
+      assertTrue(report == service.analyzeDirectory(first.toString(), 5, 0),
+          "Неизменившаяся директория должна браться из кэша");
+      assertEquals(1, cache.getHitCount());
+      assertEquals(1, cache.getMissCount());
+      assertThrows(UnsupportedOperationException.class, () -> report.getBestStudents().clear(),
+          "Отчет из кэша общий, поэтому его списки нельзя менять");
+
+      Files.writeString(first.resolve("Сидоров Сидор Сидорович.txt"), grades);
+      assertEquals(2, service.analyzeDirectory(first.toString(), 5, 0).getStudentCount(),
+          "Новый файл должен приводить к пересчету");
+
+      now[0] += Duration.ofSeconds(61).toNanos();
+      service.analyzeDirectory(first.toString(), 5, 0);
+      assertEquals(3, cache.getMissCount(), "Истекшая запись должна пересчитываться");
+
+      service.analyzeDirectory(second.toString(), 5, 0);
+      assertEquals(1, cache.getEvictionCount(), "При переполнении вытесняется старая запись");
+      service.analyzeDirectory(first.toString(), 5, 0);
+      assertEquals(5, cache.getMissCount());
+    } finally {
+      for (Path directory : List.of(first, second)) {
+        try (Stream<Path> files = Files.list(directory)) {
+          for (Path file : files.toList()) {
+            Files.delete(file);
+          }
+        }
+        Files.delete(directory);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Инкрементальное чтение по манифесту")
+  @Description("Проверяем первый запуск, запуск без изменений, изменение и удаление файла и поврежденный манифест: перечитываются только изменившиеся файлы, а итог и суммы по предметам в манифесте совпадают с полным чтением директории")
+  @Severity(SeverityLevel.CRITICAL)
+  @Story("Инкрементальное чтение")
+  @Issue("TASK-209")
+  void testIncrementalReadWithManifest() throws IOException {
+    String grades = "Математика - 5\nФизика - 4\nХимия - 3\nИстория - 5\nБиология - 4\n";
+    Files.writeString(tempDir.resolve("Иванов Иван Иванович.txt"), grades);
+    Files.writeString(tempDir.resolve("Петров Петр Петрович.txt"), grades);
+    Files.writeString(tempDir.resolve("Сидоров Сидор Сидорович.txt"), grades);
+    String directory = tempDir.toString();
+    Path manifestPath = tempDir.resolve(GradeManifest.FILE_NAME);
+
+    IncrementalReadResult first = analyzerService.readStudentsIncrementally(directory);
+    assertEquals(3, first.getAdded().size(), "При первом запуске читаются все файлы");
+    assertTrue(first.getRemoved().isEmpty());
+    assertTrue(Files.exists(manifestPath), "Манифест должен сохраняться в папке");
+    stepVerifyIncrementalResult(first);
+
+    IncrementalReadResult unchanged = analyzerService.readStudentsIncrementally(directory);
+    assertEquals(3, unchanged.getStudents().size());
+    assertTrue(unchanged.getAdded().isEmpty() && unchanged.getRemoved().isEmpty(),
+        "Неизменившиеся файлы берутся из манифеста");
+    assertEquals(first.getStudents(), unchanged.getStudents());
+    stepVerifyIncrementalResult(unchanged);
+
+    Files.writeString(tempDir.resolve("Петров Петр Петрович.txt"),
+        grades.replace("Математика - 5", "Математика - 2") + "Литература - 3\n");
+    IncrementalReadResult edited = analyzerService.readStudentsIncrementally(directory);
+    assertEquals(1, edited.getAdded().size(), "Перечитывается только измененный файл");
+    assertEquals(1, edited.getRemoved().size());
+    assertEquals(Integer.valueOf(2), edited.getAdded().get(0).getGrades().get("Математика"));
+    stepVerifyIncrementalResult(edited);
+
+    Files.delete(tempDir.resolve("Иванов Иван Иванович.txt"));
+    IncrementalReadResult deleted = analyzerService.readStudentsIncrementally(directory);
+    assertEquals(2, deleted.getStudents().size());
+    assertEquals("Иванов Иван Иванович", deleted.getRemoved().get(0).getFullName());
+    assertTrue(deleted.getAdded().isEmpty());
+    stepVerifyIncrementalResult(deleted);
+
+    Files.write(manifestPath, new byte[] {1, 2, 3});
+    IncrementalReadResult recovered = analyzerService.readStudentsIncrementally(directory);
+    assertEquals(2, recovered.getAdded().size(),
+        "Поврежденный манифест заменяется, и директория перечитывается целиком");
+    stepVerifyIncrementalResult(recovered);
+  }
+
   @Step("Подготовка тестовых данных")
   private void stepPrepareTestData() {
     Allure.parameter("Количество студентов", students.size());
@@ -85,6 +328,20 @@ public class GradeAnalyzerServiceTest {
     Allure.attachment("Тестовые данные", studentsInfo.toString());
   }
 
+  @Step("Сравнение инкрементального чтения с полным")
+  private void stepVerifyIncrementalResult(IncrementalReadResult result) throws IOException {
+    Map<Student, Map<String, Integer>> expected = new HashMap<>();
+    analyzerService.readStudentsFromDirectory(tempDir.toString())
+        .forEach(student -> expected.put(student, student.getGrades()));
+    Map<Student, Map<String, Integer>> actual = new HashMap<>();
+    result.getStudents().forEach(student -> actual.put(student, student.getGrades()));
+    assertEquals(expected, actual, "Итог должен совпадать с полным чтением директории");
+    assertEquals(analyzerService.calculateAverageGradesBySubject(result.getStudents()),
+        result.getAverageGrades(), "Суммы манифеста должны совпадать с полным пересчетом");
+    assertEquals(analyzerService.analyzeAll(result.getStudents(), 2, 1).getAverageGrades(),
+        analyzerService.analyzeIncremental(result, 2, 1).getAverageGrades());
+  }
+
   @Step("Расчет средних оценок по предметам")
   private Map<String, Double> stepCalculateAverageGrades() {
     Map<String, Double> avgGrades = analyzerService.calculateAverageGradesBySubject(students);
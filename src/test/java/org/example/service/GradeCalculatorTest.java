@@ -9,7 +9,9 @@ import io.qameta.allure.Severity;
 import io.qameta.allure.SeverityLevel;
 import io.qameta.allure.Step;
 import io.qameta.allure.Story;
+import org.example.model.GradeDistribution;
 import org.example.model.Student;
+import org.example.model.SubjectDictionary;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -19,8 +21,11 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DisplayName("Тестирование калькулятора оценок")
@@ -74,6 +79,152 @@ public class GradeCalculatorTest {
     stepVerifyEmptyResult(avgGrades);
   }
 
+  @Test
+  @DisplayName("Оценки студента по идентификаторам предметов")
+  @Description("Проверяем, что оценки доступны по общему словарю предметов и через карту")
+  @Severity(SeverityLevel.NORMAL)
+  @Story("Хранение оценок")
+  @Issue("TASK-303")
+  void testGradesByDictionaryId() {
+    SubjectDictionary dictionary = SubjectDictionary.getInstance();
+    Student student = students.get(0);
+
+    int mathId = dictionary.idOf("Математика");
+    Allure.parameter("Идентификатор математики", mathId);
+
+    assertEquals(mathId, dictionary.findId("Математика"),
+        "Идентификатор предмета не должен меняться");
+    assertEquals(5, student.getGrade(mathId), "Оценка по идентификатору должна совпадать");
+    assertEquals(0, student.getGrade(dictionary.idOf("Биология")),
+        "Для отсутствующего предмета должен возвращаться 0");
+    assertEquals(3, student.getSubjectCount(), "У студента должно быть 3 предмета");
+    assertEquals(Map.of("Математика", 5, "Физика", 4, "Химия", 3), student.getGrades(),
+        "Карта оценок должна совпадать с исходной");
+  }
+
+  @Test
+  @DisplayName("Расчет по столбцовому хранилищу")
+  @Description("Проверяем, что средние и лучшие студенты по хранилищу вне кучи совпадают с "
+      + "расчетом по списку, в том числе после роста столбцов")
+  @Severity(SeverityLevel.NORMAL)
+  @Story("Расчет средних оценок")
+  @Issue("TASK-304")
+  void testColumnarStoreMatchesList() {
+    ColumnarStudentStore store = new ColumnarStudentStore(1);
+    students.forEach(store::append);
+    Allure.parameter("Количество строк", store.size());
+
+    assertEquals(gradeCalculator.calculateAverageGradesBySubject(students),
+        gradeCalculator.calculateAverageGradesBySubject(store),
+        "Средние по хранилищу должны совпадать со средними по списку");
+    assertEquals(students.get(1).getGrades(), store.studentAt(1).getGrades(),
+        "Студент, восстановленный из строки, должен иметь те же оценки");
+    assertEquals(new StudentRanking().findBestStudents(students),
+        new StudentRanking().findBestStudents(store),
+        "Лучшие студенты по хранилищу должны совпадать с лучшими по списку");
+  }
+
+  @Test
+  @DisplayName("Накопление оценок по одной и объединение накопителей")
+  @Description("Проверяем, что накопители, заполненные по одной оценке в разных частях набора, "
+      + "после объединения дают те же средние, что и расчет по списку")
+  @Severity(SeverityLevel.NORMAL)
+  @Story("Расчет средних оценок")
+  @Issue("TASK-305")
+  void testAccumulatorMergesPartialTotals() {
+    SubjectAccumulator first = new SubjectAccumulator();
+    students.get(0).getGrades().forEach(first::addGrade);
+    SubjectAccumulator second = gradeCalculator.accumulate(students.subList(1, 2));
+
+    first.merge(second);
+    Allure.parameter("Количество предметов", first.getAverages().size());
+
+    assertEquals(gradeCalculator.calculateAverageGradesBySubject(students), first.getAverages(),
+        "Объединенные накопители должны давать те же средние");
+  }
+
+  @Test
+  @DisplayName("Распределение оценок по предмету")
+  @Description("Проверяем медиану, квартили с линейной интерполяцией, стандартное отклонение "
+      + "и количество каждой оценки")
+  @Severity(SeverityLevel.NORMAL)
+  @Story("Распределение оценок")
+  @Issue("TASK-306")
+  void testGradeDistributions() {
+    Map<String, GradeDistribution> distributions =
+        gradeCalculator.calculateGradeDistributions(students);
+    GradeDistribution physics = distributions.get("Физика");
+    Allure.parameter("Количество предметов", distributions.size());
+
+    assertEquals(4, distributions.size(), "Распределение должно быть у каждого предмета");
+    assertEquals(1, physics.getCount(4), "По физике должна быть одна четверка");
+    assertEquals(1, physics.getCount(5), "По физике должна быть одна пятерка");
+    assertEquals(4.5, physics.getMedian(), 0.001, "Медиана оценок 4 и 5 должна быть 4.5");
+    assertEquals(4.25, physics.getPercentile(25), 0.001, "25-й процентиль должен быть 4.25");
+    assertEquals(0.5, physics.getStandardDeviation(), 0.001,
+        "Стандартное отклонение оценок 4 и 5 должно быть 0.5");
+
+    // 2, 3, 3, 3, 4, 4, 4, 4, 5, 5
+    GradeDistribution sample = new GradeDistribution(new long[] {0, 1, 3, 4, 2});
+    assertEquals(4.0, sample.getMedian(), 0.001);
+    assertEquals(3.0, sample.getPercentile(25), 0.001);
+    assertEquals(4.0, sample.getPercentile(75), 0.001);
+    assertEquals(0.9, sample.getStandardDeviation(), 0.001);
+  }
+
+  @Test
+  @DisplayName("Повторное исключение студента из распределения")
+  @Description("Проверяем, что исключение студента, чьих оценок нет в распределении, "
+      + "бросает IllegalStateException и не меняет счетчики")
+  @Severity(SeverityLevel.NORMAL)
+  @Story("Распределение оценок")
+  @Issue("TASK-308")
+  void testHistogramRejectsRepeatedRemoval() {
+    GradeHistogram histogram = new GradeHistogram();
+    students.forEach(histogram::add);
+    histogram.remove(students.get(0));
+
+    assertThrows(IllegalStateException.class, () -> histogram.remove(students.get(0)),
+        "Повторное исключение должно считаться ошибкой");
+    assertEquals(1, histogram.getDistributions().get("Математика").getCount(3),
+        "Счетчики не должны меняться после ошибки");
+    assertEquals(1, histogram.getDistributions().get("Физика").getCount(5));
+  }
+
+  @Test
+  @DisplayName("Векторные и скалярные циклы агрегации")
+  @Description("Проверяем, что выбранные циклы агрегации считают суммы, количества и "
+      + "распределения оценок так же, как скалярные, включая хвост массива")
+  @Severity(SeverityLevel.NORMAL)
+  @Story("Расчет средних оценок")
+  @Issue("TASK-307")
+  void testAggregationKernelsMatchScalar() {
+    AggregationKernels kernels = AggregationKernels.preferred();
+    AggregationKernels scalar = AggregationKernels.scalar();
+    Random random = new Random(7);
+    byte[] grades = new byte[100_003];
+    for (int i = 0; i < grades.length; i++) {
+      grades[i] = (byte) random.nextInt(6);
+    }
+    Allure.parameter("Циклы", kernels.getName());
+
+    for (int length : new int[] {0, 1, 63, 65_537, grades.length}) {
+      assertEquals(scalar.sum(grades, length), kernels.sum(grades, length));
+      assertEquals(scalar.countNonZero(grades, length), kernels.countNonZero(grades, length));
+      long[] expected = new long[GradeDistribution.MAX_GRADE];
+      long[] actual = new long[GradeDistribution.MAX_GRADE];
+      scalar.histogram(grades, length, expected);
+      kernels.histogram(grades, length, actual);
+      assertArrayEquals(expected, actual, "Распределения должны совпадать, длина " + length);
+    }
+
+    ColumnarStudentStore store = new ColumnarStudentStore();
+    students.forEach(store::append);
+    assertEquals(gradeCalculator.calculateGradeDistributions(students).get("Физика").getMedian(),
+        gradeCalculator.calculateGradeDistributions(store).get("Физика").getMedian(),
+        "Распределение по хранилищу должно совпадать с распределением по списку");
+  }
+
   @Step("Подготовка тестовых данных студентов")
   private void stepPrepareTestStudents() {
     Allure.parameter("Количество студентов", students.size());
@@ -0,0 +1,122 @@
+package org.example.service;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Issue;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Step;
+import io.qameta.allure.Story;
+import org.example.model.AnalysisReport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Тестирование наблюдения за директорией")
+@Epic("Анализ успеваемости")
+@Feature("Наблюдение за директорией")
+public class GradeDirectoryWatcherTest {
+
+  private static final Duration DEBOUNCE = Duration.ofMillis(500);
+  private static final long TIMEOUT_MILLIS = 10_000;
+
+  @TempDir
+  Path tempDir;
+
+  private final AtomicInteger reportWrites = new AtomicInteger();
+  private GradeDirectoryWatcher watcher;
+  private Thread watcherThread;
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    if (watcher != null) {
+      watcher.close();
+      watcherThread.join(TIMEOUT_MILLIS);
+    }
+  }
+
+  @Test
+  @DisplayName("Обновление отчета по событиям файловой системы")
+  @Description("Проверяем, что добавление, изменение и удаление файлов обновляют состояние, серия изменений приводит к одной записи отчета, а посторонние файлы игнорируются")
+  @Severity(SeverityLevel.CRITICAL)
+  @Story("Наблюдение за директорией")
+  @Issue("TASK-801")
+  void testWatcherTracksChangesWithDebounce() throws Exception {
+    stepWriteGradeFile("Иванов Иван Иванович", 5);
+    stepStartWatcher();
+    stepAwait(() -> reportWrites.get() == 1, "Начальный отчет должен быть записан");
+    assertEquals(1, watcher.currentReport().getStudentCount());
+    assertTrue(Files.exists(tempDir.resolve(ReportWriter.REPORT_FILE_NAME)));
+
+    stepWriteGradeFile("Петров Петр Петрович", 3);
+    stepWriteGradeFile("Иванов Иван Иванович", 4);
+    Files.writeString(tempDir.resolve("заметки.md"), "не файл оценок");
+    stepAwait(() -> reportWrites.get() == 2, "Серия изменений должна дать запись отчета");
+    AnalysisReport report = watcher.currentReport();
+    assertEquals(2, report.getStudentCount(), "Добавленный файл учтен, посторонний - нет");
+    assertEquals(3.5, report.getAverageGrades().get("Математика"), 0.001,
+        "Измененный файл должен заменить прежние оценки");
+    assertEquals("Иванов Иван Иванович", report.getBestStudents().get(0).getFullName());
+    Thread.sleep(DEBOUNCE.toMillis() * 3);
+    assertEquals(2, reportWrites.get(), "Изменения в пределах паузы объединяются в одну запись");
+
+    Files.delete(tempDir.resolve("Иванов Иван Иванович.txt"));
+    stepAwait(() -> reportWrites.get() == 3, "Удаление файла должно обновить отчет");
+    report = watcher.currentReport();
+    assertEquals(1, report.getStudentCount());
+    assertEquals(3.0, report.getAverageGrades().get("Математика"), 0.001);
+    assertEquals("Петров Петр Петрович", report.getWorstStudents().get(0).getFullName());
+  }
+
+  @Step("Запуск наблюдения")
+  private void stepStartWatcher() throws IOException {
+    ReportWriter countingWriter = new ReportWriter() {
+      @Override
+      public Path writeToFile(AnalysisReport report, Path directory) throws IOException {
+        Path path = super.writeToFile(report, directory);
+        reportWrites.incrementAndGet();
+        return path;
+      }
+    };
+    watcher = new GradeDirectoryWatcher(tempDir, DEBOUNCE, new StudentFileReader(),
+        countingWriter);
+    watcherThread = new Thread(() -> {
+      try {
+        watcher.run();
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+    }, "watcher-test");
+    watcherThread.setDaemon(true);
+    watcherThread.start();
+  }
+
+  @Step("Создание файла {fullName} с оценками {grade}")
+  private void stepWriteGradeFile(String fullName, int grade) throws IOException {
+    String content = "Математика - " + grade + "\nФизика - " + grade + "\nХимия - " + grade
+        + "\nИстория - " + grade + "\nБиология - " + grade + "\n";
+    Files.writeString(tempDir.resolve(fullName + ".txt"), content, StandardCharsets.UTF_8);
+  }
+
+  @Step("Ожидание: {message}")
+  private void stepAwait(BooleanSupplier condition, String message) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+    while (!condition.getAsBoolean()) {
+      assertTrue(System.currentTimeMillis() < deadline, message);
+      Thread.sleep(50);
+    }
+  }
+}
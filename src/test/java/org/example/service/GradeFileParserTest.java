@@ -0,0 +1,185 @@
+package org.example.service;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Issue;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Step;
+import io.qameta.allure.Story;
+import org.example.exception.InvalidStudentFileException;
+import org.example.model.ParseResult;
+import org.example.model.Student;
+import org.example.model.ValidationErrorKind;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Тестирование парсера файлов оценок")
+@Epic("Валидация данных")
+@Feature("Парсер файлов оценок")
+public class GradeFileParserTest {
+
+  private static final String FULL_NAME = "Иванов Иван Иванович";
+
+  private GradeFileParser gradeFileParser;
+
+  @BeforeEach
+  void setUp() {
+    gradeFileParser = new GradeFileParser();
+  }
+
+  @Test
+  @DisplayName("Разбор корректного файла с разными переводами строк")
+  @Description("Проверяем, что парсер читает оценки из строк с переводами строк \\n, \\r\\n и \\r")
+  @Severity(SeverityLevel.CRITICAL)
+  @Story("Разбор файла")
+  @Issue("TASK-501")
+  void testParseValidFile() throws InvalidStudentFileException {
+    String content = "Математика - 5\r\nФизика - 4\nХимия - 3\r  История   -   2  \n"
+        + "Русский - язык - 5\n";
+    Student student = stepParse(content);
+    stepVerifyGrades(student);
+  }
+
+  @Test
+  @DisplayName("Повторное использование названий предметов")
+  @Description("Проверяем, что одинаковые предметы из разных файлов разделяют один объект String")
+  @Severity(SeverityLevel.MINOR)
+  @Story("Разбор файла")
+  @Issue("TASK-502")
+  void testSubjectNamesAreShared() throws InvalidStudentFileException {
+    String content = "Математика - 5\nФизика - 4\nХимия - 3\nИстория - 2\nБиология - 4\n";
+    Student first = stepParse(content);
+    Student second = stepParse(content);
+
+    String firstSubject = first.getGrades().keySet().stream()
+        .filter("Математика"::equals).findFirst().orElseThrow();
+    String secondSubject = second.getGrades().keySet().stream()
+        .filter("Математика"::equals).findFirst().orElseThrow();
+
+    assertSame(firstSubject, secondSubject,
+        "Название предмета должно браться из общего кэша");
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "Математика - 5\nФизика - 4\nХимия - 3\nИстория - 2\n",
+      "Математика - 5\nФизика - 4\nХимия - 3\nИстория - 2\nБиология - 6\n",
+      "Математика - 5\nФизика - 4\nХимия - 3\nИстория - 2\nБиология - 0\n",
+      "Математика - 5\nФизика - четыре\nХимия - 3\nИстория - 2\nБиология - 4\n",
+      "Математика - 5\nФизика - 4 5\nХимия - 3\nИстория - 2\nБиология - 4\n",
+  })
+  @DisplayName("Отклонение некорректных файлов")
+  @Description("Проверяем, что файлы с малым числом строк или неверными оценками отклоняются")
+  @Severity(SeverityLevel.CRITICAL)
+  @Story("Валидация содержимого")
+  @Issue("TASK-503")
+  void testRejectInvalidFile(String content) {
+    stepVerifyRejected(content);
+  }
+
+  @Test
+  @DisplayName("Результат разбора с видом ошибки и номером строки")
+  @Description("Проверяем, что разбор без исключений возвращает вид первой ошибки и ее строку")
+  @Severity(SeverityLevel.NORMAL)
+  @Story("Валидация содержимого")
+  @Issue("TASK-504")
+  void testTryParseReportsErrorPosition() {
+    stepVerifyFailure("Математика - 5\nФизика - 4\nХимия - 3\nИстория - 2\n",
+        ValidationErrorKind.TOO_FEW_LINES, 0);
+    stepVerifyFailure("Математика - 5\nФизика - 9\nХимия - 3\nИстория - 2\nБиология - 4\n",
+        ValidationErrorKind.GRADE_OUT_OF_RANGE, 2);
+    stepVerifyFailure("Математика - 5\nФизика - 4\r\nХимия - x\nИстория - 0\nБиология - 4\n",
+        ValidationErrorKind.INVALID_GRADE_FORMAT, 3);
+  }
+
+  @Test
+  @DisplayName("Сводка ошибок валидации")
+  @Description("Проверяем подсчет ошибок по видам и ограничение числа примеров файлов")
+  @Severity(SeverityLevel.NORMAL)
+  @Story("Валидация содержимого")
+  @Issue("TASK-505")
+  void testValidationReportCountsErrors() {
+    ValidationReport validationReport = new ValidationReport();
+    for (int i = 0; i < ValidationReport.MAX_SAMPLES + 5; i++) {
+      validationReport.record(ParseResult.failure(ValidationErrorKind.GRADE_OUT_OF_RANGE, 2)
+          .inFile("Файл " + i + ".txt"));
+    }
+    validationReport.record(ParseResult.failure(ValidationErrorKind.INVALID_FILE_NAME, 0)
+        .inFile("bad.txt"));
+    validationReport.record(ParseResult.success(new Student(FULL_NAME, Map.of())));
+
+    assertEquals(ValidationReport.MAX_SAMPLES + 6, validationReport.getTotalCount(),
+        "Успешные результаты не должны учитываться");
+    assertEquals(ValidationReport.MAX_SAMPLES + 5,
+        validationReport.getCount(ValidationErrorKind.GRADE_OUT_OF_RANGE));
+    assertEquals(ValidationReport.MAX_SAMPLES,
+        validationReport.getSamples(ValidationErrorKind.GRADE_OUT_OF_RANGE).size(),
+        "Число примеров файлов должно быть ограничено");
+    assertEquals("bad.txt",
+        validationReport.getSamples(ValidationErrorKind.INVALID_FILE_NAME).get(0).getFile());
+  }
+
+  @Step("Проверка результата разбора некорректного файла")
+  private void stepVerifyFailure(String content, ValidationErrorKind expectedKind,
+                                 int expectedLine) {
+    Allure.attachment("Содержимое файла", content);
+
+    ParseResult result = gradeFileParser.tryParse(FULL_NAME, "",
+        content.getBytes(StandardCharsets.UTF_8));
+
+    assertFalse(result.isSuccess(), "Некорректный файл не должен разбираться успешно");
+    assertEquals(expectedKind, result.getErrorKind(), "Вид ошибки должен совпадать");
+    assertEquals(expectedLine, result.getLine(), "Номер строки ошибки должен совпадать");
+    Allure.parameter("Сообщение об ошибке", result.getMessage());
+  }
+
+  @Step("Разбор содержимого файла")
+  private Student stepParse(String content) throws InvalidStudentFileException {
+    Allure.attachment("Содержимое файла", content);
+
+    Student student = gradeFileParser.parse(FULL_NAME,
+        content.getBytes(StandardCharsets.UTF_8));
+
+    Allure.parameter("Количество предметов", student.getGrades().size());
+    return student;
+  }
+
+  @Step("Проверка разобранных оценок")
+  private void stepVerifyGrades(Student student) {
+    assertEquals(FULL_NAME, student.getFullName(), "ФИО должно совпадать с именем файла");
+    assertEquals(5, student.getGrades().size(), "Должно быть разобрано 5 предметов");
+    assertEquals(5, student.getGrades().get("Математика"), "Оценка по математике должна быть 5");
+    assertEquals(4, student.getGrades().get("Физика"), "Оценка по физике должна быть 4");
+    assertEquals(3, student.getGrades().get("Химия"), "Оценка по химии должна быть 3");
+    assertEquals(2, student.getGrades().get("История"),
+        "Пробелы вокруг разделителя должны отбрасываться");
+    assertEquals(5, student.getGrades().get("Русский - язык"),
+        "Разделителем должно считаться последнее вхождение ' - '");
+  }
+
+  @Step("Проверка отклонения файла")
+  private void stepVerifyRejected(String content) {
+    Allure.attachment("Содержимое файла", content);
+
+    InvalidStudentFileException exception = assertThrows(InvalidStudentFileException.class,
+        () -> gradeFileParser.parse(FULL_NAME, content.getBytes(StandardCharsets.UTF_8)),
+        "Некорректный файл должен быть отклонен");
+
+    Allure.parameter("Сообщение об ошибке", exception.getMessage());
+  }
+}
@@ -0,0 +1,133 @@
+package org.example.service;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Issue;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Step;
+import io.qameta.allure.Story;
+import org.example.model.AnalysisReport;
+import org.example.model.GradeDistribution;
+import org.example.model.Student;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Тестирование потокового конвейера")
+@Epic("Анализ успеваемости")
+@Feature("Потоковый конвейер")
+public class GradePipelineTest {
+
+  private static final String[] SUBJECTS = {"Математика", "Физика", "Химия", "История",
+      "Биология"};
+  private static final int STUDENT_COUNT = 60;
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  @DisplayName("Конвейер совпадает с последовательным анализом")
+  @Description("Проверяем, что при разном числе потоков и малой емкости очередей конвейер дает те же средние, распределения и лучших/худших студентов, что и analyzeAll по списку студентов, и учитывает ошибочные файлы")
+  @Severity(SeverityLevel.CRITICAL)
+  @Story("Потоковый анализ")
+  @Issue("TASK-1101")
+  void testPipelineMatchesSequentialAnalysis() throws IOException {
+    stepWriteStudents();
+    Files.writeString(tempDir.resolve("Ошибкин Иван Иванович.txt"), "Математика - 5\n");
+    Files.writeString(tempDir.resolve("Безотчества Иван.txt"), "Математика - 5\n");
+    GradeAnalyzerService analyzerService = new GradeAnalyzerService();
+    List<Student> students = analyzerService.readStudentsFromDirectory(tempDir.toString());
+    AnalysisReport expected = analyzerService.analyzeAll(students, 10, 3);
+
+    for (int threads : new int[] {1, 3}) {
+      ValidationReport validationReport = new ValidationReport();
+      AnalysisReport actual = new GradePipeline(threads, threads, threads, 2)
+          .run(tempDir.toString(), validationReport);
+
+      assertEquals(expected.getStudentCount(), actual.getStudentCount());
+      assertEquals(expected.getAverageGrades().keySet(), actual.getAverageGrades().keySet());
+      expected.getAverageGrades().forEach((subject, average) ->
+          assertEquals(average, actual.getAverageGrades().get(subject), 1e-9, subject));
+      expected.getGradeDistributions().forEach((subject, distribution) -> {
+        GradeDistribution other = actual.getGradeDistributions().get(subject);
+        for (int grade = GradeDistribution.MIN_GRADE; grade <= GradeDistribution.MAX_GRADE;
+             grade++) {
+          assertEquals(distribution.getCount(grade), other.getCount(grade), subject);
+        }
+      });
+      assertEquals(new HashSet<>(expected.getBestStudents()),
+          new HashSet<>(actual.getBestStudents()));
+      assertEquals(new HashSet<>(expected.getWorstStudents()),
+          new HashSet<>(actual.getWorstStudents()));
+      assertEquals(2, validationReport.getTotalCount(), "Ошибочные файлы учтены в отчете");
+    }
+  }
+
+  @Test
+  @DisplayName("Сбой стадии останавливает конвейер")
+  @Description("Проверяем, что непредвиденная ошибка одного читателя останавливает все стадии и возвращается из run как IOException, а не оставляет конвейер висеть на заполненных очередях")
+  @Severity(SeverityLevel.CRITICAL)
+  @Story("Потоковый анализ")
+  @Issue("TASK-1102")
+  void testFailingReaderShutsPipelineDown() throws Exception {
+    stepWriteStudents();
+    Path broken = tempDir.resolve(fullName(STUDENT_COUNT / 2) + ".txt");
+    GradePipeline pipeline = new GradePipeline(2, 2, 1, 1) {
+      @Override
+      byte[] readBytes(Path file) throws IOException {
+        if (file.equals(broken)) {
+          throw new IllegalStateException("Сбой чтения " + file.getFileName());
+        }
+        return super.readBytes(file);
+      }
+    };
+
+    CompletableFuture<AnalysisReport> run = CompletableFuture.supplyAsync(() -> {
+      try {
+        return pipeline.run(tempDir.toString());
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+    ExecutionException failure = assertThrows(ExecutionException.class,
+        () -> run.get(10, TimeUnit.SECONDS), "Конвейер должен завершиться с ошибкой");
+    assertTrue(failure.getCause().getCause() instanceof IOException);
+    assertTrue(failure.getCause().getCause().getCause() instanceof IllegalStateException,
+        "Исходная ошибка стадии сохраняется как причина");
+  }
+
+  @Step("Создание файлов студентов")
+  private void stepWriteStudents() throws IOException {
+    for (int student = 0; student < STUDENT_COUNT; student++) {
+      StringBuilder content = new StringBuilder();
+      for (int subject = 0; subject < SUBJECTS.length; subject++) {
+        content.append(SUBJECTS[subject]).append(" - ")
+            .append(1 + (student * 7 + subject * 3) % 5).append('\n');
+      }
+      Files.writeString(tempDir.resolve(fullName(student) + ".txt"), content.toString(),
+          StandardCharsets.UTF_8);
+    }
+  }
+
+  private static String fullName(int student) {
+    return "Ученик" + (char) ('А' + student % 32) + (char) ('а' + student / 32)
+        + " Иван Иванович";
+  }
+}
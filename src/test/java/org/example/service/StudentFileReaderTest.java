@@ -0,0 +1,206 @@
+package org.example.service;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Issue;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Step;
+import io.qameta.allure.Story;
+import org.example.model.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Тестирование чтения файлов студентов")
+@Epic("Анализ успеваемости")
+@Feature("Чтение файлов оценок")
+public class StudentFileReaderTest {
+
+  private static final String GRADES =
+      "Математика - 5\nФизика - 4\nХимия - 3\nИстория - 5\nБиология - 4\n";
+
+  @TempDir
+  Path tempDir;
+
+  private StudentFileReader fileReader;
+
+  @BeforeEach
+  void setUp() {
+    fileReader = new StudentFileReader();
+  }
+
+  @Test
+  @DisplayName("Параллельное чтение директории")
+  @Description("Проверяем, что параллельное чтение дает тех же студентов в том же порядке, что и последовательное, а ошибочный файл не прерывает чтение остальных")
+  @Severity(SeverityLevel.CRITICAL)
+  @Story("Чтение директории")
+  @Issue("TASK-701")
+  void testConcurrentReadMatchesSequential() throws IOException {
+    for (int i = 0; i < 40; i++) {
+      stepWriteGradeFile(tempDir, "Ученик" + i + " Иван Иванович", GRADES);
+    }
+    stepWriteGradeFile(tempDir, "Ошибкин Иван Иванович", "Математика - 5\n");
+    stepWriteGradeFile(tempDir, "Безотчества Иван", GRADES);
+    Allure.parameter("Файлов", 42);
+
+    ValidationReport validationReport = new ValidationReport();
+    List<Student> parallel =
+        fileReader.readStudentsFromDirectory(tempDir.toString(), 8, validationReport);
+    List<Student> sequential = fileReader.readStudentsFromDirectory(tempDir.toString(), 1);
+
+    assertEquals(40, parallel.size(), "Ошибочные файлы должны пропускаться");
+    assertEquals(sequential, parallel, "Порядок должен совпадать с последовательным чтением");
+    for (int i = 0; i < parallel.size(); i++) {
+      assertEquals(sequential.get(i).getGrades(), parallel.get(i).getGrades());
+    }
+    assertEquals(2, validationReport.getTotalCount(), "Оба пропущенных файла учтены");
+    assertThrows(IllegalArgumentException.class,
+        () -> fileReader.readStudentsFromDirectory(tempDir.toString(), 0));
+  }
+
+  @Test
+  @DisplayName("Рекурсивное чтение дерева школ и классов")
+  @Description("Проверяем, что при обходе дерева школа/класс/ученик.txt папка файла сохраняется как школа и класс, а тезки из разных папок считаются разными учениками")
+  @Severity(SeverityLevel.CRITICAL)
+  @Story("Чтение дерева директорий")
+  @Issue("TASK-702")
+  void testTreeCohortsAndNamesakes() throws IOException {
+    String namesake = "Иванов Иван Иванович";
+    stepWriteGradeFile(tempDir, "Корнев Петр Петрович", GRADES);
+    stepWriteGradeFile(tempDir.resolve("Школа 1").resolve("5А"), namesake, GRADES);
+    stepWriteGradeFile(tempDir.resolve("Школа 1").resolve("5Б"), namesake, GRADES);
+    stepWriteGradeFile(tempDir.resolve("Школа 2"), "Сидоров Сидор Сидорович", GRADES);
+
+    List<Student> students = fileReader.readStudentsFromTree(tempDir.toString(), 4);
+    Set<String> cohorts = new TreeSet<>();
+    students.forEach(student -> cohorts.add(student.getCohort()));
+    assertEquals(Set.of("", "Школа 1/5А", "Школа 1/5Б", "Школа 2"), cohorts,
+        "Папки должны сохраняться относительно корня через '/'");
+
+    Student first = new Student(namesake, Map.of("Математика", 5), "Школа 1/5А");
+    Student second = new Student(namesake, Map.of("Математика", 5), "Школа 1/5Б");
+    Student sameFolder = new Student(namesake, Map.of("Физика", 2), "Школа 1/5А");
+    assertNotEquals(first, second, "Тезки из разных классов - разные ученики");
+    assertEquals(first, sameFolder, "Ученик определяется ФИО и папкой, а не оценками");
+    assertEquals(first.hashCode(), sameFolder.hashCode());
+    assertEquals(4, new HashSet<>(students).size(), "Тезки не должны схлопываться в наборе");
+    assertTrue(students.contains(first) && students.contains(second));
+  }
+
+  @Test
+  @DisplayName("Чтение ZIP-архива без распаковки")
+  @Description("Проверяем, что студенты из ZIP-архива читаются вместе с вложенными папками как из обычного дерева, в том числе когда имена записей сохранены в CP866")
+  @Severity(SeverityLevel.CRITICAL)
+  @Story("Чтение ZIP-архива")
+  @Issue("TASK-703")
+  void testArchiveMatchesTree() throws IOException {
+    Map<String, String> entries = Map.of(
+        "Корнев Петр Петрович.txt", GRADES,
+        "Школа 1/5А/Иванов Иван Иванович.txt", GRADES,
+        "Школа 1/5А/Ошибкин Иван Иванович.txt", "Математика - 5\n",
+        "Школа 2/Сидоров Сидор Сидорович.txt", GRADES.replace("5", "2"),
+        "Школа 2/заметки.md", GRADES);
+    Path tree = tempDir.resolve("дерево");
+    for (Map.Entry<String, String> entry : entries.entrySet()) {
+      Path file = tree.resolve(entry.getKey());
+      Files.createDirectories(file.getParent());
+      Files.writeString(file, entry.getValue(), StandardCharsets.UTF_8);
+    }
+    Set<Student> expected = new HashSet<>(fileReader.readStudentsFromTree(tree.toString(), 1));
+    assertEquals(3, expected.size());
+
+    for (Charset charset : List.of(StandardCharsets.UTF_8, Charset.forName("CP866"))) {
+      Path archive = stepWriteArchive(tempDir.resolve("оценки-" + charset.name() + ".zip"),
+          entries, charset);
+      assertTrue(fileReader.isArchive(archive.toString()));
+      ValidationReport validationReport = new ValidationReport();
+      List<Student> students =
+          fileReader.readStudentsFromDirectory(archive.toString(), 4, validationReport);
+      assertEquals(expected, new HashSet<>(students),
+          "Архив в " + charset + " должен читаться как дерево");
+      assertEquals(1, validationReport.getTotalCount(), "Ошибочный файл учтен в отчете");
+      for (Student student : students) {
+        Student fromTree = expected.stream().filter(student::equals).findFirst().orElseThrow();
+        assertEquals(fromTree.getGrades(), student.getGrades());
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Студенты дерева передаются по мере обхода")
+  @Description("Проверяем, что при параллельном чтении дерева студенты передаются получателю во время обхода, а до его окончания задерживается не больше parallelism разобранных файлов")
+  @Severity(SeverityLevel.CRITICAL)
+  @Story("Чтение дерева директорий")
+  @Issue("TASK-704")
+  void testTreeStudentsStreamDuringWalk() throws IOException {
+    int fileCount = 40;
+    int parallelism = 3;
+    for (int i = 0; i < fileCount; i++) {
+      stepWriteGradeFile(tempDir.resolve("Школа " + i % 4), "Ученик" + (char) ('А' + i)
+          + " Иван Иванович", GRADES);
+    }
+
+    List<Student> received = new ArrayList<>();
+    int[] receivedDuringWalk = new int[1];
+    fileReader.streamStudentsFromTree(tempDir.toString(), parallelism,
+        new ValidationReport(), student -> {
+          received.add(student);
+          boolean walking = StackWalker.getInstance().walk(frames ->
+              frames.anyMatch(frame -> frame.getMethodName().equals("visitFile")));
+          if (walking) {
+            receivedDuringWalk[0]++;
+          }
+        });
+
+    assertEquals(fileCount, received.size());
+    assertEquals(new HashSet<>(fileReader.readStudentsFromTree(tempDir.toString(), 1)),
+        new HashSet<>(received));
+    assertTrue(receivedDuringWalk[0] >= fileCount - parallelism,
+        "До окончания обхода не передано студентов: " + (fileCount - receivedDuringWalk[0]));
+  }
+
+  @Step("Создание архива {archive}")
+  private Path stepWriteArchive(Path archive, Map<String, String> entries, Charset charset)
+      throws IOException {
+    try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive), charset)) {
+      for (Map.Entry<String, String> entry : new TreeMap<>(entries).entrySet()) {
+        zip.putNextEntry(new ZipEntry(entry.getKey()));
+        zip.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+      }
+    }
+    return archive;
+  }
+
+  @Step("Создание файла {fullName}")
+  private Path stepWriteGradeFile(Path directory, String fullName, String content)
+      throws IOException {
+    Files.createDirectories(directory);
+    return Files.writeString(directory.resolve(fullName + ".txt"), content,
+        StandardCharsets.UTF_8);
+  }
+}
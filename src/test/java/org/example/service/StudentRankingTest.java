@@ -9,17 +9,25 @@ import io.qameta.allure.Severity;
 import io.qameta.allure.SeverityLevel;
 import io.qameta.allure.Step;
 import io.qameta.allure.Story;
+import org.example.model.AnalysisReport;
+import org.example.model.Leaderboard;
 import org.example.model.Student;
+import org.example.model.SubjectLeaderboard;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -105,6 +113,251 @@ public class StudentRankingTest {
     stepVerifyEmptyResults(bestStudents, worstStudents);
   }
 
+  @Test
+  @DisplayName("Точное сравнение средних баллов")
+  @Description("Проверяем, что равные дроби сумма/количество считаются равными при разном числе "
+      + "предметов, а студент без оценок имеет средний балл 0")
+  @Severity(SeverityLevel.NORMAL)
+  @Story("Поиск лучших студентов")
+  @Issue("TASK-405")
+  void testExactAverageComparison() {
+    // 19/5 = 38/10 = 3.8
+    Student fiveSubjects = new Student("Иванов Иван Иванович",
+        Map.of("Математика", 5, "Физика", 4, "Химия", 3, "История", 4, "Биология", 3));
+    Map<String, Integer> tenGrades = new HashMap<>();
+    for (int i = 0; i < 10; i++) {
+      tenGrades.put("Предмет " + i, i < 8 ? 4 : 3);
+    }
+    Student tenSubjects = new Student("Петров Петр Петрович", tenGrades);
+    Student noGrades = new Student("Сидоров Сидор Сидорович", Map.of());
+
+    Allure.parameter("Сумма и количество 1", fiveSubjects.getGradeSum() + "/"
+        + fiveSubjects.getSubjectCount());
+    Allure.parameter("Сумма и количество 2", tenSubjects.getGradeSum() + "/"
+        + tenSubjects.getSubjectCount());
+
+    assertEquals(0, fiveSubjects.compareAverageTo(tenSubjects),
+        "Средние 19/5 и 38/10 должны быть равны");
+    assertTrue(noGrades.compareAverageTo(fiveSubjects) < 0,
+        "Студент без оценок должен считаться худшим");
+    assertEquals(List.of(fiveSubjects, tenSubjects),
+        studentRanking.findBestStudents(List.of(noGrades, fiveSubjects, tenSubjects)),
+        "Оба студента со средним 3.8 должны быть лучшими");
+  }
+
+  @Test
+  @DisplayName("Лучшие и худшие студенты столбцового хранилища с разными циклами агрегации")
+  @Description("Проверяем, что скалярные и векторные циклы находят в хранилище тех же лучших и "
+      + "худших студентов, что и ранжирование списка, включая равные средние в разных частях "
+      + "просмотра и суммы, произведения которых не помещаются в int")
+  @Severity(SeverityLevel.NORMAL)
+  @Story("Поиск лучших студентов")
+  @Issue("TASK-406")
+  void testColumnarRankingWithKernels() {
+    Random random = new Random(17);
+    List<Student> manyStudents = new ArrayList<>();
+    ColumnarStudentStore store = new ColumnarStudentStore();
+    for (int i = 0; i < ColumnarStudentStore.SCAN_CHUNK_ROWS * 2 + 37; i++) {
+      Map<String, Integer> grades = new HashMap<>();
+      for (int subject = 0; subject < 1 + random.nextInt(4); subject++) {
+        grades.put("Предмет " + subject, 1 + random.nextInt(5));
+      }
+      Student student = new Student("Студент " + i, grades);
+      manyStudents.add(student);
+      store.append(student);
+    }
+    Allure.parameter("Циклы по умолчанию", AggregationKernels.preferred().getName());
+
+    for (AggregationKernels kernels : List.of(AggregationKernels.scalar(),
+        AggregationKernels.preferred())) {
+      StudentRanking ranking = new StudentRanking(kernels);
+      assertEquals(studentRanking.findBestStudents(manyStudents), ranking.findBestStudents(store),
+          "Лучшие студенты хранилища должны совпадать со списком: " + kernels.getName());
+      assertEquals(studentRanking.findWorstStudents(manyStudents),
+          ranking.findWorstStudents(store),
+          "Худшие студенты хранилища должны совпадать со списком: " + kernels.getName());
+    }
+    assertTrue(new StudentRanking().findBestStudents(new ColumnarStudentStore()).isEmpty(),
+        "Для пустого хранилища лучших студентов нет");
+    stepVerifyKernelsWithLargeSums(random);
+  }
+
+  @Step("Проверка циклов агрегации на больших суммах")
+  private void stepVerifyKernelsWithLargeSums(Random random) {
+    // Суммы от 46340 и больше не перемножаются в int, и векторные циклы сравнивают через long
+    int length = 1000;
+    int[] sums = new int[length];
+    int[] counts = new int[length];
+    for (int i = 0; i < length; i++) {
+      counts[i] = 10_000 + random.nextInt(40_000);
+      sums[i] = counts[i] * (1 + random.nextInt(4)) + random.nextInt(counts[i]);
+    }
+    // Равные средние с разными суммами в разных частях просмотра
+    sums[3] = 46_340 * 5;
+    counts[3] = 46_340;
+    sums[length - 2] = 50_000 * 5;
+    counts[length - 2] = 50_000;
+    sums[length / 2] = 46_341 * 5;
+    counts[length / 2] = 46_341;
+
+    AggregationKernels scalar = AggregationKernels.scalar();
+    AggregationKernels preferred = AggregationKernels.preferred();
+    for (boolean maximum : new boolean[] {true, false}) {
+      assertEquals(scalar.findExtremeAverage(sums, counts, length, maximum),
+          preferred.findExtremeAverage(sums, counts, length, maximum),
+          "Крайний средний на больших суммах, maximum = " + maximum);
+    }
+    int[] expectedRows = new int[length];
+    int[] actualRows = new int[length];
+    int expected = scalar.findEqualAverages(sums, counts, length, 5, 1, expectedRows);
+    assertEquals(expected, preferred.findEqualAverages(sums, counts, length, 5, 1, actualRows));
+    assertEquals(3, expected, "Все три строки со средним 5 должны найтись");
+    assertArrayEquals(Arrays.copyOf(expectedRows, expected), Arrays.copyOf(actualRows, expected));
+    expected = scalar.findEqualAverages(sums, counts, length, sums[7], counts[7], expectedRows);
+    assertEquals(expected,
+        preferred.findEqualAverages(sums, counts, length, sums[7], counts[7], actualRows));
+    assertArrayEquals(Arrays.copyOf(expectedRows, expected), Arrays.copyOf(actualRows, expected));
+  }
+
+  @Test
+  @DisplayName("Рейтинг первых и последних учеников")
+  @Description("Проверяем, что рейтинг на кучах совпадает с полной сортировкой, ученики с равным "
+      + "баллом на границе отбираются по ФИО, а страницы и рейтинги по папкам строятся верно")
+  @Severity(SeverityLevel.NORMAL)
+  @Story("Рейтинг учеников")
+  @Issue("TASK-407")
+  void testLeaderboard() {
+    Random random = new Random(19);
+    List<Student> manyStudents = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      manyStudents.add(new Student("Ученик " + i,
+          Map.of("Математика", 1 + random.nextInt(5), "Физика", 1 + random.nextInt(5)),
+          "Класс " + (i % 3)));
+    }
+    Allure.parameter("Количество студентов", manyStudents.size());
+
+    List<Student> sorted = new ArrayList<>(manyStudents);
+    sorted.sort(LeaderboardAccumulator.BEST_FIRST);
+    Leaderboard leaderboard = studentRanking.buildLeaderboard(manyStudents, 25);
+    assertEquals(sorted.subList(0, 25), leaderboard.getTop(),
+        "Первые 25 должны совпадать с полной сортировкой");
+    sorted.sort(LeaderboardAccumulator.WORST_FIRST);
+    assertEquals(sorted.subList(0, 25), leaderboard.getBottom(),
+        "Последние 25 должны совпадать с полной сортировкой");
+    sorted.sort(LeaderboardAccumulator.BEST_FIRST);
+    assertEquals(sorted.subList(10, 20), leaderboard.getTopPage(1, 10));
+    assertEquals(sorted.subList(20, 25), leaderboard.getTopPage(2, 10));
+    assertTrue(leaderboard.getTopPage(3, 10).isEmpty());
+
+    Student tiedA = new Student("Алексеев Алексей Алексеевич", Map.of("Математика", 4));
+    Student tiedB = new Student("Борисов Борис Борисович", Map.of("Математика", 4));
+    Student best = new Student("Яковлев Яков Яковлевич", Map.of("Математика", 5));
+    assertEquals(List.of(best, tiedA),
+        studentRanking.buildLeaderboard(List.of(tiedB, best, tiedA), 2).getTop(),
+        "На границе отсечения из равных должен остаться первый по ФИО");
+
+    Map<String, Leaderboard> byCohort = studentRanking.buildLeaderboardsByCohort(manyStudents, 5);
+    assertEquals(List.of("Класс 0", "Класс 1", "Класс 2"), new ArrayList<>(byCohort.keySet()));
+    byCohort.values().forEach(board -> board.getTop()
+        .forEach(s -> assertEquals(board.getCohort(), s.getCohort())));
+  }
+
+  @Test
+  @DisplayName("Индекс мест и процентилей учеников")
+  @Description("Проверяем место ученика, учеников в диапазоне мест, процентиль среднего балла и "
+      + "обновление индекса после изменения оценок одного ученика")
+  @Severity(SeverityLevel.NORMAL)
+  @Story("Рейтинг учеников")
+  @Issue("TASK-408")
+  void testRankIndex() {
+    Student first = new Student("Иванов Иван Иванович", Map.of("Математика", 5, "Физика", 5));
+    Student second = new Student("Петров Петр Петрович", Map.of("Математика", 4, "Физика", 5));
+    Student third = new Student("Сидоров Сидор Сидорович", Map.of("Математика", 4));
+    Student fourth = new Student("Смирнов Семен Семенович", Map.of("Математика", 3, "Физика", 5));
+    StudentRankIndex index = new StudentRankIndex(List.of(third, first, fourth, second));
+    Allure.parameter("Количество учеников", index.size());
+
+    assertEquals(1, index.rankOf(first));
+    assertEquals(3, index.rankOf(third), "Средние 4 и 8/2 делят третье место");
+    assertEquals(3, index.rankOf(fourth));
+    assertEquals(List.of(second, third, fourth), index.getStudentsInRanks(2, 10));
+    assertEquals(25.0, index.percentileOf(4.0), 0.001, "Ниже 4.0 никого, двое с 4.0 из 4");
+    assertEquals(87.5, index.percentileOf(first), 0.001);
+
+    Student improved = new Student("Сидоров Сидор Сидорович",
+        Map.of("Математика", 5, "Физика", 5, "Химия", 5));
+    index.update(improved);
+    assertEquals(4, index.size());
+    assertEquals(1, index.rankOf(improved));
+    assertEquals(List.of(first, improved), index.getStudentsInRanks(1, 2),
+        "Равные баллы упорядочены по ФИО");
+    assertEquals(4, index.rankOf(fourth));
+  }
+
+  @Test
+  @DisplayName("Лучшие и худшие ученики по каждому предмету")
+  @Description("Проверяем, что параллельный и последовательный расчет рейтингов по предметам "
+      + "совпадают с полной сортировкой учеников по оценке за каждый предмет")
+  @Severity(SeverityLevel.NORMAL)
+  @Story("Рейтинг учеников")
+  @Issue("TASK-409")
+  void testSubjectLeaderboards() {
+    List<String> subjects = List.of("Математика", "Физика", "Химия", "История");
+    Random random = new Random(22);
+    List<Student> manyStudents = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      Map<String, Integer> grades = new HashMap<>();
+      for (String subject : subjects) {
+        if (random.nextInt(4) != 0) {
+          grades.put(subject, 2 + random.nextInt(4));
+        }
+      }
+      if (!grades.isEmpty()) {
+        manyStudents.add(new Student("Ученик " + i, grades, "Класс " + (i % 7)));
+      }
+    }
+    Allure.parameter("Количество студентов", manyStudents.size());
+
+    Map<String, SubjectLeaderboard> sequential =
+        studentRanking.buildSubjectLeaderboards(manyStudents, 5);
+    GradeAnalyzerService service = new GradeAnalyzerService();
+    Map<String, SubjectLeaderboard> parallel =
+        service.buildSubjectLeaderboards(manyStudents, 5, 4);
+    assertEquals(new ArrayList<>(new TreeSet<>(subjects)),
+        new ArrayList<>(sequential.keySet()), "Предметы должны идти по алфавиту");
+
+    for (String subject : subjects) {
+      List<Student> graded = new ArrayList<>();
+      for (Student student : manyStudents) {
+        if (student.getGrades().containsKey(subject)) {
+          graded.add(student);
+        }
+      }
+      Comparator<Student> byGrade =
+          Comparator.comparingInt(student -> student.getGrades().get(subject));
+      graded.sort(byGrade.reversed().thenComparing(LeaderboardAccumulator.BEST_FIRST));
+      SubjectLeaderboard board = sequential.get(subject);
+      assertEquals(graded.subList(0, 5), board.getTop(), "Лучшие по предмету " + subject);
+      assertEquals(5, board.getMaxGrade());
+      assertEquals(graded.stream().filter(s -> s.getGrades().get(subject) == 5).count(),
+          board.getMaxGradeCount());
+      graded.sort(byGrade.thenComparing(LeaderboardAccumulator.WORST_FIRST));
+      assertEquals(graded.subList(0, 5), board.getBottom(), "Худшие по предмету " + subject);
+      assertEquals(2, board.getMinGrade());
+
+      SubjectLeaderboard parallelBoard = parallel.get(subject);
+      assertEquals(board.getTop(), parallelBoard.getTop());
+      assertEquals(board.getBottom(), parallelBoard.getBottom());
+      assertEquals(board.getMaxGradeCount(), parallelBoard.getMaxGradeCount());
+      assertEquals(board.getMinGradeCount(), parallelBoard.getMinGradeCount());
+    }
+
+    AnalysisReport report = service.analyzeAll(manyStudents, 0, 5);
+    assertEquals(sequential.keySet(), report.getSubjectLeaderboards().keySet());
+    assertEquals(sequential.get("Химия").getTop(),
+        report.getSubjectLeaderboards().get("Химия").getTop());
+  }
+
   @Step("Подготовка тестовых данных студентов")
   private void stepPrepareTestStudents() {
     Allure.parameter("Количество студентов", students.size());
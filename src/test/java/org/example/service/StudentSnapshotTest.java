@@ -0,0 +1,86 @@
+package org.example.service;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Issue;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.example.model.Student;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Тестирование бинарного снимка студентов")
+@Epic("Анализ успеваемости")
+@Feature("Снимок студентов")
+public class StudentSnapshotTest {
+
+  @TempDir
+  Path tempDir;
+
+  private final StudentSnapshot snapshot = new StudentSnapshot();
+
+  @Test
+  @DisplayName("Запись и чтение снимка")
+  @Description("Проверяем, что после записи и чтения снимка студенты совпадают вместе с папкой и оценками, включая пропущенные предметы")
+  @Severity(SeverityLevel.CRITICAL)
+  @Story("Снимок студентов")
+  @Issue("TASK-901")
+  void testSnapshotRoundTrip() throws IOException {
+    List<Student> students = List.of(
+        new Student("Иванов Иван Иванович",
+            Map.of("Математика", 5, "Физика", 4, "Химия", 3), "Школа 1/5А"),
+        new Student("Иванов Иван Иванович",
+            Map.of("Математика", 2, "История", 5), "Школа 1/5Б"),
+        new Student("Петров Петр Петрович", Map.of("Биология", 4, "Физика", 1), ""));
+    Path snapshotPath = tempDir.resolve("студенты.snapshot");
+
+    snapshot.write(students, snapshotPath);
+    List<Student> restored = snapshot.read(snapshotPath);
+
+    assertEquals(students, restored, "Студенты должны совпадать по ФИО и папке");
+    for (int i = 0; i < students.size(); i++) {
+      assertEquals(students.get(i).getCohort(), restored.get(i).getCohort());
+      assertEquals(students.get(i).getGrades(), restored.get(i).getGrades(),
+          "Пропущенные предметы не должны появляться после чтения");
+    }
+    snapshot.write(List.of(), snapshotPath);
+    assertEquals(List.of(), snapshot.read(snapshotPath));
+  }
+
+  @Test
+  @DisplayName("Поврежденный снимок")
+  @Description("Проверяем, что отрицательные и завышенные счетчики в заголовке приводят к IOException, а не к ошибке выделения памяти")
+  @Severity(SeverityLevel.NORMAL)
+  @Story("Снимок студентов")
+  @Issue("TASK-902")
+  void testCorruptSnapshotRejected() throws IOException {
+    Path snapshotPath = tempDir.resolve("студенты.snapshot");
+    snapshot.write(List.of(new Student("Иванов Иван Иванович", Map.of("Математика", 5))),
+        snapshotPath);
+    byte[] valid = Files.readAllBytes(snapshotPath);
+
+    int[][] headers = {{-1, 1}, {1, -1}, {1, Integer.MAX_VALUE}, {Integer.MAX_VALUE, 1}};
+    for (int[] counts : headers) {
+      ByteBuffer corrupt = ByteBuffer.wrap(valid.clone());
+      corrupt.putInt(8, counts[0]).putInt(12, counts[1]);
+      Files.write(snapshotPath, corrupt.array());
+      assertThrows(IOException.class, () -> snapshot.read(snapshotPath),
+          "Счетчики " + counts[0] + ", " + counts[1] + " должны отклоняться");
+    }
+    Files.write(snapshotPath, new byte[] {1, 2, 3});
+    assertThrows(IOException.class, () -> snapshot.read(snapshotPath));
+  }
+}